@@ -0,0 +1,152 @@
+package com.bitbreeds.webrtc.benchmark;
+
+import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.ThreadingMode;
+import com.bitbreeds.webrtc.peerconnection.ConnectionOptions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Compares platform and virtual threads for many connections.
+ *
+ * Each simulated connection is set up like a blocking {@link com.bitbreeds.webrtc.peerconnection.ConnectionImplementation}:
+ * a thread blocked reading its socket, an association executor and a callback executor,
+ * all created from {@link ConnectionOptions}.
+ *
+ * The idle benchmark runs a heartbeat round on all associations while the readers stay blocked.
+ * The active benchmark delivers a message to every connection, which ends in a blocking user callback.
+ *
+ * VIRTUAL needs JDK 21 and a build with -Pjdk21, 50000 platform threads may need a raised ulimit -u.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConnectionThreadingBenchmark {
+
+    private final static byte[] CLOSE = new byte[0];
+
+    private final static long CALLBACK_BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadingMode mode;
+
+    @Param({"1000", "10000", "50000"})
+    public int connections;
+
+    private final List<SimulatedConnection> simulated = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ConnectionOptions options = ConnectionOptions.defaults().withThreadingMode(mode);
+        for (int i = 0; i < connections; i++) {
+            SimulatedConnection connection = new SimulatedConnection(options);
+            options.connectionThreadFactory().newThread(connection).start();
+            simulated.add(connection);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simulated.forEach(SimulatedConnection::close);
+        simulated.clear();
+    }
+
+    @Benchmark
+    public void idle() throws InterruptedException {
+        CountDownLatch round = new CountDownLatch(connections);
+        for (SimulatedConnection connection : simulated) {
+            connection.heartbeat(round);
+        }
+        round.await();
+    }
+
+    @Benchmark
+    public void active() throws InterruptedException {
+        CountDownLatch round = new CountDownLatch(connections);
+        byte[] message = new byte[512];
+        for (SimulatedConnection connection : simulated) {
+            connection.receive(message, round);
+        }
+        round.await();
+    }
+
+    /**
+     * Threads of one connection, the reader stands in for the blocking socket read.
+     */
+    private static class SimulatedConnection implements Runnable {
+
+        private final BlockingQueue<byte[]> socket = new LinkedBlockingQueue<>();
+        private final Executor association;
+        private final Executor callbacks;
+        private volatile CountDownLatch round;
+        private volatile long checksum;
+
+        SimulatedConnection(ConnectionOptions options) {
+            this.association = options.newAssociationExecutor();
+            this.callbacks = options.newCallbackExecutor();
+        }
+
+        void heartbeat(CountDownLatch round) {
+            association.execute(round::countDown);
+        }
+
+        void receive(byte[] data, CountDownLatch round) {
+            this.round = round;
+            socket.offer(data);
+        }
+
+        void close() {
+            socket.offer(CLOSE);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    byte[] data = socket.take();
+                    if (data == CLOSE) {
+                        return;
+                    }
+                    CountDownLatch current = round;
+                    association.execute(() -> {
+                        checksum = SignalUtil.computeCRC32c(data);
+                        callbacks.execute(() -> {
+                            LockSupport.parkNanos(CALLBACK_BLOCK_NANOS);
+                            current.countDown();
+                        });
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.bitbreeds.webrtc.benchmark;
+
+import com.bitbreeds.webrtc.common.CRC32c;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Compares the CRC32c used for SCTP packets, picked by {@link CRC32c#compute(byte[], int, int)},
+ * with the pure-java slicing-by-8 fallback, across packet sizes.
+ *
+ * On JDK 8 both benchmarks run the pure-java version.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Crc32cBenchmark {
+
+    @Param({"64", "256", "1200", "9000"})
+    public int size;
+
+    private byte[] packet;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        packet = new byte[size];
+        new Random(size).nextBytes(packet);
+    }
+
+    @Benchmark
+    public long compute() {
+        return CRC32c.compute(packet, 0, packet.length);
+    }
+
+    @Benchmark
+    public long pureJava() {
+        CRC32c crc = new CRC32c();
+        crc.update(packet, 0, packet.length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,98 @@
+package com.bitbreeds.webrtc.benchmark;
+
+import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.sctp.model.SCTPChunk;
+import com.bitbreeds.webrtc.sctp.model.SCTPFixedAttributeType;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPPacketReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Compares parsing a received packet into {@link SCTPMessage} with reading it through {@link SCTPPacketReader}.
+ *
+ * The packet holds a number of bundled DATA chunks, both benchmarks read
+ * the TSN, stream, sequence and payload of every chunk.
+ * Run with -prof gc to see the allocation per packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PacketParseBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int chunks;
+
+    @Param({"32", "256"})
+    public int payloadSize;
+
+    private byte[] packet;
+
+    private final SCTPPacketReader reader = new SCTPPacketReader();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int chunkLength = 16 + payloadSize;
+        ByteBuffer buffer = ByteBuffer.allocate(12 + chunks * SignalUtil.multipleOfFour(chunkLength));
+        buffer.putShort((short) 5000).putShort((short) 5000).putInt(1234).putInt(0);
+        for (int i = 0; i < chunks; i++) {
+            buffer.position(12 + i * SignalUtil.multipleOfFour(chunkLength));
+            buffer.put((byte) SCTPMessageType.DATA.getNr())
+                    .put((byte) 3)
+                    .putShort((short) chunkLength)
+                    .putInt(1000 + i)
+                    .putShort((short) 1)
+                    .putShort((short) i)
+                    .putInt(53)
+                    .put(new byte[payloadSize]);
+        }
+        packet = buffer.array();
+    }
+
+    @Benchmark
+    public void message(Blackhole hole) {
+        SCTPMessage message = SCTPMessage.fromBytes(packet, 0, packet.length);
+        for (SCTPChunk chunk : message.getChunks()) {
+            hole.consume(SignalUtil.bytesToLong(chunk.getFixed().get(SCTPFixedAttributeType.TSN).getData()));
+            hole.consume(SignalUtil.intFromTwoBytes(chunk.getFixed().get(SCTPFixedAttributeType.STREAM_IDENTIFIER_S).getData()));
+            hole.consume(SignalUtil.intFromTwoBytes(chunk.getFixed().get(SCTPFixedAttributeType.STREAM_SEQUENCE_NUMBER).getData()));
+            hole.consume(chunk.getRest());
+        }
+    }
+
+    @Benchmark
+    public void reader(Blackhole hole) {
+        SCTPPacketReader in = reader.wrap(packet, 0, packet.length);
+        while (in.nextChunk()) {
+            hole.consume(in.getTsn());
+            hole.consume(in.getStreamId());
+            hole.consume(in.getStreamSequence());
+            hole.consume(in.getPayloadOffset());
+            hole.consume(in.getPayloadLength());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.bitbreeds.webrtc.benchmark;
+
+import com.bitbreeds.webrtc.signaling.BindingService;
+import com.bitbreeds.webrtc.stun.StunAttribute;
+import com.bitbreeds.webrtc.stun.StunAttributeTypeEnum;
+import com.bitbreeds.webrtc.stun.StunMessage;
+import com.bitbreeds.webrtc.stun.StunRequestTypeEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Cost of answering an ICE consent check through {@link BindingService},
+ * for requests with a fresh transaction ID and for retransmissions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StunBindingBenchmark {
+
+    private static final String PASSWORD = "benchmarkpassword";
+    private static final int REQUESTS = 1024;
+
+    private final InetSocketAddress sender = new InetSocketAddress("192.168.1.10", 50000);
+
+    private BindingService service;
+    private byte[][] requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new BindingService();
+        requests = new byte[REQUESTS][];
+        for (int i = 0; i < REQUESTS; i++) {
+            Map<StunAttributeTypeEnum,StunAttribute> attributes = new HashMap<>();
+            attributes.put(StunAttributeTypeEnum.ICE_CONTROLLED,
+                    new StunAttribute(StunAttributeTypeEnum.ICE_CONTROLLED, new byte[8]));
+            byte[] transactionId = new byte[12];
+            transactionId[10] = (byte) (i >> 8);
+            transactionId[11] = (byte) i;
+            requests[i] = StunMessage.fromData(
+                    StunRequestTypeEnum.BINDING_REQUEST,
+                    new byte[]{0x21, 0x12, (byte) 0xA4, 0x42},
+                    transactionId,
+                    attributes,
+                    true,
+                    true,
+                    "local:remote",
+                    PASSWORD).toBytes();
+        }
+    }
+
+    @Benchmark
+    public byte[] freshRequest() {
+        byte[] request = requests[next];
+        next = (next + 1) % REQUESTS;
+        return service.processBindingRequest(request, "local", PASSWORD, sender);
+    }
+
+    @Benchmark
+    public byte[] retransmittedRequest() {
+        return service.processBindingRequest(requests[0], "local", PASSWORD, sender);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bitbreeds.webrtc.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Pool of equally sized byte arrays handed out as {@link PooledBuffer}s.
+ *
+ * Arrays return to the pool when the last reference to their buffer is released.
+ * Requests larger than the pooled size, and returns beyond the pool limit,
+ * fall back to plain allocation and garbage collection.
+ */
+public class BufferPool {
+
+    /**
+     * Fits any datagram below the 1500 byte Ethernet MTU
+     */
+    public final static int DEFAULT_BUFFER_SIZE = 2048;
+
+    private final static int DEFAULT_MAX_POOLED = 8192;
+
+    private static class Holder {
+        private final static BufferPool SHARED = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+    }
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger(0);
+
+    /**
+     * @param bufferSize size of the pooled arrays
+     * @param maxPooled most arrays kept when not in use
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled < 0) {
+            throw new IllegalArgumentException("Bad pool size, buffer size: " + bufferSize + " max pooled: " + maxPooled);
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return pool shared by all connections
+     */
+    public static BufferPool shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * @param minSize bytes needed
+     * @return buffer with a reference count of 1, and length set to its capacity
+     */
+    public PooledBuffer acquire(int minSize) {
+        if (minSize > bufferSize) {
+            return PooledBuffer.wrap(new byte[minSize]);
+        }
+        byte[] array = free.poll();
+        if (array == null) {
+            array = new byte[bufferSize];
+        } else {
+            freeCount.decrementAndGet();
+        }
+        return new PooledBuffer(array, this);
+    }
+
+    void recycle(byte[] array) {
+        if (freeCount.incrementAndGet() <= maxPooled) {
+            free.offer(array);
+        } else {
+            freeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return arrays currently waiting in the pool
+     */
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,227 @@
+package com.bitbreeds.webrtc.common;
+
+import java.util.Arrays;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Big endian field access over a byte array.
+ *
+ * Replaces reading fields as intFromTwoBytes(copyRange(...)) and writing them
+ * as twoBytesFromInt(...) joined with joinBytesArrays, which allocate for every field.
+ * Reads and writes go straight to the array, only {@link #readBytes(int)} copies.
+ *
+ * The static methods access a position directly, an instance keeps a position
+ * that moves past each field read or written, and never goes beyond its limit.
+ *
+ * Not thread safe.
+ */
+public final class ByteCursor {
+
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    private ByteCursor(byte[] bytes, int offset, int limit) {
+        if (offset < 0 || limit > bytes.length || offset > limit) {
+            throw new IllegalArgumentException("Bad range " + offset + "-" + limit + " for " + bytes.length + " bytes");
+        }
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * @param bytes array to read or write
+     * @return cursor over the whole array
+     */
+    public static ByteCursor wrap(byte[] bytes) {
+        return new ByteCursor(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param bytes array to read or write
+     * @param offset first position
+     * @param length bytes the cursor may access
+     * @return cursor over the range
+     */
+    public static ByteCursor wrap(byte[] bytes, int offset, int length) {
+        return new ByteCursor(bytes, offset, offset + length);
+    }
+
+    /**
+     * @return the array the cursor reads and writes
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public ByteCursor position(int position) {
+        if (position < 0 || position > limit) {
+            throw new IllegalArgumentException("Position " + position + " outside limit " + limit);
+        }
+        this.position = position;
+        return this;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    public ByteCursor skip(int count) {
+        return position(position + count);
+    }
+
+    /**
+     * Skip to the next multiple of four from a start, used for padded fields
+     *
+     * @param start where the padded field started
+     * @return this cursor
+     */
+    public ByteCursor alignFrom(int start) {
+        return position(Math.min(limit, start + SignalUtil.multipleOfFour(position - start)));
+    }
+
+    public int readUnsignedByte() {
+        require(1);
+        return bytes[position++] & 0xFF;
+    }
+
+    public int readUnsignedShort() {
+        require(2);
+        int value = getUnsignedShort(bytes, position);
+        position += 2;
+        return value;
+    }
+
+    public int readInt() {
+        require(4);
+        int value = getInt(bytes, position);
+        position += 4;
+        return value;
+    }
+
+    public long readUnsignedInt() {
+        return readInt() & 0xFFFFFFFFL;
+    }
+
+    public long readLong() {
+        return readUnsignedInt() << 32 | readUnsignedInt();
+    }
+
+    /**
+     * @param length bytes to copy
+     * @return copy of the next bytes
+     */
+    public byte[] readBytes(int length) {
+        require(length);
+        byte[] out = Arrays.copyOfRange(bytes, position, position + length);
+        position += length;
+        return out;
+    }
+
+    public ByteCursor writeByte(int value) {
+        require(1);
+        bytes[position++] = (byte) value;
+        return this;
+    }
+
+    public ByteCursor writeShort(int value) {
+        require(2);
+        putShort(bytes, position, value);
+        position += 2;
+        return this;
+    }
+
+    public ByteCursor writeInt(long value) {
+        require(4);
+        putInt(bytes, position, value);
+        position += 4;
+        return this;
+    }
+
+    public ByteCursor writeLong(long value) {
+        require(8);
+        putInt(bytes, position, value >>> 32);
+        putInt(bytes, position + 4, value);
+        position += 8;
+        return this;
+    }
+
+    public ByteCursor writeBytes(byte[] data) {
+        return writeBytes(data, 0, data.length);
+    }
+
+    public ByteCursor writeBytes(byte[] data, int offset, int length) {
+        require(length);
+        System.arraycopy(data, offset, bytes, position, length);
+        position += length;
+        return this;
+    }
+
+    /**
+     * Write zeros up to the next multiple of four from a start
+     *
+     * @param start where the padded field started
+     * @return this cursor
+     */
+    public ByteCursor padFrom(int start) {
+        int end = start + SignalUtil.multipleOfFour(position - start);
+        require(end - position);
+        while (position < end) {
+            bytes[position++] = 0;
+        }
+        return this;
+    }
+
+    private void require(int count) {
+        if (count < 0 || limit - position < count) {
+            throw new IllegalArgumentException("Need " + count + " bytes at " + position + ", limit is " + limit);
+        }
+    }
+
+    public static int getUnsignedShort(byte[] bytes, int position) {
+        return ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+    }
+
+    public static int getInt(byte[] bytes, int position) {
+        return ((bytes[position] & 0xFF) << 24)
+                | ((bytes[position + 1] & 0xFF) << 16)
+                | ((bytes[position + 2] & 0xFF) << 8)
+                | (bytes[position + 3] & 0xFF);
+    }
+
+    public static long getUnsignedInt(byte[] bytes, int position) {
+        return getInt(bytes, position) & 0xFFFFFFFFL;
+    }
+
+    public static void putShort(byte[] bytes, int position, int value) {
+        bytes[position] = (byte) (value >>> 8);
+        bytes[position + 1] = (byte) value;
+    }
+
+    public static void putInt(byte[] bytes, int position, long value) {
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+    }
+}
@@ -13,6 +13,9 @@ package com.bitbreeds.webrtc.common;
  * limitations under the License.
  */
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.zip.Checksum;
 
 
@@ -20,13 +23,72 @@ import java.util.zip.Checksum;
  * A pure-java implementation of the CRC32 checksum that uses
  * the CRC32-C polynomial, the same polynomial used by iSCSI
  * and implemented on many Intel chipsets supporting SSE4.2.
+ *
+ * The pure-java version processes 8 bytes per iteration (slicing-by-8).
+ * Use {@link #compute(byte[], int, int)} or {@link #create()}, they pick
+ * java.util.zip.CRC32C on JDK 9 and later, which the JVM runs on the CPU's CRC instructions.
  */
 // this code was taken from Apache Hadoop
-final class CRC32c
+public final class CRC32c
         implements Checksum
 {
     private static final int MASK_DELTA = 0xa282ead8;
 
+    /**
+     * Constructor of java.util.zip.CRC32C, null when running on JDK 8
+     */
+    private static final MethodHandle JDK_CRC32C = findJdkCrc32c();
+
+    private static MethodHandle findJdkCrc32c()
+    {
+        try {
+            Class<?> type = Class.forName("java.util.zip.CRC32C");
+            return MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Checksum.class));
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether the JDK implementation is used
+     */
+    public static boolean isJdkAccelerated()
+    {
+        return JDK_CRC32C != null;
+    }
+
+    /**
+     * @return a new CRC32c checksum, the JDK one when available
+     */
+    public static Checksum create()
+    {
+        if (JDK_CRC32C != null) {
+            try {
+                return (Checksum) JDK_CRC32C.invokeExact();
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException("Could not create java.util.zip.CRC32C", e);
+            }
+        }
+        return new CRC32c();
+    }
+
+    /**
+     * @param data array holding the data
+     * @param offset start of the data
+     * @param length number of bytes
+     * @return CRC32c of the range
+     */
+    public static long compute(byte[] data, int offset, int length)
+    {
+        Checksum checksum = create();
+        checksum.update(data, offset, length);
+        return checksum.getValue();
+    }
+
     public static int maskedCrc32c(byte[] data)
     {
         return maskedCrc32c(data, 0, data.length);
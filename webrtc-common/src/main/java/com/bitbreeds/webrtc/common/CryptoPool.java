@@ -0,0 +1,127 @@
+package com.bitbreeds.webrtc.common;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Shared crypto primitives for connection setup.
+ *
+ * {@link Mac} and {@link MessageDigest} instances are expensive to look up and not thread safe,
+ * so each thread keeps its own, reset before it is handed out.
+ * Use the returned instance right away and do not pass it on to other threads.
+ *
+ * All randomness comes from one {@link SecureRandom} that never blocks on the entropy pool,
+ * DRBG where the JDK has it, otherwise NativePRNGNonBlocking.
+ */
+public final class CryptoPool {
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+
+    private static class Holder {
+        private static final SecureRandom RANDOM = createRandom();
+    }
+
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_SHA1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("HmacSHA1 not available", e);
+        }
+    });
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> digest("MD5"));
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> digest("SHA-256"));
+
+    private CryptoPool() {
+    }
+
+    /**
+     * @return shared non-blocking random generator, safe to use from any thread
+     */
+    public static SecureRandom random() {
+        return Holder.RANDOM;
+    }
+
+    /**
+     * @param length number of bytes wanted
+     * @return random bytes from {@link #random()}
+     */
+    public static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * @param key key to initialize with
+     * @return this threads HmacSHA1 {@link Mac}, initialized with key
+     */
+    public static Mac hmacSha1(byte[] key) {
+        Mac mac = HMAC.get();
+        try {
+            mac.init(new SecretKeySpec(key, HMAC_SHA1));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Bad HmacSHA1 key", e);
+        }
+        return mac;
+    }
+
+    /**
+     * @return this threads MD5 digest, reset
+     */
+    public static MessageDigest md5() {
+        MessageDigest md = MD5.get();
+        md.reset();
+        return md;
+    }
+
+    /**
+     * @return this threads SHA-256 digest, reset
+     */
+    public static MessageDigest sha256() {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return md;
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+    }
+
+    private static SecureRandom createRandom() {
+        for (String algorithm : new String[]{"DRBG", "NativePRNGNonBlocking"}) {
+            try {
+                return SecureRandom.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                //Try the next one
+            }
+        }
+        return new SecureRandom();
+    }
+}
@@ -0,0 +1,343 @@
+package com.bitbreeds.webrtc.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * A hashed timing wheel, one thread serving timeouts for any number of associations.
+ *
+ * Timeouts are hashed into buckets by deadline, and the worker thread visits one bucket per tick.
+ * Scheduling and cancelling are O(1) and never block, which suits protocol timers that are
+ * restarted on almost every packet and rarely fire (T3-rtx, delayed SACK, heartbeat).
+ * Deadlines are only as precise as the tick.
+ *
+ * Tasks run on the timer thread, so they should be short and hand heavier work to
+ * the executor of the association they belong to.
+ *
+ * @see <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf">Hashed and Hierarchical Timing Wheels</a>
+ */
+public class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final static long DEFAULT_TICK_MILLIS = 10;
+    private final static int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final HashedWheelTimer SHARED = new HashedWheelTimer(
+            "wheel-timer",
+            DEFAULT_TICK_MILLIS,
+            TimeUnit.MILLISECONDS,
+            DEFAULT_WHEEL_SIZE);
+
+    /**
+     * @return the process wide timer used by all associations
+     */
+    public static HashedWheelTimer shared() {
+        return SHARED;
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<WheelTimeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong(0);
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+    private volatile long startTime = 0;
+    private Thread worker;
+
+    /**
+     * Only touched by the worker thread
+     */
+    private long tick = 0;
+
+    /**
+     * @param name name of the worker thread
+     * @param tick duration of one tick
+     * @param unit unit of tick
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, long tick, TimeUnit unit, int wheelSize) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("Tick must be positive, was " + tick);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Bad wheel size " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        size = Math.max(size, 1);
+        this.name = name;
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Run the task once after the delay.
+     *
+     * @param task task to run on the timer thread
+     * @param delay time to wait
+     * @param unit unit of delay
+     * @return handle to cancel the timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        if (stopped) {
+            throw new IllegalStateException("Timer " + name + " is stopped");
+        }
+        start();
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return timeouts scheduled and not yet run or cancelled
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the worker, pending timeouts will never run.
+     */
+    public void stop() {
+        stopped = true;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            long now = System.nanoTime();
+            worker = new Thread(this::work, name);
+            worker.setDaemon(true);
+            startTime = now == 0 ? 1 : now;
+            worker.start();
+        }
+        while (startTime == 0) {
+            Thread.yield(); //Another thread is starting the worker
+        }
+    }
+
+    private void work() {
+        while (!stopped) {
+            long now = waitForNextTick();
+            if (stopped) {
+                break;
+            }
+            removeCancelled();
+            transferAdded();
+            expire(wheel[(int) (tick & mask)], now);
+            tick++;
+        }
+        logger.info("Timer {} stopped", name);
+    }
+
+    /**
+     * @return time since start when the tick is due
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - current + 999999) / 1000000;
+            if (sleepMillis <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return current;
+                }
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferAdded() {
+        WheelTimeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() == WheelTimeout.CANCELLED) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket, long now) {
+        WheelTimeout timeout = bucket.head;
+        while (timeout != null) {
+            WheelTimeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                if (timeout.deadline <= now) {
+                    timeout.expire();
+                } else {
+                    throw new IllegalStateException("Timeout deadline " + timeout.deadline + " is after " + now);
+                }
+            } else if (timeout.state.get() == WheelTimeout.CANCELLED) {
+                bucket.remove(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Handle to a scheduled task
+     */
+    public interface Timeout {
+
+        /**
+         * @return true if the task was cancelled before it ran
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        /*
+         * Only touched by the worker thread
+         */
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(INIT, CANCELLED)) {
+                pending.decrementAndGet();
+                cancelled.add(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                pending.decrementAndGet();
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("Timer task failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, so cancelled ones can be removed in O(1)
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bitbreeds.webrtc.common;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Reference counted byte array, with the valid data in [0,length).
+ *
+ * The creator holds the first reference. Whoever the buffer is handed on to
+ * either releases it or passes it on, and {@link #retain()} adds a reference for
+ * sharing it. The array must not be used after the last release.
+ */
+public final class PooledBuffer {
+
+    private final byte[] array;
+    private final BufferPool pool;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private int length;
+
+    PooledBuffer(byte[] array, BufferPool pool) {
+        this.array = array;
+        this.pool = pool;
+        this.length = array.length;
+    }
+
+    /**
+     * @param data bytes to wrap
+     * @return buffer not belonging to any pool, with length of the data
+     */
+    public static PooledBuffer wrap(byte[] data) {
+        return new PooledBuffer(data, null);
+    }
+
+    public byte[] array() {
+        return array;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param length number of valid bytes from the start of the array
+     */
+    public void setLength(int length) {
+        if (length < 0 || length > array.length) {
+            throw new IllegalArgumentException("Length " + length + " outside buffer of " + array.length);
+        }
+        this.length = length;
+    }
+
+    /**
+     * @return copy of the valid bytes
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(array, length);
+    }
+
+    /**
+     * @return this buffer, with one more reference
+     */
+    public PooledBuffer retain() {
+        references.updateAndGet(i -> {
+            if (i <= 0) {
+                throw new IllegalStateException("Buffer already released");
+            }
+            return i + 1;
+        });
+        return this;
+    }
+
+    /**
+     * Drop a reference, the array returns to its pool when none are left.
+     *
+     * @return true if this was the last reference
+     */
+    public boolean release() {
+        int left = references.decrementAndGet();
+        if (left < 0) {
+            throw new IllegalStateException("Buffer released more times than retained");
+        }
+        if (left == 0 && pool != null) {
+            pool.recycle(array);
+        }
+        return left == 0;
+    }
+
+    /**
+     * @return current number of references
+     */
+    public int referenceCount() {
+        return references.get();
+    }
+}
@@ -0,0 +1,116 @@
+package com.bitbreeds.webrtc.common;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * A fixed set of single threaded event loops that associations are pinned to.
+ *
+ * Everything an association does (inbound handling, timer work, outbound sends) runs on its shard,
+ * so its state is only touched by one thread, and the number of threads
+ * follows the number of cores rather than the number of connections.
+ * User threads only reserve send buffer space and read buffered amounts, the send buffer locks for those.
+ *
+ * The JVM has no portable thread affinity, so shards are not bound to specific cores,
+ * but with one shard per core the scheduler has no reason to move them around.
+ */
+public class ShardedExecutor {
+
+    private static class Holder {
+        private static final ShardedExecutor SHARED = new ShardedExecutor(
+                "association",
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return process wide shards, one per available processor
+     */
+    public static ShardedExecutor shared() {
+        return Holder.SHARED;
+    }
+
+    private final ExecutorService[] shards;
+    private final AtomicInteger next = new AtomicInteger(0);
+
+    /**
+     * @param name prefix of the shard thread names
+     * @param shardCount number of shards, usually the number of cores
+     */
+    public ShardedExecutor(String name, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Need at least one shard, got " + shardCount);
+        }
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String threadName = name + "-shard-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return the next shard, round robin, to spread new associations evenly
+     */
+    public Executor next() {
+        return shards[Math.floorMod(next.getAndIncrement(), shards.length)];
+    }
+
+    /**
+     * @param key key identifying the association
+     * @return the shard this key always maps to
+     */
+    public Executor shardFor(Object key) {
+        int hash = key.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    public int size() {
+        return shards.length;
+    }
+
+    /**
+     * Stop all shards after the tasks already queued have run.
+     */
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * @return true if all shards terminated within the timeout
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService shard : shards) {
+            long left = deadline - System.nanoTime();
+            if (!shard.awaitTermination(Math.max(left, 0), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,7 @@
 package com.bitbreeds.webrtc.common;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.security.MessageDigest;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -183,10 +179,17 @@ public class SignalUtil {
      * @param bytes
      */
     public static long computeCRC32c(byte[] bytes) {
-        CRC32c crc = new CRC32c();
-        crc.reset();
-        crc.update(bytes,0,bytes.length);
-        return crc.getValue();
+        return computeCRC32c(bytes,0,bytes.length);
+    }
+
+    /**
+     * @param bytes array holding the data
+     * @param offset start of the data
+     * @param length number of bytes
+     * @return CRC32c of the range
+     */
+    public static long computeCRC32c(byte[] bytes, int offset, int length) {
+        return CRC32c.compute(bytes,offset,length);
     }
 
     /**
@@ -271,11 +274,7 @@ public class SignalUtil {
      * @return md5 hash
      */
     public static byte[] md5key(byte[] key) {
-        try {
-            return MessageDigest.getInstance("MD5").digest(key);
-        } catch (Exception e) {
-            throw new IllegalStateException("Could not create hash");
-        }
+        return CryptoPool.md5().digest(key);
     }
 
     /**
@@ -285,17 +284,7 @@ public class SignalUtil {
      * @return created hmacsha1
      */
     public static byte[] hmacSha1(byte[] data, byte[] key) {
-        try {
-            // Get an hmac_sha1 key from the raw key bytes;
-            SecretKeySpec signingKey = new SecretKeySpec(key, "HmacSHA1");
-            // Get an hmac_sha1 Mac instance and initialize with the signing key
-            Mac mac = Mac.getInstance("HmacSHA1");
-            mac.init(signingKey);
-            // Compute the hmac on input data bytes
-            return mac.doFinal(data);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return CryptoPool.hmacSha1(key).doFinal(data);
     }
 
 
@@ -332,11 +321,7 @@ public class SignalUtil {
      * @return secure random bytes of length lgt
      */
     public static byte[] randomBytes(int lgt) {
-        SecureRandom rd = new SecureRandom();
-        rd.setSeed(System.nanoTime());
-        byte[] bt = new byte[lgt];
-        rd.nextBytes(bt);
-        return bt;
+        return CryptoPool.randomBytes(lgt);
     }
 
 }
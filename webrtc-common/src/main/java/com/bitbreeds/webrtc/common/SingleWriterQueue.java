@@ -0,0 +1,122 @@
+package com.bitbreeds.webrtc.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Many producers, one writer, no locks.
+ *
+ * Producers add to a lock free queue and return right away. The first item offered to an idle
+ * queue schedules a drain task on the executor. The task writes at most one batch, then
+ * schedules itself again if more is queued, so a busy queue never keeps the executor from its other work.
+ *
+ * @param <T> item type
+ */
+public class SingleWriterQueue<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleWriterQueue.class);
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Items offered but not yet written, a drain task is scheduled while this is above 0
+     */
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    private final Executor executor;
+    private final int batchSize;
+    private final Consumer<List<T>> writer;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param executor runs the drain task, must run one task at a time for items to be written in order
+     * @param batchSize most items written by one run of the drain task
+     * @param writer writes one batch, never called concurrently
+     */
+    public SingleWriterQueue(Executor executor, int batchSize, Consumer<List<T>> writer) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be above 0, is " + batchSize);
+        }
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.writer = writer;
+    }
+
+    /**
+     * Queue the item, and schedule the drain task if it is not already scheduled.
+     *
+     * @param item item to write
+     */
+    public void offer(T item) {
+        if (closed) {
+            return;
+        }
+        queue.offer(item);
+        if (pending.getAndIncrement() == 0) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Writer stopped, dropping queued items");
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    /**
+     * Items are counted after they are queued, so every counted item can be polled.
+     */
+    private void drain() {
+        int count = Math.min(batchSize, pending.get());
+        List<T> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(queue.poll());
+        }
+        try {
+            writer.accept(batch);
+        } catch (RuntimeException e) {
+            logger.error("Write failed", e);
+        }
+        if (pending.addAndGet(-count) != 0) {
+            schedule();
+        }
+    }
+
+    /**
+     * @return items queued and not yet written
+     */
+    public int size() {
+        return pending.get();
+    }
+}
@@ -0,0 +1,187 @@
+package com.bitbreeds.webrtc.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Off heap arena for payloads kept around a while, such as data waiting for a SACK
+ * or for the rest of its fragments.
+ *
+ * Memory is taken from the OS in direct slabs, and cut into power of two blocks from 64 bytes
+ * up to 64 KB. Released blocks are reused for the same size, slabs are never given back.
+ * Once the limit is reached, or the JVM runs out of direct memory, blocks fall back to the heap,
+ * so allocation never fails.
+ *
+ * Keeping retained payloads here means the garbage collector only sees the small handles,
+ * so pause times do not grow with the number of bytes in flight.
+ */
+public class SlabAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlabAllocator.class);
+
+    public final static int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    /**
+     * Direct memory defaults to the heap size, leave half of it to sockets and others
+     */
+    private final static long DEFAULT_MAX_OFF_HEAP = Math.min(512L << 20, Runtime.getRuntime().maxMemory() / 2);
+
+    private final static int MIN_BLOCK_SHIFT = 6;
+    private final static int MAX_BLOCK_SHIFT = 16;
+
+    private static class Holder {
+        private final static SlabAllocator SHARED = new SlabAllocator(DEFAULT_SLAB_SIZE, DEFAULT_MAX_OFF_HEAP);
+    }
+
+    private final int slabSize;
+
+    /**
+     * Lowered to what is taken when the JVM refuses more direct memory
+     */
+    private volatile long maxOffHeap;
+    private final AtomicLong offHeap = new AtomicLong(0);
+    private final SizeClass[] classes = new SizeClass[MAX_BLOCK_SHIFT - MIN_BLOCK_SHIFT + 1];
+
+    /**
+     * @param slabSize bytes taken from the OS at a time, at least the largest block size
+     * @param maxOffHeap most bytes to take from the OS
+     */
+    public SlabAllocator(int slabSize, long maxOffHeap) {
+        if (slabSize < (1 << MAX_BLOCK_SHIFT)) {
+            throw new IllegalArgumentException("Slab size must be at least " + (1 << MAX_BLOCK_SHIFT) + ", was " + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.maxOffHeap = maxOffHeap;
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass(1 << (MIN_BLOCK_SHIFT + i));
+        }
+    }
+
+    /**
+     * @return allocator shared by all associations
+     */
+    public static SlabAllocator shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * @param data bytes to store
+     * @return handle to a copy of the data, must be released when no longer needed
+     */
+    public SlabBytes allocate(byte[] data) {
+        return allocate(data, 0, data.length);
+    }
+
+    /**
+     * @param data array holding the bytes to store
+     * @param offset start of the bytes
+     * @param length number of bytes
+     * @return handle to a copy of the data, must be released when no longer needed
+     */
+    public SlabBytes allocate(byte[] data, int offset, int length) {
+        if (length > (1 << MAX_BLOCK_SHIFT)) {
+            throw new IllegalArgumentException("Can not allocate more than " + (1 << MAX_BLOCK_SHIFT) + " bytes, was " + length);
+        }
+        SizeClass sizeClass = classes[classIndex(length)];
+        ByteBuffer block = sizeClass.take();
+        ByteBuffer view = block.duplicate();
+        view.clear();
+        view.put(data, offset, length);
+        return new SlabBytes(block, sizeClass, length);
+    }
+
+    private static int classIndex(int length) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+        return Math.max(shift, MIN_BLOCK_SHIFT) - MIN_BLOCK_SHIFT;
+    }
+
+    /**
+     * @return bytes taken from the OS
+     */
+    public long getOffHeapBytes() {
+        return offHeap.get();
+    }
+
+    /**
+     * @return blocks allocated and not yet released
+     */
+    public int getBlocksInUse() {
+        int sum = 0;
+        for (SizeClass sizeClass : classes) {
+            sum += sizeClass.inUse.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Free blocks of one size
+     */
+    class SizeClass {
+
+        private final int blockSize;
+        private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inUse = new AtomicInteger(0);
+
+        SizeClass(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        ByteBuffer take() {
+            inUse.incrementAndGet();
+            ByteBuffer block = free.poll();
+            if (block != null) {
+                return block;
+            }
+            if (offHeap.addAndGet(slabSize) <= maxOffHeap) {
+                ByteBuffer slab;
+                try {
+                    slab = ByteBuffer.allocateDirect(slabSize);
+                } catch (OutOfMemoryError e) {
+                    long taken = offHeap.addAndGet(-slabSize);
+                    maxOffHeap = taken;
+                    logger.warn("Out of direct memory after {} bytes, using heap from now on", taken);
+                    return ByteBuffer.allocate(blockSize);
+                }
+                for (int position = blockSize; position + blockSize <= slabSize; position += blockSize) {
+                    slab.limit(position + blockSize).position(position);
+                    free.offer(slab.slice());
+                }
+                slab.limit(blockSize).position(0);
+                return slab.slice();
+            }
+            offHeap.addAndGet(-slabSize);
+            logger.debug("Off heap limit of {} reached, using heap for {} bytes", maxOffHeap, blockSize);
+            return ByteBuffer.allocate(blockSize);
+        }
+
+        void give(ByteBuffer block) {
+            inUse.decrementAndGet();
+            if (block.isDirect()) {
+                free.offer(block);
+            }
+        }
+    }
+}
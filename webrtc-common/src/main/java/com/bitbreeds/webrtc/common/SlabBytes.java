@@ -0,0 +1,80 @@
+package com.bitbreeds.webrtc.common;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Handle to bytes stored by a {@link SlabAllocator}.
+ *
+ * The block goes back to the allocator on {@link #release()}, reading after that fails.
+ * Releasing more than once is allowed and does nothing.
+ */
+public final class SlabBytes {
+
+    private final ByteBuffer block;
+    private final SlabAllocator.SizeClass owner;
+    private final int length;
+    private boolean released = false;
+
+    SlabBytes(ByteBuffer block, SlabAllocator.SizeClass owner, int length) {
+        this.block = block;
+        this.owner = owner;
+        this.length = length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return heap copy of the stored bytes
+     */
+    public byte[] toBytes() {
+        byte[] out = new byte[length];
+        copyTo(out, 0);
+        return out;
+    }
+
+    /**
+     * @param destination array to copy to
+     * @param offset position in the destination
+     */
+    public synchronized void copyTo(byte[] destination, int offset) {
+        if (released) {
+            throw new IllegalStateException("Bytes already released");
+        }
+        ByteBuffer view = block.duplicate();
+        view.clear();
+        view.get(destination, offset, length);
+    }
+
+    /**
+     * Give the block back to the allocator
+     */
+    public synchronized void release() {
+        if (!released) {
+            released = true;
+            owner.give(block);
+        }
+    }
+
+    public synchronized boolean isReleased() {
+        return released;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bitbreeds.webrtc.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Access to virtual threads from code compiled for Java 8.
+ *
+ * The thread factory is created by a class in src/main/java21, which is only compiled
+ * when building with the jdk21 profile (mvn -Pjdk21 install) on JDK 21 or later.
+ * Without it, or on an older runtime, virtual threads are reported as unavailable.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private final static String SUPPORT_CLASS = "com.bitbreeds.webrtc.common.VirtualThreadSupport";
+
+    private static final Function<String,ThreadFactory> factories = load();
+
+    private VirtualThreads() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<String,ThreadFactory> load() {
+        try {
+            return (Function<String,ThreadFactory>) Class.forName(SUPPORT_CLASS)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.debug("Virtual threads not available: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return true if this build and runtime support virtual threads
+     */
+    public static boolean isAvailable() {
+        return factories != null;
+    }
+
+    /**
+     * @param name prefix of the thread names
+     * @return factory creating virtual threads
+     */
+    public static ThreadFactory factory(String name) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads need JDK 21 and a build with the jdk21 profile");
+        }
+        return factories.apply(name);
+    }
+
+    /**
+     * @param name prefix of the thread names
+     * @return executor starting a new virtual thread for each task
+     */
+    public static Executor perTaskExecutor(String name) {
+        ThreadFactory factory = factory(name);
+        return task -> factory.newThread(task).start();
+    }
+}
@@ -16,7 +16,6 @@ package com.bitbreeds.webrtc.model.sctp;
  * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
 
-import java.util.Arrays;
 
 /**
  * @see <a href="https://tools.ietf.org/html/draft-ietf-rtcweb-data-channel-13#section-6.1">webrtc-ppid</a>
@@ -50,11 +49,15 @@ public enum SCTPPayloadProtocolId {
         this.id = id;
     }
 
+    private static final SCTPPayloadProtocolId[] VALUES = values();
+
     public static SCTPPayloadProtocolId fromValue(int id) {
-        return Arrays.stream(values())
-                .filter(i -> i.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No payload protocal id: " + id));
+        for (SCTPPayloadProtocolId value : VALUES) {
+            if (value.id == id) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No payload protocal id: " + id);
     }
 
     public int getId() {
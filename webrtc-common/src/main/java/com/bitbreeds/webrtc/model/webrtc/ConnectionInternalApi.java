@@ -39,4 +39,27 @@ public interface ConnectionInternalApi {
 
     void processReceivedMessage(byte[] data);
 
+    /**
+     * @param streamId stream of the data channel
+     * @return bytes of user data queued or in flight on the stream, not yet acknowledged by the peer
+     */
+    default long getBufferedAmount(int streamId) {
+        return 0;
+    }
+
+    /**
+     * @param streamId stream of the data channel
+     * @param threshold buffered amount at or below which {@link #bufferedAmountLow(int)} is called
+     */
+    default void setBufferedAmountLowThreshold(int streamId, long threshold) {
+    }
+
+    /**
+     * Called when the buffered amount of the stream falls to or below its threshold
+     *
+     * @param streamId stream of the data channel
+     */
+    default void bufferedAmountLow(int streamId) {
+    }
+
 }
@@ -27,6 +27,8 @@ public class DataChannel {
 
     private final ConnectionInternalApi connection;
 
+    private volatile long bufferedAmountLowThreshold = 0;
+
     public DataChannel(ConnectionInternalApi connection, int streamId, ReliabilityParameters reliabilityParameters) {
         this.streamId = streamId;
         this.reliabilityParameters = reliabilityParameters;
@@ -41,6 +43,8 @@ public class DataChannel {
 
     public Consumer<OpenEvent> onOpen = (i)->{};
 
+    public Consumer<BufferedAmountLowEvent> onBufferedAmountLow = (i)->{};
+
     public void send(String data) {
         connection.send(data.getBytes(), SCTPPayloadProtocolId.WEBRTC_STRING,streamId);
     }
@@ -49,6 +53,31 @@ public class DataChannel {
         connection.send(data, SCTPPayloadProtocolId.WEBRTC_BINARY,streamId);
     }
 
+    /**
+     * A send fails when the send buffer of the association is full,
+     * check this before sending and wait for {@link #onBufferedAmountLow} instead.
+     *
+     * @return bytes of user data sent on this channel and not yet acknowledged by the peer
+     */
+    public long getBufferedAmount() {
+        return connection.getBufferedAmount(streamId);
+    }
+
+    public long getBufferedAmountLowThreshold() {
+        return bufferedAmountLowThreshold;
+    }
+
+    /**
+     * @param threshold {@link #onBufferedAmountLow} runs when the buffered amount falls from above to at or below this
+     */
+    public void setBufferedAmountLowThreshold(long threshold) {
+        if(threshold < 0) {
+            throw new IllegalArgumentException("Threshold must be 0 or above, is " + threshold);
+        }
+        this.bufferedAmountLowThreshold = threshold;
+        connection.setBufferedAmountLowThreshold(streamId, threshold);
+    }
+
     public int getStreamId() {
         return streamId;
     }
@@ -0,0 +1,89 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReleasedArrayIsReused() {
+        BufferPool pool = new BufferPool(64, 4);
+        PooledBuffer first = pool.acquire(10);
+        byte[] array = first.array();
+        assertEquals(64, first.length());
+
+        assertTrue(first.release());
+        assertEquals(1, pool.getFreeCount());
+
+        PooledBuffer second = pool.acquire(64);
+        assertSame(array, second.array());
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void testRetainNeedsMatchingRelease() {
+        BufferPool pool = new BufferPool(64, 4);
+        PooledBuffer buffer = pool.acquire(10).retain();
+
+        assertFalse(buffer.release());
+        assertEquals(0, pool.getFreeCount());
+        assertTrue(buffer.release());
+        assertEquals(1, pool.getFreeCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleaseTooOften() {
+        PooledBuffer buffer = new BufferPool(64, 4).acquire(10);
+        buffer.release();
+        buffer.release();
+    }
+
+    @Test
+    public void testLargeRequestIsNotPooled() {
+        BufferPool pool = new BufferPool(64, 4);
+        PooledBuffer buffer = pool.acquire(100);
+        assertEquals(100, buffer.array().length);
+        buffer.release();
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        BufferPool pool = new BufferPool(64, 2);
+        PooledBuffer a = pool.acquire(1);
+        PooledBuffer b = pool.acquire(1);
+        PooledBuffer c = pool.acquire(1);
+        a.release();
+        b.release();
+        c.release();
+        assertEquals(2, pool.getFreeCount());
+    }
+
+    @Test
+    public void testLengthAndCopy() {
+        PooledBuffer buffer = PooledBuffer.wrap(new byte[] {1, 2, 3, 4});
+        buffer.setLength(2);
+        assertEquals(2, buffer.toBytes().length);
+        assertEquals(2, buffer.toBytes()[1]);
+    }
+}
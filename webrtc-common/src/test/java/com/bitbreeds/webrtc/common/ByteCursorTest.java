@@ -0,0 +1,97 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class ByteCursorTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] out = ByteCursor.wrap(new byte[23])
+                .writeByte(0xFE)
+                .writeShort(0xBEEF)
+                .writeInt(0xCAFEBABEL)
+                .writeLong(-2L)
+                .writeBytes(new byte[]{1,2,3,4,5,6,7,8})
+                .array();
+
+        ByteCursor in = ByteCursor.wrap(out);
+        assertEquals(0xFE, in.readUnsignedByte());
+        assertEquals(0xBEEF, in.readUnsignedShort());
+        assertEquals(0xCAFEBABEL, in.readUnsignedInt());
+        assertEquals(-2L, in.readLong());
+        assertArrayEquals(new byte[]{1,2,3,4,5,6,7,8}, in.readBytes(8));
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    public void testMatchesSignalUtil() {
+        byte[] out = ByteCursor.wrap(new byte[6]).writeShort(4711).writeInt(123456789L).array();
+        assertArrayEquals(SignalUtil.joinBytesArrays(
+                SignalUtil.twoBytesFromInt(4711),
+                SignalUtil.longToFourBytes(123456789L)), out);
+    }
+
+    @Test
+    public void testWrapOffset() {
+        byte[] data = new byte[]{9,9,0,1,0,2,9};
+        ByteCursor in = ByteCursor.wrap(data, 2, 4);
+        assertEquals(1, in.readUnsignedShort());
+        assertEquals(2, in.readUnsignedShort());
+        assertEquals(0, in.remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadPastLimit() {
+        ByteCursor.wrap(new byte[]{9,9,0,1,0,2,9}, 2, 3).readInt();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWritePastLimit() {
+        ByteCursor.wrap(new byte[3]).writeInt(1);
+    }
+
+    @Test
+    public void testPadAndAlign() {
+        ByteCursor out = ByteCursor.wrap(new byte[8]);
+        out.writeByte(1).padFrom(0);
+        assertEquals(4, out.position());
+        out.writeBytes(new byte[]{2,3,4,5});
+        out.padFrom(4);
+        assertEquals(8, out.position());
+
+        ByteCursor in = ByteCursor.wrap(out.array());
+        in.readUnsignedByte();
+        in.alignFrom(0);
+        assertEquals(4, in.position());
+    }
+
+    @Test
+    public void testStaticAccessors() {
+        byte[] data = new byte[6];
+        ByteCursor.putShort(data, 0, 0xFFFF);
+        ByteCursor.putInt(data, 2, 0xFFFFFFFEL);
+        assertEquals(0xFFFF, ByteCursor.getUnsignedShort(data, 0));
+        assertEquals(0xFFFFFFFEL, ByteCursor.getUnsignedInt(data, 2));
+        assertEquals(-2, ByteCursor.getInt(data, 2));
+    }
+
+}
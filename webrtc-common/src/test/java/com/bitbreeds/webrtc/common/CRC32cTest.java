@@ -0,0 +1,71 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class CRC32cTest {
+
+    /**
+     * Check value from rfc3720 appendix B.4
+     */
+    @Test
+    public void testKnownValue() {
+        byte[] data = "123456789".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(0xE3069283L, CRC32c.compute(data, 0, data.length));
+
+        CRC32c pure = new CRC32c();
+        pure.update(data, 0, data.length);
+        assertEquals(0xE3069283L, pure.getValue());
+    }
+
+    @Test
+    public void testPureJavaMatchesCreated() {
+        Random random = new Random(42);
+        for (int length = 0; length < 300; length++) {
+            byte[] data = new byte[length + 3];
+            random.nextBytes(data);
+
+            CRC32c pure = new CRC32c();
+            pure.update(data, 3, length);
+            Checksum created = CRC32c.create();
+            created.update(data, 3, length);
+
+            assertEquals("Length " + length, pure.getValue(), created.getValue());
+            assertEquals("Length " + length, pure.getValue(), SignalUtil.computeCRC32c(data, 3, length));
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        byte[] data = new byte[1200];
+        new Random(7).nextBytes(data);
+
+        CRC32c pure = new CRC32c();
+        pure.update(data, 0, 100);
+        pure.update(data[100]);
+        pure.update(data, 101, data.length - 101);
+
+        assertEquals(CRC32c.compute(data, 0, data.length), pure.getValue());
+    }
+}
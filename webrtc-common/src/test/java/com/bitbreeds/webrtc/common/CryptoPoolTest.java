@@ -0,0 +1,79 @@
+package com.bitbreeds.webrtc.common;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class CryptoPoolTest {
+
+    /**
+     * Test case 1 from rfc2202
+     */
+    @Test
+    public void testHmacSha1() {
+        byte[] key = new byte[20];
+        Arrays.fill(key, (byte) 0x0b);
+        byte[] data = "Hi There".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals("b617318655057264e28bc0b6fb378c8ef146be00",
+                Hex.encodeHexString(SignalUtil.hmacSha1(data, key)));
+        assertEquals("b617318655057264e28bc0b6fb378c8ef146be00",
+                Hex.encodeHexString(SignalUtil.hmacSha1(data, key)));
+    }
+
+    @Test
+    public void testDigestIsResetBetweenUses() {
+        CryptoPool.md5().update((byte) 1);
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", Hex.encodeHexString(CryptoPool.md5().digest()));
+
+        CryptoPool.sha256().update((byte) 1);
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                Hex.encodeHexString(CryptoPool.sha256().digest()));
+    }
+
+    @Test
+    public void testDigestPerThread() throws InterruptedException {
+        MessageDigest local = CryptoPool.sha256();
+        AtomicReference<MessageDigest> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(CryptoPool.sha256()));
+        thread.start();
+        thread.join();
+
+        assertSame(local, CryptoPool.sha256());
+        assertNotSame(local, other.get());
+    }
+
+    @Test
+    public void testRandomBytes() {
+        byte[] first = SignalUtil.randomBytes(16);
+        byte[] second = SignalUtil.randomBytes(16);
+        assertEquals(16, first.length);
+        assertFalse(Arrays.equals(first, second));
+        assertSame(CryptoPool.random(), CryptoPool.random());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class ShardedExecutorTest {
+
+    @Test
+    public void testSameShardForKey() {
+        ShardedExecutor shards = new ShardedExecutor("test", 4);
+        try {
+            assertSame(shards.shardFor("abcd"), shards.shardFor("abcd"));
+        } finally {
+            shards.shutdown();
+        }
+    }
+
+    @Test
+    public void testRoundRobinUsesAllShards() throws InterruptedException {
+        ShardedExecutor shards = new ShardedExecutor("test", 4);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            CountDownLatch latch = new CountDownLatch(8);
+            for (int i = 0; i < 8; i++) {
+                shards.next().execute(() -> {
+                    threads.add(Thread.currentThread().getName());
+                    latch.countDown();
+                });
+            }
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertEquals(4, threads.size());
+        } finally {
+            shards.shutdown();
+        }
+    }
+
+    @Test
+    public void testSerialExecutorKeepsOrderWithoutOverlap() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Executor serial = new SerialExecutor(pool);
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            AtomicInteger active = new AtomicInteger(0);
+            AtomicInteger maxActive = new AtomicInteger(0);
+            CountDownLatch latch = new CountDownLatch(500);
+            for (int i = 0; i < 500; i++) {
+                int number = i;
+                serial.execute(() -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    order.add(number);
+                    active.decrementAndGet();
+                    latch.countDown();
+                });
+            }
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertEquals(1, maxActive.get());
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i, (int) order.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class SingleWriterQueueTest {
+
+    @Test
+    public void testWritesInOrderFromOneProducer() {
+        List<Integer> written = new ArrayList<>();
+        SingleWriterQueue<Integer> queue = new SingleWriterQueue<>(Runnable::run, 16, written::addAll);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+        }
+        assertEquals(100, written.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) written.get(i));
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testDrainWritesOneBatchAndReschedules() {
+        List<Runnable> tasks = new ArrayList<>();
+        List<List<Integer>> batches = new ArrayList<>();
+        SingleWriterQueue<Integer> queue = new SingleWriterQueue<>(tasks::add, 4, batches::add);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+        assertEquals(1, tasks.size());
+        assertEquals(0, batches.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).run();
+        }
+        assertEquals(3, tasks.size());
+        assertEquals(3, batches.size());
+        assertEquals(4, batches.get(0).size());
+        assertEquals(4, batches.get(1).size());
+        assertEquals(2, batches.get(2).size());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testOneWriterAtATimeWithManyProducers() throws InterruptedException {
+        AtomicInteger active = new AtomicInteger(0);
+        AtomicInteger maxActive = new AtomicInteger(0);
+        List<int[]> written = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SingleWriterQueue<int[]> queue = new SingleWriterQueue<>(executor, 64, batch -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            written.addAll(batch);
+            active.decrementAndGet();
+        });
+
+        int producers = 8;
+        int perProducer = 10000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    queue.offer(new int[] {producer, i});
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        while (queue.size() > 0) {
+            Thread.sleep(1);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, maxActive.get());
+        assertEquals(producers * perProducer, written.size());
+        int[] next = new int[producers];
+        for (int[] item : written) {
+            assertTrue(item[1] == next[item[0]]++);
+        }
+    }
+
+    @Test
+    public void testFailingWriteDoesNotStopQueue() {
+        List<String> written = new ArrayList<>();
+        SingleWriterQueue<String> queue = new SingleWriterQueue<>(Runnable::run, 16, batch -> {
+            if (batch.contains("fail")) {
+                throw new IllegalStateException("fail");
+            }
+            written.addAll(batch);
+        });
+        queue.offer("fail");
+        queue.offer("ok");
+        assertEquals(1, written.size());
+        assertEquals(0, queue.size());
+    }
+}
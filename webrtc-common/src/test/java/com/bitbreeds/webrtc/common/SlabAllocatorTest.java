@@ -0,0 +1,105 @@
+package com.bitbreeds.webrtc.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class SlabAllocatorTest {
+
+    private static final int SLAB = 1 << 16;
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    public void testStoredBytesRoundTrip() {
+        SlabAllocator allocator = new SlabAllocator(SLAB, SLAB * 4);
+        byte[] data = bytes(1000);
+        SlabBytes stored = allocator.allocate(data);
+
+        assertEquals(1000, stored.length());
+        assertArrayEquals(data, stored.toBytes());
+        assertEquals(1, allocator.getBlocksInUse());
+    }
+
+    @Test
+    public void testReleasedBlockIsReusedWithoutNewSlab() {
+        SlabAllocator allocator = new SlabAllocator(SLAB, SLAB * 4);
+        for (int i = 0; i < 100; i++) {
+            allocator.allocate(bytes(500)).release();
+        }
+        assertEquals(SLAB, allocator.getOffHeapBytes());
+        assertEquals(0, allocator.getBlocksInUse());
+    }
+
+    @Test
+    public void testSizeClassesUseSeparateSlabs() {
+        SlabAllocator allocator = new SlabAllocator(SLAB, SLAB * 4);
+        allocator.allocate(bytes(10));
+        allocator.allocate(bytes(60));
+        assertEquals(SLAB, allocator.getOffHeapBytes());
+
+        allocator.allocate(bytes(1200));
+        assertEquals(2 * SLAB, allocator.getOffHeapBytes());
+    }
+
+    @Test
+    public void testFallsBackToHeapOverLimit() {
+        SlabAllocator allocator = new SlabAllocator(SLAB, 0);
+        byte[] data = bytes(300);
+        SlabBytes stored = allocator.allocate(data, 100, 200);
+
+        assertEquals(0, allocator.getOffHeapBytes());
+        assertArrayEquals(Arrays.copyOfRange(data, 100, 300), stored.toBytes());
+        stored.release();
+        assertEquals(0, allocator.getBlocksInUse());
+    }
+
+    @Test
+    public void testDoubleReleaseIsIgnored() {
+        SlabAllocator allocator = new SlabAllocator(SLAB, SLAB);
+        SlabBytes stored = allocator.allocate(bytes(10));
+        stored.release();
+        stored.release();
+
+        assertTrue(stored.isReleased());
+        assertEquals(0, allocator.getBlocksInUse());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadAfterRelease() {
+        SlabBytes stored = new SlabAllocator(SLAB, SLAB).allocate(bytes(10));
+        stored.release();
+        stored.toBytes();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLarge() {
+        new SlabAllocator(SLAB, SLAB).allocate(new byte[SLAB + 1]);
+    }
+}
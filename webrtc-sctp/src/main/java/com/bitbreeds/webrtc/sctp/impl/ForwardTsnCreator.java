@@ -0,0 +1,72 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.common.ByteCursor;
+import com.bitbreeds.webrtc.sctp.impl.buffer.ForwardTsn;
+import com.bitbreeds.webrtc.sctp.model.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Creates the FORWARD TSN chunk telling the peer to skip abandoned DATA
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc3758#section-3.2">rfc3758 FORWARD TSN</a>
+ */
+public class ForwardTsnCreator {
+
+    static SCTPChunk createForwardTsn(ForwardTsn forwardTsn) {
+        Map<Integer, Integer> sequences = forwardTsn.getStreamSequences();
+        byte[] rest = new byte[4 * sequences.size()];
+        ByteCursor pairs = ByteCursor.wrap(rest);
+        sequences.forEach((stream, sequence) -> pairs.writeShort(stream).writeShort(sequence));
+        return create(SCTPMessageType.FORWARD_TSN, forwardTsn, rest);
+    }
+
+    /**
+     * Entries are stream, a reserved field with the U bit lowest, and message identifier
+     *
+     * @see <a href="https://tools.ietf.org/html/rfc8260#section-2.3.1">rfc8260 I-FORWARD-TSN</a>
+     */
+    static SCTPChunk createIForwardTsn(ForwardTsn forwardTsn) {
+        Map<Integer, Integer> ordered = forwardTsn.getStreamSequences();
+        Map<Integer, Integer> unordered = forwardTsn.getUnorderedMessages();
+        byte[] rest = new byte[8 * (ordered.size() + unordered.size())];
+        ByteCursor entries = ByteCursor.wrap(rest);
+        ordered.forEach((stream, messageId) -> entries.writeShort(stream).writeShort(0).writeInt(messageId));
+        unordered.forEach((stream, messageId) -> entries.writeShort(stream).writeShort(1).writeInt(messageId));
+        return create(SCTPMessageType.I_FORWARD_TSN, forwardTsn, rest);
+    }
+
+    private static SCTPChunk create(SCTPMessageType type, ForwardTsn forwardTsn, byte[] rest) {
+        Map<SCTPFixedAttributeType, SCTPFixedAttribute> fixed = new HashMap<>();
+        byte[] cumulativeTSN = new byte[4];
+        ByteCursor.putInt(cumulativeTSN, 0, forwardTsn.getNewCumulativeTSN());
+        fixed.put(SCTPFixedAttributeType.NEW_CUMULATIVE_TSN,
+                new SCTPFixedAttribute(SCTPFixedAttributeType.NEW_CUMULATIVE_TSN, cumulativeTSN));
+
+        return new SCTPChunk(
+                type,
+                SCTPOrderFlag.fromValue((byte) 0),
+                8 + rest.length,
+                fixed,
+                new HashMap<>(),
+                rest);
+    }
+
+}
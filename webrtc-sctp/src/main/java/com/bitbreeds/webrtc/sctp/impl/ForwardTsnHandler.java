@@ -0,0 +1,73 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.common.ByteCursor;
+import com.bitbreeds.webrtc.sctp.impl.buffer.ForwardTsn;
+import com.bitbreeds.webrtc.sctp.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Parses a FORWARD TSN or I-FORWARD-TSN and passes it to the receive buffer,
+ * the response is the SACK sent for the batch.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc3758#section-3.6">rfc3758 receiver side</a>
+ */
+public class ForwardTsnHandler implements MessageHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForwardTsnHandler.class);
+
+    @Override
+    public Optional<SCTPMessage> handleMessage(
+            SCTPImpl handler,
+            SCTPContext ctx,
+            SCTPHeader header,
+            SCTPChunk data) {
+
+        SCTPFixedAttribute cumulative = data.getFixed().get(SCTPFixedAttributeType.NEW_CUMULATIVE_TSN);
+        long newCumulativeTSN = ByteCursor.getUnsignedInt(cumulative.getData(), 0);
+
+        ByteCursor rest = ByteCursor.wrap(data.getRest());
+        Map<Integer, Integer> sequences = new HashMap<>();
+        Map<Integer, Integer> unordered = new HashMap<>();
+        if (SCTPMessageType.I_FORWARD_TSN.equals(data.getType())) {
+            while (rest.remaining() >= 8) {
+                int stream = rest.readUnsignedShort();
+                boolean isUnordered = (rest.readUnsignedShort() & 1) == 1;
+                int messageId = rest.readInt();
+                (isUnordered ? unordered : sequences).put(stream, messageId);
+            }
+        }
+        else {
+            while (rest.remaining() >= 4) {
+                sequences.merge(rest.readUnsignedShort(), rest.readUnsignedShort(), Math::max);
+            }
+        }
+
+        ForwardTsn forwardTsn = new ForwardTsn(newCumulativeTSN, sequences, unordered);
+        logger.debug("Received {}", forwardTsn);
+        handler.receiveForwardTsn(forwardTsn);
+
+        return Optional.empty();
+    }
+
+}
@@ -44,7 +44,10 @@ public class HeartBeatAckHandler implements MessageHandler {
         /*
          * Should be related to a sent heartbeat so we can measure RTT.
          */
-        handler.getHeartBeatService().receiveHeartBeatAck(info.getData());
+        int probeSize = handler.getHeartBeatService().receiveHeartBeatAck(info.getData());
+        if (probeSize > 0) {
+            handler.onPathMtuProbeAcked(probeSize);
+        }
 
         return Optional.empty();
     }
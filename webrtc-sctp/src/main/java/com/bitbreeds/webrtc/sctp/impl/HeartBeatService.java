@@ -1,8 +1,6 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
-import com.bitbreeds.webrtc.common.ByteRange;
-import com.bitbreeds.webrtc.common.SignalUtil;
-import com.bitbreeds.webrtc.sctp.impl.util.SCTPUtil;
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.sctp.model.*;
 import org.joda.time.DateTime;
 import org.pcollections.HashPMap;
@@ -15,8 +13,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.bitbreeds.webrtc.common.SignalUtil.bytesToLong;
-import static com.bitbreeds.webrtc.common.SignalUtil.copyRange;
 
 /**
  * Copyright (c) 21/07/16, Jonas Waage
@@ -52,6 +48,11 @@ public class HeartBeatService {
 
     private HashPMap<UUID, DateTime> rttMap = HashTreePMap.empty();
 
+    /**
+     * Packet sizes of heartbeats sent as path MTU probes
+     */
+    private HashPMap<UUID, Integer> probeSizes = HashTreePMap.empty();
+
     private final Object mutex = new Object();
 
     /**
@@ -59,21 +60,27 @@ public class HeartBeatService {
      * Resets shutdown timers
      *
      * @param heartBeatInfo from ack
+     * @return packet size if the heartbeat was a path MTU probe, otherwise 0
      */
-    public void receiveHeartBeatAck(byte[] heartBeatInfo) {
+    public int receiveHeartBeatAck(byte[] heartBeatInfo) {
 
+        ByteCursor info = ByteCursor.wrap(heartBeatInfo);
         UUID uuid = new UUID(
-                bytesToLong(copyRange(heartBeatInfo, new ByteRange(0, 8))),
-                bytesToLong(copyRange(heartBeatInfo, new ByteRange(8, 16))));
+                info.readLong(),
+                info.readLong());
 
         DateTime time = rttMap.get(uuid);
         if (time == null) {
             throw new IllegalArgumentException("Ack with unkown uuid: " + uuid + " map contains: " + rttMap);
         } else {
             rttMillis = DateTime.now().getMillis() - time.getMillis();
+            Integer probeSize;
             synchronized (mutex) {
                 rttMap = rttMap.minus(uuid);
+                probeSize = probeSizes.get(uuid);
+                probeSizes = probeSizes.minus(uuid);
             }
+            return probeSize != null ? probeSize : 0;
         }
     }
 
@@ -89,11 +96,53 @@ public class HeartBeatService {
      * @return heartbeat message
      */
     public SCTPMessage createHeartBeat(SCTPHeader header) {
+        UUID id = UUID.randomUUID();
+        SCTPMessage out = new SCTPMessage(header, Collections.singletonList(heartBeatChunk(id)));
+        synchronized (mutex) {
+            rttMap = rttMap.plus(id, DateTime.now());
+        }
+        return out;
+    }
 
+    /**
+     * A heartbeat followed by a PAD chunk filling the packet to the probed size,
+     * the ack only echoes the heartbeat info.
+     *
+     * @param header common header
+     * @param packetSize size of the probe packet, a multiple of four
+     * @return encoded probe packet
+     * @see <a href="https://tools.ietf.org/html/rfc8899#section-6.2.1.2">rfc8899 probing with HEARTBEAT</a>
+     */
+    public byte[] createProbe(SCTPHeader header, int packetSize) {
         UUID id = UUID.randomUUID();
-        byte[] heartBeatInfo = SignalUtil.joinBytesArrays(
-                SignalUtil.longToBytes(id.getMostSignificantBits()),
-                SignalUtil.longToBytes(id.getLeastSignificantBits()));
+        byte[] probe;
+        try (SCTPPacketWriter writer = SCTPPacketWriter.pooled()) {
+            writer.begin(header);
+            writer.writeChunk(heartBeatChunk(id));
+            int padLength = packetSize - writer.size();
+            if (padLength < 4) {
+                throw new IllegalArgumentException("Probe size " + packetSize + " too small for a heartbeat");
+            }
+            byte[] pad = new byte[padLength];
+            ByteCursor.wrap(pad)
+                    .writeByte(SCTPMessageType.PAD.getNr())
+                    .writeByte(0)
+                    .writeShort(padLength);
+            writer.writeChunk(pad);
+            probe = writer.finish();
+        }
+        synchronized (mutex) {
+            rttMap = rttMap.plus(id, DateTime.now());
+            probeSizes = probeSizes.plus(id, packetSize);
+        }
+        return probe;
+    }
+
+    private SCTPChunk heartBeatChunk(UUID id) {
+        byte[] heartBeatInfo = new byte[16];
+        ByteCursor.wrap(heartBeatInfo)
+                .writeLong(id.getMostSignificantBits())
+                .writeLong(id.getLeastSignificantBits());
 
         Map<SCTPAttributeType, SCTPAttribute> variableAttr = new HashMap<>();
         variableAttr.put(SCTPAttributeType.HERTBEAT_INFO,
@@ -102,20 +151,13 @@ public class HeartBeatService {
         int sum = variableAttr.values().stream()
                 .map(SCTPAttribute::getLength).reduce(0, Integer::sum);
 
-        SCTPChunk heartBeat = new SCTPChunk(
+        return new SCTPChunk(
                 SCTPMessageType.HEARTBEAT,
                 SCTPOrderFlag.fromValue((byte) 0),
                 4 + sum,
                 new HashMap<>(),
                 variableAttr,
                 new byte[]{});
-        SCTPMessage msg = new SCTPMessage(header, Collections.singletonList(heartBeat));
-
-        SCTPMessage out = SCTPUtil.addChecksum(msg);
-        synchronized (mutex) {
-            rttMap = rttMap.plus(id, DateTime.now());
-        }
-        return out;
     }
 
 }
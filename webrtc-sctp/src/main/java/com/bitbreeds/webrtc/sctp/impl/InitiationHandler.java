@@ -1,9 +1,9 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
+import com.bitbreeds.webrtc.common.CryptoPool;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.sctp.model.*;
 
-import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -99,6 +99,32 @@ public class InitiationHandler implements MessageHandler {
         Map<SCTPAttributeType,SCTPAttribute> variableAttr  = new HashMap<>();
         variableAttr.put(SCTPAttributeType.STATE_COOKIE,cookie);
 
+        /*
+         * Partial reliability is only used when both sides support FORWARD TSN
+         */
+        boolean forwardTsn = data.getVariable().containsKey(SCTPAttributeType.FORWARD_TSN);
+        handler.setForwardTsnSupported(forwardTsn);
+        if(forwardTsn) {
+            variableAttr.put(SCTPAttributeType.FORWARD_TSN,
+                    new SCTPAttribute(SCTPAttributeType.FORWARD_TSN, new byte[] {}));
+        }
+
+        /*
+         * I-DATA is used when both sides list it, rfc8260 section 2.2.1
+         */
+        SCTPAttribute extensions = data.getVariable().get(SCTPAttributeType.SUPPORTED_EXTENSIONS);
+        boolean interleaving = extensions != null && lists(extensions.getData(), SCTPMessageType.I_DATA);
+        handler.setInterleavingSupported(interleaving);
+        if(interleaving) {
+            byte[] supported = forwardTsn
+                    ? new byte[] {SignalUtil.sign(SCTPMessageType.I_DATA.getNr()),
+                                  SignalUtil.sign(SCTPMessageType.FORWARD_TSN.getNr()),
+                                  SignalUtil.sign(SCTPMessageType.I_FORWARD_TSN.getNr())}
+                    : new byte[] {SignalUtil.sign(SCTPMessageType.I_DATA.getNr())};
+            variableAttr.put(SCTPAttributeType.SUPPORTED_EXTENSIONS,
+                    new SCTPAttribute(SCTPAttributeType.SUPPORTED_EXTENSIONS, supported));
+        }
+
         int chunkSize = 4 +
                 attr.values().stream().
                         map(i->i.getData().length)
@@ -120,13 +146,22 @@ public class InitiationHandler implements MessageHandler {
         return Optional.of(out);
     }
 
+    /**
+     * @param chunkTypes supported extensions parameter, one chunk type per byte
+     * @return whether the chunk type is listed
+     */
+    private static boolean lists(byte[] chunkTypes, SCTPMessageType type) {
+        for (byte chunkType : chunkTypes) {
+            if ((chunkType & 0xFF) == type.getNr()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private byte[] createCookie( byte[] tag ) {
         long millis = System.currentTimeMillis();
-        SecureRandom rd = new SecureRandom();
-        rd.setSeed(millis);
-        final byte[] key = new byte[8];
-
-        rd.nextBytes(key);
+        final byte[] key = CryptoPool.randomBytes(8);
         byte[] hmac = SignalUtil.hmacSha1(tag,key);
         return SignalUtil.joinBytesArrays(hmac,SignalUtil.longToBytes(millis));
     }
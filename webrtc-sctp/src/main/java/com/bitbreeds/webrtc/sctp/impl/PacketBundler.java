@@ -0,0 +1,167 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
+import com.bitbreeds.webrtc.sctp.model.SCTPChunk;
+import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPPacketWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Packs outgoing chunks into as few SCTP packets as the packet size allows,
+ * so a SACK can ride along with DATA and small messages share a packet.
+ *
+ * Control chunks are placed before DATA, and INIT, INIT ACK and SHUTDOWN COMPLETE
+ * are always sent alone.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc4960#section-6.10">RFC 4960 bundling</a>
+ */
+public class PacketBundler {
+
+    /**
+     * Packet size that fits in a DTLS record on common paths without IP fragmentation
+     */
+    public final static int DEFAULT_MAX_PACKET_SIZE = 1200;
+
+    private final static int HEADER_SIZE = 12;
+
+    private final int maxPacketSize;
+
+    private final List<WireRepresentation> unbundled = new ArrayList<>();
+    private final List<SCTPChunk> controlChunks = new ArrayList<>();
+    private final List<byte[]> control = new ArrayList<>();
+    private final List<byte[]> data = new ArrayList<>();
+
+    /**
+     * @param maxPacketSize largest SCTP packet to create, header included
+     */
+    public PacketBundler(int maxPacketSize) {
+        if (maxPacketSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Max packet size must be larger than the header: " + maxPacketSize);
+        }
+        this.maxPacketSize = maxPacketSize;
+    }
+
+    /**
+     * @param message message created by a handler, its chunks are bundled unless they must go alone
+     */
+    public void addMessage(SCTPMessage message) {
+        SCTPMessageType type = message.getChunks().get(0).getType();
+        if (mustGoAlone(type)) {
+            unbundled.add(new WireRepresentation(SCTPPacketWriter.encode(message), type));
+        }
+        else {
+            controlChunks.addAll(message.getChunks());
+        }
+    }
+
+    /**
+     * @param chunk control chunk, encoded when the packets are written
+     */
+    public void addControl(SCTPChunk chunk) {
+        controlChunks.add(chunk);
+    }
+
+    /**
+     * @param chunk encoded control chunk, padded to a multiple of four
+     */
+    public void addControl(byte[] chunk) {
+        control.add(chunk);
+    }
+
+    /**
+     * @param chunk encoded DATA chunk, padded to a multiple of four
+     */
+    public void addData(byte[] chunk) {
+        data.add(chunk);
+    }
+
+    public boolean isEmpty() {
+        return unbundled.isEmpty() && controlChunks.isEmpty() && control.isEmpty() && data.isEmpty();
+    }
+
+    /**
+     * @param header common header for the bundled packets, may be null if only unbundled messages were added
+     * @return packets ready for the wire, with checksums
+     */
+    public List<WireRepresentation> toPackets(SCTPHeader header) {
+        if (controlChunks.isEmpty() && control.isEmpty() && data.isEmpty()) {
+            return unbundled.isEmpty() ? Collections.emptyList() : new ArrayList<>(unbundled);
+        }
+
+        List<WireRepresentation> packets = new ArrayList<>(unbundled);
+        try (SCTPPacketWriter writer = SCTPPacketWriter.pooled()) {
+            Packet packet = new Packet(writer, header, packets);
+            controlChunks.forEach(chunk -> packet.add(chunk.getType(), () -> writer.writeChunk(chunk)));
+            control.forEach(chunk -> packet.add(SCTPMessageType.fromByte(chunk[0]), () -> writer.writeChunk(chunk)));
+            data.forEach(chunk -> packet.add(SCTPMessageType.DATA, () -> writer.writeChunk(chunk)));
+            packet.finish();
+        }
+        return packets;
+    }
+
+    /**
+     * The packet being filled, chunks are written straight into the writer
+     * and taken back out again if they push the packet over the max size.
+     */
+    private class Packet {
+
+        private final SCTPPacketWriter writer;
+        private final SCTPHeader header;
+        private final List<WireRepresentation> packets;
+        private SCTPMessageType firstType;
+
+        private Packet(SCTPPacketWriter writer, SCTPHeader header, List<WireRepresentation> packets) {
+            this.writer = writer;
+            this.header = header;
+            this.packets = packets;
+            writer.begin(header);
+        }
+
+        private void add(SCTPMessageType type, Runnable write) {
+            int before = writer.size();
+            write.run();
+            if (firstType != null && writer.size() > maxPacketSize) {
+                writer.truncate(before);
+                finish();
+                writer.begin(header);
+                write.run();
+            }
+            if (firstType == null) {
+                firstType = type;
+            }
+        }
+
+        private void finish() {
+            packets.add(new WireRepresentation(writer.finish(), firstType));
+            firstType = null;
+        }
+    }
+
+    private static boolean mustGoAlone(SCTPMessageType type) {
+        return type == SCTPMessageType.INITIATION
+                || type == SCTPMessageType.INITIATION_ACK
+                || type == SCTPMessageType.SHUTDOWN_COMPLETE;
+    }
+}
@@ -0,0 +1,178 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Packetization layer path MTU discovery for the association
+ * <a href="https://tools.ietf.org/html/rfc8899">rfc8899 datagram PLPMTUD</a>
+ *
+ * Sizes are SCTP packet sizes, common header included, so they are what fits in one DTLS record.
+ * Starts at {@link #BASE_PLPMTU} and probes upwards with HEARTBEAT chunks padded to the probe size,
+ * trying the largest allowed size first and then searching between the largest acknowledged
+ * and the smallest failed size. A probe size fails after {@link #MAX_PROBES} unacknowledged probes.
+ *
+ * Repeated retransmission timeouts are taken as a black hole, the PLPMTU then drops back to the base.
+ * A completed search is repeated after {@link #RAISE_TIMER_MILLIS}, in case the path changed.
+ */
+public class PathMtuDiscovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(PathMtuDiscovery.class);
+
+    public enum State {
+        SEARCHING, SEARCH_COMPLETE
+    }
+
+    /**
+     * Packet size used before anything is confirmed, fits a DTLS record on any IPv6 path
+     */
+    public static final int BASE_PLPMTU = PacketBundler.DEFAULT_MAX_PACKET_SIZE;
+
+    static final int MAX_PROBES = 3;
+
+    static final long RAISE_TIMER_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Stop searching when the remaining gap is this small
+     */
+    private static final int SEARCH_GRANULARITY = 32;
+
+    private static final int BLACK_HOLE_TIMEOUTS = 2;
+
+    private final int maxPlpmtu;
+
+    private State state = State.SEARCHING;
+    private int plpmtu = BASE_PLPMTU;
+
+    /**
+     * Smallest size known not to get through, one above max before any probe failed
+     */
+    private int ceiling;
+
+    private int probeSize = 0;
+    private int probeCount = 0;
+    private long searchCompleted;
+    private int timeouts = 0;
+
+    /**
+     * @param maxPlpmtu largest SCTP packet the layers below can carry
+     */
+    public PathMtuDiscovery(int maxPlpmtu) {
+        this.maxPlpmtu = align(Math.max(maxPlpmtu, BASE_PLPMTU));
+        this.ceiling = this.maxPlpmtu + 4;
+    }
+
+    /**
+     * Called at the probe interval, an earlier probe still unacknowledged counts as lost.
+     *
+     * @param nowMillis current time
+     * @return size of the probe to send now, 0 for none
+     */
+    public synchronized int nextProbe(long nowMillis) {
+        if (state == State.SEARCH_COMPLETE) {
+            if (plpmtu >= maxPlpmtu || nowMillis - searchCompleted < RAISE_TIMER_MILLIS) {
+                return 0;
+            }
+            state = State.SEARCHING;
+            ceiling = maxPlpmtu + 4;
+        }
+
+        if (probeSize != 0 && ++probeCount >= MAX_PROBES) {
+            logger.debug("Probe of {} bytes failed", probeSize);
+            ceiling = probeSize;
+            probeSize = 0;
+            probeCount = 0;
+        }
+
+        if (probeSize == 0) {
+            if (ceiling - plpmtu <= SEARCH_GRANULARITY) {
+                state = State.SEARCH_COMPLETE;
+                searchCompleted = nowMillis;
+                logger.info("Path MTU search complete with {} bytes", plpmtu);
+                return 0;
+            }
+            probeSize = ceiling > maxPlpmtu ? maxPlpmtu : align((plpmtu + ceiling) / 2);
+        }
+        return probeSize;
+    }
+
+    /**
+     * @param size size of the acknowledged probe
+     * @return whether the PLPMTU grew
+     */
+    public synchronized boolean onProbeAcked(int size) {
+        if (size == probeSize) {
+            probeSize = 0;
+            probeCount = 0;
+        }
+        if (size > plpmtu && size < ceiling) {
+            plpmtu = size;
+            logger.debug("Path MTU raised to {} bytes", plpmtu);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * DATA was acknowledged, so the current size gets through
+     */
+    public synchronized void onDataAcked() {
+        timeouts = 0;
+    }
+
+    /**
+     * T3-rtx expired, repeated expiry without acknowledgements drops to the base size
+     *
+     * @return whether the PLPMTU dropped
+     */
+    public synchronized boolean onRetransmissionTimeout() {
+        if (++timeouts < BLACK_HOLE_TIMEOUTS || plpmtu == BASE_PLPMTU) {
+            return false;
+        }
+        logger.info("Suspected black hole at {} bytes, falling back to {}", plpmtu, BASE_PLPMTU);
+        ceiling = plpmtu;
+        plpmtu = BASE_PLPMTU;
+        probeSize = 0;
+        probeCount = 0;
+        timeouts = 0;
+        state = State.SEARCHING;
+        return true;
+    }
+
+    /**
+     * @return largest SCTP packet to send
+     */
+    public synchronized int getPlpmtu() {
+        return plpmtu;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Probes are made of whole chunks, so sizes are multiples of four
+     */
+    private static int align(int size) {
+        return size & ~3;
+    }
+
+}
@@ -3,14 +3,13 @@ package com.bitbreeds.webrtc.sctp.impl;
 import com.bitbreeds.webrtc.common.*;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import com.bitbreeds.webrtc.sctp.impl.model.SendData;
-import com.bitbreeds.webrtc.sctp.impl.util.SCTPUtil;
 import com.bitbreeds.webrtc.sctp.model.*;
 import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.bitbreeds.webrtc.common.SignalUtil.sign;
 import static com.bitbreeds.webrtc.sctp.model.SCTPFixedAttributeType.*;
@@ -45,103 +44,115 @@ public class PayloadCreator {
 
     private final static int MAX_DATA_CHUNKSIZE = 1024;
 
-    private AtomicInteger streamSeq = new AtomicInteger(1);
+    private final static long INITIAL_TSN = 1;
 
-    private final Object tsnLock = new Object();
-
-    private long localTSN = 1;
-
-    public long currentTSN() {
-        synchronized (tsnLock) {
-            return localTSN;
-        }
-    }
+    /**
+     * Stream sequence numbers are counted per stream, rfc4960 section 6.5
+     */
+    private final Map<Integer,Integer> streamSequences = new ConcurrentHashMap<>();
 
     /**
-     * TODO only needs a range in return, fix later
+     * TSNs are given by the send buffer when chunks leave its queue,
+     * chunks are created with a placeholder.
      *
-     * @param num number of tsns needed
-     * @return sequential list of tsns needed.
+     * @return first TSN
      */
-    private List<Long> getTsnGroup(int num) {
-        synchronized (tsnLock) {
-            ArrayList<Long> ar = new ArrayList<>(num);
-            for (int i = 0; i < num; i++) {
-                ar.add(localTSN++);
-            }
-            return ar;
-        }
+    public long getFirstTSN() {
+        return INITIAL_TSN;
     }
 
-    private Long getSingleTSN() {
-        synchronized (tsnLock) {
-            return localTSN++;
-        }
+
+    private int nextSSN(int stream) {
+        return streamSequences.compute(stream, (key, ssn) -> ssn == null ? 0 : (ssn + 1) & 0xFFFF);
     }
 
     /**
-     * @return first TSN
+     * I-DATA message identifiers, ordered and unordered messages count separately, rfc8260 section 2.1
      */
-    public long getFirstTSN() {
-        synchronized (tsnLock) {
-            return localTSN;
-        }
+    private final Map<Integer,Integer> orderedMessageIds = new ConcurrentHashMap<>();
+    private final Map<Integer,Integer> unorderedMessageIds = new ConcurrentHashMap<>();
+
+    private int nextMessageId(int stream, boolean order) {
+        Map<Integer,Integer> ids = order ? orderedMessageIds : unorderedMessageIds;
+        return ids.compute(stream, (key, mid) -> mid == null ? 0 : mid + 1);
     }
 
 
-    private int nextSSN() {
-        return streamSeq.getAndUpdate(i -> i >= Short.MAX_VALUE ? 1 : i + 1);
+    /**
+     * @param data payload to send
+     * @return create message with payload to send
+     */
+    List<SendData> createPayloadMessage(
+            byte[] data,
+            SCTPPayloadProtocolId ppid,
+            boolean order,
+            int stream) {
+        return createPayloadMessage(data, ppid, order, stream, MAX_DATA_CHUNKSIZE);
     }
 
+    /**
+     * @param data payload to send
+     * @param maxChunkSize largest user data in one DATA chunk
+     * @return create message with payload to send
+     */
+    List<SendData> createPayloadMessage(
+            byte[] data,
+            SCTPPayloadProtocolId ppid,
+            boolean order,
+            int stream,
+            int maxChunkSize) {
+        return createPayloadMessage(data, ppid, order, stream, maxChunkSize, false);
+    }
 
     /**
      * @param data payload to send
+     * @param maxChunkSize largest user data in one chunk
+     * @param interleaved create I-DATA chunks, negotiated at association setup
      * @return create message with payload to send
      */
     List<SendData> createPayloadMessage(
             byte[] data,
             SCTPPayloadProtocolId ppid,
-            SCTPHeader base,
             boolean order,
-            int stream) {
+            int stream,
+            int maxChunkSize,
+            boolean interleaved) {
+
+        if (interleaved) {
+            return createInterleavedMessage(data, ppid, order, stream, maxChunkSize);
+        }
 
-        if (data.length <= MAX_DATA_CHUNKSIZE) {
-            SendData single = createPayloadMessage(data, ppid, base, SCTPOrderFlag.UNORDERED_UNFRAGMENTED, 0, getSingleTSN(), stream);
+        if (data.length <= maxChunkSize) {
+            SendData single = createPayloadMessage(data, ppid, SCTPOrderFlag.UNORDERED_UNFRAGMENTED, 0, stream);
             return Collections.singletonList(single);
         } else {
 
-            List<byte[]> dataSplit = SignalUtil.split(data, MAX_DATA_CHUNKSIZE);
+            List<byte[]> dataSplit = SignalUtil.split(data, maxChunkSize);
             List<SendData> outPut = new ArrayList<>();
 
-            List<Long> TSNs = getTsnGroup(dataSplit.size());
-
-            int ssn = nextSSN();
+            int ssn = nextSSN(stream);
 
             SendData start = createPayloadMessage(
                     dataSplit.get(0),
                     ppid,
-                    base,
                     order ? SCTPOrderFlag.ORDERED_START_FRAGMENT : SCTPOrderFlag.UNORDERED_START_FRAGMENT,
-                    ssn, TSNs.get(0), stream);
+                    ssn, stream);
             outPut.add(start);
 
             for (int i = 1; i < dataSplit.size() - 1; i++) {
                 SendData mid = createPayloadMessage(
                         dataSplit.get(i),
                         ppid,
-                        base,
                         order ? SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT : SCTPOrderFlag.UNORDERED_MIDDLE_FRAGMENT,
-                        ssn, TSNs.get(i), stream);
+                        ssn, stream);
                 outPut.add(mid);
             }
 
             SendData end = createPayloadMessage(
                     dataSplit.get(dataSplit.size() - 1),
                     ppid,
-                    base,
                     order ? SCTPOrderFlag.ORDERED_END_FRAGMENT : SCTPOrderFlag.UNORDERED_END_FRAGMENT,
-                    ssn,
-                    TSNs.get(dataSplit.size() - 1), stream);
+                    ssn, stream);
             outPut.add(end);
 
             return outPut;
@@ -149,19 +160,82 @@ public class PayloadCreator {
     }
 
 
+    private List<SendData> createInterleavedMessage(
+            byte[] data,
+            SCTPPayloadProtocolId ppid,
+            boolean order,
+            int stream,
+            int maxChunkSize) {
+
+        int mid = nextMessageId(stream, order);
+        if (data.length <= maxChunkSize) {
+            SCTPOrderFlag flag = order ? SCTPOrderFlag.ORDERED_UNFRAGMENTED : SCTPOrderFlag.UNORDERED_UNFRAGMENTED;
+            return Collections.singletonList(createInterleavedChunk(data, ppid, flag, mid, 0, stream));
+        }
+
+        List<byte[]> dataSplit = SignalUtil.split(data, maxChunkSize);
+        List<SendData> outPut = new ArrayList<>(dataSplit.size());
+        for (int fsn = 0; fsn < dataSplit.size(); fsn++) {
+            SCTPOrderFlag flag;
+            if (fsn == 0) {
+                flag = order ? SCTPOrderFlag.ORDERED_START_FRAGMENT : SCTPOrderFlag.UNORDERED_START_FRAGMENT;
+            } else if (fsn == dataSplit.size() - 1) {
+                flag = order ? SCTPOrderFlag.ORDERED_END_FRAGMENT : SCTPOrderFlag.UNORDERED_END_FRAGMENT;
+            } else {
+                flag = order ? SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT : SCTPOrderFlag.UNORDERED_MIDDLE_FRAGMENT;
+            }
+            outPut.add(createInterleavedChunk(dataSplit.get(fsn), ppid, flag, mid, fsn, stream));
+        }
+        return outPut;
+    }
+
+    /**
+     * The first fragment carries the protocol id, the others their fragment sequence number
+     *
+     * @param data the data to send
+     * @param mid message identifier
+     * @param fsn fragment sequence number
+     * @return I-DATA payload data
+     */
+    private SendData createInterleavedChunk(
+            byte[] data,
+            SCTPPayloadProtocolId ppid,
+            SCTPOrderFlag flag,
+            int mid,
+            long fsn,
+            int streamId) {
+
+        Map<SCTPFixedAttributeType, SCTPFixedAttribute> attr = new HashMap<>();
+        attr.put(TSN, new SCTPFixedAttribute(TSN, SignalUtil.longToFourBytes(0)));
+        attr.put(STREAM_IDENTIFIER_S, new SCTPFixedAttribute(STREAM_IDENTIFIER_S, SignalUtil.twoBytesFromInt(streamId)));
+        attr.put(RESERVED, new SCTPFixedAttribute(RESERVED, new byte[2]));
+        attr.put(MESSAGE_IDENTIFIER, new SCTPFixedAttribute(MESSAGE_IDENTIFIER, SignalUtil.longToFourBytes(mid & 0xFFFFFFFFL)));
+        byte[] ppidOrFsn = fsn == 0
+                ? new byte[]{0, 0, 0, sign(ppid.getId())}
+                : SignalUtil.longToFourBytes(fsn);
+        attr.put(PPID_OR_FSN, new SCTPFixedAttribute(PPID_OR_FSN, ppidOrFsn));
+
+        SCTPChunk chunk = new SCTPChunk(
+                SCTPMessageType.I_DATA,
+                flag,
+                4 + 16 + data.length,
+                attr,
+                new HashMap<>(),
+                SignalUtil.padToMultipleOfFour(data));
+
+        return new SendData(0, streamId, mid, flag, ppid, chunk.toBytes(), data.length);
+    }
+
     /**
      * @param data   the data to send
      * @param ppid   protocol id
-     * @param header sctp header
      * @return payload data
      */
     private SendData createPayloadMessage(
             byte[] data,
             SCTPPayloadProtocolId ppid,
-            SCTPHeader header,
             SCTPOrderFlag flag,
             int ssn,
-            long myTSN,
             Integer stream) {
 
         int streamId = stream == null ? 0 : stream;
@@ -169,7 +243,7 @@ public class PayloadCreator {
         logger.debug("Creating payload");
 
         Map<SCTPFixedAttributeType, SCTPFixedAttribute> attr = new HashMap<>();
-        attr.put(TSN, new SCTPFixedAttribute(TSN, SignalUtil.longToFourBytes(myTSN)));
+        attr.put(TSN, new SCTPFixedAttribute(TSN, SignalUtil.longToFourBytes(0)));
         attr.put(STREAM_IDENTIFIER_S, new SCTPFixedAttribute(STREAM_IDENTIFIER_S, SignalUtil.twoBytesFromInt(streamId)));
         attr.put(STREAM_SEQUENCE_NUMBER, new SCTPFixedAttribute(STREAM_SEQUENCE_NUMBER, SignalUtil.twoBytesFromInt(ssn)));
         attr.put(PROTOCOL_IDENTIFIER, new SCTPFixedAttribute(PROTOCOL_IDENTIFIER, new byte[]{0, 0, 0, sign(ppid.getId())}));
@@ -190,12 +264,12 @@ public class PayloadCreator {
                 new HashMap<>(),
                 dataOut);
 
-        SCTPMessage msg = new SCTPMessage(header, Collections.singletonList(chunk));
+        byte[] finalOut = chunk.toBytes();
 
-        byte[] finalOut = SCTPUtil.addChecksum(msg).toBytes();
-
-        logger.debug("Sending payload with TSN: " + myTSN + " and data: " + Hex.encodeHexString(finalOut));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Sending payload on stream: " + streamId + " and data: " + Hex.encodeHexString(finalOut));
+        }
 
-        return new SendData(myTSN, streamId, ssn, flag, ppid, finalOut);
+        return new SendData(0, streamId, ssn, flag, ppid, finalOut, data.length);
     }
 }
\ No newline at end of file
@@ -5,10 +5,14 @@ import com.bitbreeds.webrtc.sctp.impl.model.ReceivedData;
 import com.bitbreeds.webrtc.sctp.model.SCTPChunk;
 import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
 import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import com.bitbreeds.webrtc.sctp.model.SCTPPacketReader;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import static com.bitbreeds.webrtc.sctp.model.SCTPFixedAttributeType.*;
@@ -47,6 +51,11 @@ public class PayloadHandler implements MessageHandler {
 
         logger.debug("Received payload:" + data);
 
+        if (SCTPMessageType.I_DATA.equals(data.getType())) {
+            handler.handleSctpPayload(fromInterleavedChunk(data));
+            return Optional.empty();
+        }
+
         long tsn = SignalUtil.bytesToLong(data.getFixed().get(TSN).getData());
         int streamId = SignalUtil.intFromTwoBytes(data.getFixed().get(STREAM_IDENTIFIER_S).getData());
         int sequence = SignalUtil.intFromTwoBytes(data.getFixed().get(STREAM_SEQUENCE_NUMBER).getData());
@@ -60,5 +69,69 @@ public class PayloadHandler implements MessageHandler {
         return Optional.empty();
     }
 
+    private static ReceivedData fromInterleavedChunk(SCTPChunk data) {
+        long tsn = SignalUtil.bytesToLong(data.getFixed().get(TSN).getData());
+        int streamId = SignalUtil.intFromTwoBytes(data.getFixed().get(STREAM_IDENTIFIER_S).getData());
+        int messageId = SignalUtil.intFromFourBytes(data.getFixed().get(MESSAGE_IDENTIFIER).getData());
+        long ppidOrFsn = SignalUtil.bytesToLong(data.getFixed().get(PPID_OR_FSN).getData());
+        return interleaved(tsn, streamId, messageId, ppidOrFsn, data.getFlags(), data.getRest());
+    }
+
+    /**
+     * The first fragment carries the payload protocol identifier and has fragment sequence number 0,
+     * the others carry their fragment sequence number in its place.
+     */
+    private static ReceivedData interleaved(
+            long tsn,
+            int streamId,
+            int messageId,
+            long ppidOrFsn,
+            SCTPOrderFlag flags,
+            byte[] payload) {
+        boolean first = flags.isStart() || flags.isUnFragmented();
+        return new ReceivedData(
+                tsn,
+                streamId,
+                messageId,
+                first ? 0 : ppidOrFsn,
+                flags,
+                first ? SCTPPayloadProtocolId.fromValue((int) ppidOrFsn) : null,
+                payload);
+    }
+
+    /**
+     * Read the I-DATA chunk the reader is positioned at, only the payload is copied.
+     *
+     * @param reader positioned at an I-DATA chunk
+     * @return payload representation
+     */
+    static ReceivedData fromInterleavedReader(SCTPPacketReader reader) {
+        int payloadStart = reader.getPayloadOffset();
+        return interleaved(
+                reader.getTsn(),
+                reader.getStreamId(),
+                (int) reader.getMessageId(),
+                reader.getPpidOrFsn(),
+                SCTPOrderFlag.fromValue(reader.getChunkFlags() & 7),
+                Arrays.copyOfRange(reader.array(), payloadStart, payloadStart + reader.getPayloadLength()));
+    }
+
+    /**
+     * Read the DATA chunk the reader is positioned at, only the payload is copied.
+     *
+     * @param reader positioned at a DATA chunk
+     * @return payload representation
+     */
+    static ReceivedData fromReader(SCTPPacketReader reader) {
+        int payloadStart = reader.getPayloadOffset();
+        return new ReceivedData(
+                reader.getTsn(),
+                reader.getStreamId(),
+                reader.getStreamSequence(),
+                SCTPOrderFlag.fromValue(reader.getChunkFlags()),
+                SCTPPayloadProtocolId.fromValue(reader.getProtocolId()),
+                Arrays.copyOfRange(reader.array(), payloadStart, payloadStart + reader.getPayloadLength()));
+    }
+
 
 }
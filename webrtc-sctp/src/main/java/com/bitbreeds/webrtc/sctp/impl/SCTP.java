@@ -1,9 +1,12 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
+import com.bitbreeds.webrtc.common.PooledBuffer;
 import com.bitbreeds.webrtc.model.webrtc.ConnectionInternalApi;
+import com.bitbreeds.webrtc.model.webrtc.ReliabilityParameters;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +38,14 @@ public interface SCTP {
      */
     Optional<WireRepresentation> createHeartBeat();
 
+    /**
+     *
+     * @return a heartbeat padded to probe a larger path MTU, if a probe is due
+     */
+    default Optional<WireRepresentation> createPathMtuProbe() {
+        return Optional.empty();
+    }
+
 
     /**
      * @param data the request
@@ -42,13 +53,52 @@ public interface SCTP {
      */
     List<WireRepresentation> handleRequest(byte[] data);
 
+    /**
+     * Handle all datagrams received in one wakeup as a unit.
+     * The buffers are only read during the call, the caller keeps ownership.
+     *
+     * @param batch the requests, in order of arrival
+     * @return possible return messages for handling
+     */
+    default List<WireRepresentation> handleRequests(List<PooledBuffer> batch) {
+        List<WireRepresentation> out = new ArrayList<>();
+        batch.forEach(i -> out.addAll(handleRequest(i.toBytes())));
+        return out;
+    }
+
     /**
      * @param data the rawdata to create a message
      * @param id protocol
      * @param stream if set, this message is sent ordered on this stream
-     * @return messages that SCTP means should be sent now
      */
-    List<WireRepresentation> bufferForSending(byte[] data, SCTPPayloadProtocolId id, Integer stream);
+    void bufferForSending(byte[] data, SCTPPayloadProtocolId id, Integer stream);
+
+    /**
+     * Use the reliability a data channel opened with for data sent on its stream
+     *
+     * @param stream stream of the data channel
+     * @param parameters from the DCEP OPEN
+     */
+    default void setReliability(int stream, ReliabilityParameters parameters) {
+    }
+
+    /**
+     * @param stream stream of a data channel
+     * @return bytes of user data buffered for sending on the stream and not yet acknowledged
+     */
+    default long getBufferedAmount(int stream) {
+        return 0;
+    }
+
+    /**
+     * The connection is told through {@link ConnectionInternalApi#bufferedAmountLow(int)}
+     * when the buffered amount of the stream falls to or below the threshold.
+     *
+     * @param stream stream of a data channel
+     * @param threshold bytes
+     */
+    default void setBufferedAmountLowThreshold(int stream, long threshold) {
+    }
 
     /**
      * Log useful monitoring values.
@@ -65,4 +115,10 @@ public interface SCTP {
      *
      */
     void shutdown();
+
+    /**
+     * Free everything held by the association, called once the connection is gone.
+     */
+    default void close() {
+    }
 }
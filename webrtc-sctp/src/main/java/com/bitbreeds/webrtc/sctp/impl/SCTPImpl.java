@@ -1,5 +1,6 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
+import com.bitbreeds.webrtc.common.PooledBuffer;
 import com.bitbreeds.webrtc.model.webrtc.*;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import com.bitbreeds.webrtc.sctp.impl.buffer.*;
@@ -12,6 +13,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -57,6 +60,16 @@ public class SCTPImpl implements SCTP  {
 
     private final static int DEFAULT_SEND_BUFFER_SIZE = 2000000;
 
+    /**
+     * Common header and DATA chunk header in front of the user data
+     */
+    private final static int DATA_OVERHEAD = 12 + 16;
+
+    /**
+     * Common header and I-DATA chunk header in front of the user data
+     */
+    private final static int I_DATA_OVERHEAD = 12 + 20;
+
     private final AtomicReference<SCTPState> state = new AtomicReference<>(SCTPState.CLOSED);
 
     /**
@@ -65,24 +78,128 @@ public class SCTPImpl implements SCTP  {
     private final ConnectionInternalApi connection;
 
     private final ReceiveBuffer receiveBuffer =  new ReceiveBuffer(1000,localBufferSize);
-    private final SendBuffer sendBuffer = new SendBuffer(DEFAULT_SEND_BUFFER_SIZE);
+    private final SendBuffer sendBuffer;
     private final PayloadCreator payloadCreator = new PayloadCreator();
     private final HeartBeatService heartBeatService = new HeartBeatService();
-    private final RetransmissionScheduler retransmissionCalculator = new RetransmissionScheduler(this::doRetransmission);
-    private final SingleTimedAction sackTimer = new SingleTimedAction(this::sendSack,200); //Not in use
+    private final PathMtuDiscovery pathMtu;
+    private final RetransmissionScheduler retransmissionCalculator;
+    private final SingleTimedAction sackTimer; //Not in use
+
+    /**
+     * Runs the work triggered by timers, which fire on the shared timer thread,
+     * and the sends of user threads
+     */
+    private final Executor executor;
     private SCTPContext context;
 
+    /**
+     * Reused for every received packet, DATA is read from it without building chunks
+     */
+    private final SCTPPacketReader reader = new SCTPPacketReader();
+
+    /**
+     * Collects chunks to send while handling a batch, null otherwise
+     */
+    private PacketBundler outbound;
+
+    /**
+     * Data was received in the current batch and needs acknowledging
+     */
+    private boolean sackPending = false;
+
     /**
      * ChannelParameters
      */
     private final ConcurrentHashMap<Integer,ReliabilityParameters> dataChannels = new ConcurrentHashMap<>();
 
     /**
+     * The peer announced FORWARD TSN support in its INIT, so data may be abandoned
+     */
+    private volatile boolean forwardTsnSupported = false;
+
+    /**
+     * Both sides listed I-DATA in their supported extensions, so I-DATA and I-FORWARD-TSN replace DATA and FORWARD TSN
+     */
+    private volatile boolean interleavingSupported = false;
+
+    /**
+     * Timer work runs on the timer thread
      *
      * @param connection interface to socket
      */
     public SCTPImpl(ConnectionInternalApi connection) {
+        this(connection, Runnable::run);
+    }
+
+    /**
+     *
+     * @param connection interface to socket
+     * @param executor executor the association runs on, used for timer work
+     */
+    public SCTPImpl(ConnectionInternalApi connection, Executor executor) {
+        this(connection, executor, CongestionControllerFactory.RFC4960);
+    }
+
+    /**
+     *
+     * @param connection interface to socket
+     * @param executor executor the association runs on, used for timer work
+     * @param congestionControl congestion control algorithm for data sent on the association
+     */
+    public SCTPImpl(ConnectionInternalApi connection, Executor executor, CongestionControllerFactory congestionControl) {
+        this(connection, executor, congestionControl, PacketBundler.DEFAULT_MAX_PACKET_SIZE);
+    }
+
+    /**
+     *
+     * @param connection interface to socket
+     * @param executor executor the association runs on, used for timer work
+     * @param congestionControl congestion control algorithm for data sent on the association
+     * @param maxPacketSize largest SCTP packet the transport can carry, path MTU discovery probes up to it
+     */
+    public SCTPImpl(
+            ConnectionInternalApi connection,
+            Executor executor,
+            CongestionControllerFactory congestionControl,
+            int maxPacketSize) {
+        this(connection, executor, congestionControl, maxPacketSize, StreamSchedulerFactory.FCFS);
+    }
+
+    /**
+     *
+     * @param connection interface to socket
+     * @param executor executor the association runs on, used for timer work
+     * @param congestionControl congestion control algorithm for data sent on the association
+     * @param maxPacketSize largest SCTP packet the transport can carry, path MTU discovery probes up to it
+     * @param streamScheduler decides which stream is sent from when several have data queued
+     */
+    public SCTPImpl(
+            ConnectionInternalApi connection,
+            Executor executor,
+            CongestionControllerFactory congestionControl,
+            int maxPacketSize,
+            StreamSchedulerFactory streamScheduler) {
         this.connection = connection;
+        this.pathMtu = new PathMtuDiscovery(maxPacketSize);
+        this.executor = executor;
+        this.sendBuffer = new SendBuffer(DEFAULT_SEND_BUFFER_SIZE, congestionControl, streamScheduler);
+        this.sendBuffer.setBufferedAmountLowListener(connection::bufferedAmountLow);
+        this.retransmissionCalculator = new RetransmissionScheduler(onExecutor(this::doRetransmission));
+        this.sackTimer = new SingleTimedAction(onExecutor(this::sendSack),200);
+    }
+
+    /**
+     * @param task work to do when a timer fires
+     * @return timer action handing the work to the association executor
+     */
+    private Runnable onExecutor(Runnable task) {
+        return () -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Association executor stopped, dropping timer work");
+            }
+        };
     }
 
     /**
@@ -98,6 +215,9 @@ public class SCTPImpl implements SCTP  {
         map.put(SCTPMessageType.HEARTBEAT,new HeartBeatHandler());
         map.put(SCTPMessageType.DATA,new PayloadHandler());
         map.put(SCTPMessageType.SELECTIVE_ACK,new SelectiveAckHandler());
+        map.put(SCTPMessageType.FORWARD_TSN,new ForwardTsnHandler());
+        map.put(SCTPMessageType.I_DATA,new PayloadHandler());
+        map.put(SCTPMessageType.I_FORWARD_TSN,new ForwardTsnHandler());
         return map;
     }
 
@@ -114,14 +234,63 @@ public class SCTPImpl implements SCTP  {
         this.context = context;
     }
 
+    void setForwardTsnSupported(boolean forwardTsnSupported) {
+        this.forwardTsnSupported = forwardTsnSupported;
+    }
+
+    /**
+     * Set while handling INIT, before any data is buffered
+     */
+    void setInterleavingSupported(boolean interleavingSupported) {
+        this.interleavingSupported = interleavingSupported;
+        sendBuffer.setInterleaving(interleavingSupported);
+    }
+
+    @Override
+    public void setReliability(int stream, ReliabilityParameters parameters) {
+        dataChannels.put(stream, parameters);
+        sendBuffer.setPriority(stream, parameters.getPriority());
+    }
+
+    @Override
+    public long getBufferedAmount(int stream) {
+        return sendBuffer.getBufferedAmount(stream);
+    }
+
+    @Override
+    public void setBufferedAmountLowThreshold(int stream, long threshold) {
+        sendBuffer.setBufferedAmountLowThreshold(stream, threshold);
+    }
+
 
     private void doRetransmission() {
         logger.info("Retransmission started {}" );
+        if (pathMtu.onRetransmissionTimeout()) {
+            sendBuffer.setMtu(pathMtu.getPlpmtu());
+        }
         List<BufferedSent> toSend = sendBuffer.getDataToRetransmit();
         retransmissionCalculator.restart();
-        toSend.forEach(i ->
-                getConnection().putDataOnWire(i.getData().getSctpPayload())
-        );
+        PacketBundler bundler = new PacketBundler(pathMtu.getPlpmtu());
+        toSend.forEach(i -> bundler.addData(i.getData().getChunk()));
+        sendBuffer.getForwardTsn().ifPresent(i -> bundler.addControl(createForwardTsn(i)));
+        putOnWire(bundler);
+    }
+
+    private SCTPChunk createForwardTsn(ForwardTsn forwardTsn) {
+        return interleavingSupported
+                ? ForwardTsnCreator.createIForwardTsn(forwardTsn)
+                : ForwardTsnCreator.createForwardTsn(forwardTsn);
+    }
+
+    /**
+     * Send the bundled packets right away
+     */
+    private void putOnWire(PacketBundler bundler) {
+        if (!bundler.isEmpty()) {
+            bundler.toPackets(SCTPUtil.baseHeader(context)).forEach(i ->
+                    getConnection().putDataOnWire(i.getPayload())
+            );
+        }
     }
 
     /**
@@ -131,6 +300,9 @@ public class SCTPImpl implements SCTP  {
         logger.debug("Got sack {}",sackData );
 
         SackResult result = sendBuffer.receiveSack(sackData);
+        if (result.isUpdatedCumulative()) {
+            pathMtu.onDataAcked();
+        }
         if(sendBuffer.getInflightSize() == 0) {
             retransmissionCalculator.stop();
         }
@@ -138,15 +310,23 @@ public class SCTPImpl implements SCTP  {
             retransmissionCalculator.restart();
         }
 
+        PacketBundler bundler = outbound != null ? outbound : new PacketBundler(pathMtu.getPlpmtu());
+
         result.getFastRetransmits().forEach(i ->
-                getConnection().putDataOnWire(i.getData().getSctpPayload())
+                bundler.addData(i.getData().getChunk())
         );
 
         List<BufferedSent> toSend = sendBuffer.getDataToSend();
 
         toSend.forEach(i ->
-                getConnection().putDataOnWire(i.getData().getSctpPayload())
+                bundler.addData(i.getData().getChunk())
         );
+
+        sendBuffer.getForwardTsn().ifPresent(i -> bundler.addControl(createForwardTsn(i)));
+
+        if (bundler != outbound) {
+            putOnWire(bundler);
+        }
     }
 
     void initializeRemote(int remoteReceiveBufferSize,long initialTSN) {
@@ -166,31 +346,52 @@ public class SCTPImpl implements SCTP  {
     }
 
     /**
+     * Space is reserved on the calling thread, so a full buffer is reported to the sender.
+     * Creating the chunks and sending them happens on the association executor,
+     * so stream sequence numbers, TSNs and packets follow the order sends were accepted in.
      *
      * @param data payload to send
-     * @return messages to send now
+     * @throws OutOfBufferSpaceError if the send buffer is full
      */
-    public List<WireRepresentation> bufferForSending(byte[] data, SCTPPayloadProtocolId ppid, Integer stream) {
+    public void bufferForSending(byte[] data, SCTPPayloadProtocolId ppid, Integer stream) {
+        sendBuffer.reserve(data.length);
+        try {
+            executor.execute(() -> sendReserved(data, ppid, stream));
+        } catch (RejectedExecutionException e) {
+            sendBuffer.cancelReservation(data.length);
+            logger.debug("Association stopped, dropping {} bytes on stream {}", data.length, stream);
+        }
+    }
+
+    /**
+     * Create the chunks of a message space was reserved for, and send what the windows allow
+     */
+    private void sendReserved(byte[] data, SCTPPayloadProtocolId ppid, Integer stream) {
+        boolean interleaved = interleavingSupported;
         List<SendData> messages = payloadCreator.createPayloadMessage(
                 data,ppid,
-                SCTPUtil.baseHeader(context),
                 false,
-                stream);
-
-        sendBuffer.buffer(messages);
+                stream,
+                (pathMtu.getPlpmtu() - (interleaved ? I_DATA_OVERHEAD : DATA_OVERHEAD)) & ~3,
+                interleaved);
+
+        PartialReliability reliability = forwardTsnSupported
+                ? PartialReliability.fromChannel(dataChannels.get(stream))
+                : PartialReliability.RELIABLE;
+        sendBuffer.bufferReserved(messages, reliability);
         List<BufferedSent> toSend = sendBuffer.getDataToSend();
         if(!toSend.isEmpty()) {
             retransmissionCalculator.start();
         }
-        return toSend.stream()
-                .map(i-> new WireRepresentation(i.getData().getSctpPayload(),SCTPMessageType.DATA))
-                .collect(Collectors.toList());
+        PacketBundler bundler = new PacketBundler(pathMtu.getPlpmtu());
+        toSend.forEach(i -> bundler.addData(i.getData().getChunk()));
+        putOnWire(bundler);
     }
 
     /**
      * @return message with acks
      */
-    private Optional<WireRepresentation> createSackMessage() {
+    private Optional<SCTPMessage> createSackMessage() {
         if(context == null) {
             return Optional.empty();
         }
@@ -199,7 +400,7 @@ public class SCTPImpl implements SCTP  {
         message.ifPresent(
                 i-> logger.info("Created sack {} to send",i)
         );
-        return message.map(i->new WireRepresentation(i.toBytes(),SCTPMessageType.SELECTIVE_ACK));
+        return message;
     }
 
 
@@ -209,30 +410,110 @@ public class SCTPImpl implements SCTP  {
     @Override
     public Optional<WireRepresentation> createHeartBeat() {
         return Optional.of(new WireRepresentation(
-                heartBeatService.createHeartBeat(SCTPUtil.baseHeader(context)).toBytes(),
+                SCTPPacketWriter.encode(heartBeatService.createHeartBeat(SCTPUtil.baseHeader(context))),
                 SCTPMessageType.HEARTBEAT));
     }
 
 
+    /**
+     * Called at the probe interval, sends nothing once the search completed
+     *
+     * @return heartbeat padded to the path MTU probe size
+     */
+    @Override
+    public Optional<WireRepresentation> createPathMtuProbe() {
+        if (context == null) {
+            return Optional.empty();
+        }
+        int size = pathMtu.nextProbe(System.currentTimeMillis());
+        if (size == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new WireRepresentation(
+                heartBeatService.createProbe(SCTPUtil.baseHeader(context), size),
+                SCTPMessageType.HEARTBEAT));
+    }
+
+    /**
+     * @param size packet size of the acknowledged probe
+     */
+    void onPathMtuProbeAcked(int size) {
+        if (pathMtu.onProbeAcked(size)) {
+            sendBuffer.setMtu(pathMtu.getPlpmtu());
+        }
+    }
+
+    /**
+     * @return current path MTU search
+     */
+    PathMtuDiscovery getPathMtu() {
+        return pathMtu;
+    }
+
     /**
      * Handle message and create a immediate response if needed
      * @param input the incoming message
      * @return responses
      */
     public List<WireRepresentation> handleRequest(byte[] input) {
-        SCTPMessage inFullMessage = SCTPMessage.fromBytes(input);
-
-        logger.debug("Input Parsed: " + inFullMessage );
-        logger.debug("Flags: " + Hex.encodeHexString(new byte[]{input[13]}));
+        return handleRequests(Collections.singletonList(PooledBuffer.wrap(input)));
+    }
 
-        SCTPHeader inHdr = inFullMessage.getHeader();
-        List<SCTPChunk> inChunks = inFullMessage.getChunks();
+    /**
+     * Handle a batch of messages, sending one SACK for all DATA in it.
+     * Responses, the SACK and DATA released by incoming SACKs are bundled into as few packets as possible.
+     * A message failing to parse or handle does not stop the rest of the batch.
+     *
+     * @param batch the incoming messages in order
+     * @return packets to send
+     */
+    @Override
+    public List<WireRepresentation> handleRequests(List<PooledBuffer> batch) {
+        PacketBundler bundler = new PacketBundler(pathMtu.getPlpmtu());
+        outbound = bundler;
+        try {
+            for (PooledBuffer input : batch) {
+                try {
+                    handleMessage(input, bundler);
+                } catch (Exception e) {
+                    logger.error("Failed handling message: ", e);
+                }
+            }
+        } finally {
+            outbound = null;
+        }
+        if (sackPending) {
+            sackPending = false;
+            createSackMessage().ifPresent(i -> i.getChunks().forEach(bundler::addControl));
+        }
+        return bundler.toPackets(context == null ? null : SCTPUtil.baseHeader(context));
+    }
 
-        return inChunks.stream()
-                .map(i->handleChunk(i,inHdr))
-                .flatMap(i->i)
-                .map(i->new WireRepresentation(SCTPUtil.addChecksum(i).toBytes(),i.getChunks().get(0).getType()))
-                .collect(Collectors.toList());
+    /**
+     * @param input the incoming message
+     * @param bundler collects the responses
+     */
+    private void handleMessage(PooledBuffer input, PacketBundler bundler) {
+        SCTPPacketReader in = reader.wrap(input.array(), 0, input.length());
+        SCTPHeader inHdr = null;
+        while (in.nextChunk()) {
+            if (in.isData()) {
+                handleSctpPayload(PayloadHandler.fromReader(in));
+            }
+            else if (in.isInterleavedData()) {
+                handleSctpPayload(PayloadHandler.fromInterleavedReader(in));
+            }
+            else {
+                if (inHdr == null) {
+                    inHdr = in.header();
+                }
+                SCTPChunk chunk = in.toChunk();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Input Parsed: " + chunk);
+                }
+                handleChunk(chunk, inHdr).forEach(bundler::addMessage);
+            }
+        }
     }
 
     /**
@@ -267,13 +548,38 @@ public class SCTPImpl implements SCTP  {
 
         Objects.requireNonNull(data);
 
-        logger.trace("Flags: " + data.getFlag() + " Stream: " + data.getStreamId() + " Stream seq: " + data.getStreamSequence());
-        logger.trace("Data as hex: " + Hex.encodeHexString(data.getPayload()));
-        logger.trace("Data as string: " + new String(data.getPayload()) + ":");
+        if (logger.isTraceEnabled()) {
+            byte[] payload = data.getPayload();
+            logger.trace("Flags: " + data.getFlag() + " Stream: " + data.getStreamId() + " Stream seq: " + data.getStreamSequence());
+            logger.trace("Data as hex: " + Hex.encodeHexString(payload));
+            logger.trace("Data as string: " + new String(payload) + ":");
+        }
 
         receiveBuffer.store(data);
         List<Deliverable> deliverables = receiveBuffer.getMessagesForDelivery();
-        sendSack(); //Sack all messages immediately
+        if (outbound != null) {
+            sackPending = true; //Sacked once the batch is handled
+        } else {
+            sendSack(); //Sack all messages immediately
+        }
+        deliverables.forEach(
+                i -> getConnection().presentToUser(i)
+        );
+    }
+
+    /**
+     * Skip abandoned data, then deliver what no longer waits for it
+     *
+     * @param forwardTsn received FORWARD TSN
+     */
+    void receiveForwardTsn(ForwardTsn forwardTsn) {
+        receiveBuffer.receiveForwardTsn(forwardTsn);
+        List<Deliverable> deliverables = receiveBuffer.getMessagesForDelivery();
+        if (outbound != null) {
+            sackPending = true;
+        } else {
+            sendSack();
+        }
         deliverables.forEach(
                 i -> getConnection().presentToUser(i)
         );
@@ -284,7 +590,7 @@ public class SCTPImpl implements SCTP  {
      */
     private void sendSack() {
         createSackMessage().ifPresent(i ->
-                getConnection().putDataOnWire(i.getPayload())
+                getConnection().putDataOnWire(SCTPPacketWriter.encode(i))
         );
     }
 
@@ -311,14 +617,22 @@ public class SCTPImpl implements SCTP  {
 
     }
 
+    @Override
+    public void close() {
+        sendBuffer.clear();
+        receiveBuffer.clear();
+    }
+
     /**
      * Print relevant monitoring and debugging data
      */
     public void runMonitoring() {
         logger.info("---------------------------------------------");
         logger.info("Inflight: " + sendBuffer.getInflightSize());
+        logger.info("Flight size: " + sendBuffer.getFlightSize());
+        logger.info("Congestion window: " + sendBuffer.getCongestionWindow());
         logger.info("CumulativeReceivedTSN: " + receiveBuffer.getCumulativeTSN());
-        logger.info("MyTsn: " + payloadCreator.currentTSN());
+        logger.info("MyTsn: " + sendBuffer.getNextTsn());
         logger.info("Total received bytes: " + receiveBuffer.getReceivedBytes());
         logger.info("Total delivered bytes to user: " + receiveBuffer.getDeliveredBytes());
         logger.info("Total sent bytes: " + sendBuffer.getBytesSent());
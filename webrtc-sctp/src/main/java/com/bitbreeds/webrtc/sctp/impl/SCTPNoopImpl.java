@@ -40,8 +40,7 @@ public class SCTPNoopImpl implements SCTP {
     }
 
     @Override
-    public List<WireRepresentation> bufferForSending(byte[] data, SCTPPayloadProtocolId id, Integer stream) {
-        return Collections.emptyList();
+    public void bufferForSending(byte[] data, SCTPPayloadProtocolId id, Integer stream) {
     }
 
     @Override
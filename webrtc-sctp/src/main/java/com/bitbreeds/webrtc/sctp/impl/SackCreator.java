@@ -1,9 +1,8 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
 import com.bitbreeds.webrtc.model.sctp.GapAck;
-import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.sctp.impl.buffer.SackData;
-import com.bitbreeds.webrtc.sctp.impl.util.SCTPUtil;
 import com.bitbreeds.webrtc.sctp.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,18 +48,15 @@ public class SackCreator {
         //Calculate gap acks from only relevant data.
         List<GapAck> acks = sackData.getTsns();
 
-        List<byte[]> varData = new ArrayList<>();
+        List<Long> duplicates = sackData.getDuplicates();
 
-        for(int i = 1; i<acks.size(); i++) {
-            GapAck ack = acks.get(i);
-            int start = (int)(ack.start);
-            int end = (int)(ack.end);
-            varData.add(twoBytesFromInt(start));
-            varData.add(twoBytesFromInt(end));
+        byte[] data = new byte[4 * acks.size() + 4 * duplicates.size()];
+        ByteCursor varData = ByteCursor.wrap(data);
+        for (GapAck ack : acks) {
+            varData.writeShort((int) ack.start).writeShort((int) ack.end);
         }
-
-        for (Long l : sackData.getDuplicates()) {
-            varData.add(longToFourBytes(l));
+        for (Long l : duplicates) {
+            varData.writeInt(l);
         }
 
         HashMap<SCTPFixedAttributeType,SCTPFixedAttribute> fixed = new HashMap<>();
@@ -74,11 +70,11 @@ public class SackCreator {
 
         SCTPFixedAttribute num_gap =
                 new SCTPFixedAttribute(SCTPFixedAttributeType.NUM_GAP_BLOCKS,
-                        twoBytesFromInt(varData.size()));
+                        twoBytesFromInt(acks.size()));
 
         SCTPFixedAttribute num_dupl =
                 new SCTPFixedAttribute(SCTPFixedAttributeType.NUM_DUPLICATE,
-                        twoBytesFromInt(sackData.getDuplicates().size()));
+                        twoBytesFromInt(duplicates.size()));
 
 
         fixed.put(SCTPFixedAttributeType.CUMULATIVE_TSN_ACK,
@@ -90,21 +86,19 @@ public class SackCreator {
         int sum = fixed.keySet().stream()
                 .map(SCTPFixedAttributeType::getLgt).reduce(0, Integer::sum);
 
-        byte[] data = joinBytesArrays(varData);
-
         SCTPChunk sack = new SCTPChunk(
                 SCTPMessageType.SELECTIVE_ACK,
                 SCTPOrderFlag.fromValue((byte)0),
                 4 + sum + data.length,
                 fixed,
                 new HashMap<>(),
-                SignalUtil.padToMultipleOfFour(data)
+                data
         );
 
         SCTPMessage msg = new SCTPMessage(header, Collections.singletonList(sack));
 
         logger.debug("Sending sack data: " + msg);
-        return Optional.of(SCTPUtil.addChecksum(msg));
+        return Optional.of(msg);
     }
 
 
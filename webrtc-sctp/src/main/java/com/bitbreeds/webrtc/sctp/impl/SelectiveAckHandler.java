@@ -1,8 +1,7 @@
 package com.bitbreeds.webrtc.sctp.impl;
 
-import com.bitbreeds.webrtc.common.ByteRange;
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.model.sctp.GapAck;
-import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.sctp.impl.buffer.SackData;
 import com.bitbreeds.webrtc.sctp.model.*;
 import org.slf4j.Logger;
@@ -53,28 +52,23 @@ public class SelectiveAckHandler implements MessageHandler {
         SCTPFixedAttribute num_gap = data.getFixed().get(SCTPFixedAttributeType.NUM_GAP_BLOCKS);
         SCTPFixedAttribute num_dupl = data.getFixed().get(SCTPFixedAttributeType.NUM_DUPLICATE);
 
-        int remoteBuffer = SignalUtil.intFromFourBytes(arcw.getData());
+        int remoteBuffer = ByteCursor.getInt(arcw.getData(),0);
 
-        long cumulativeTSN = SignalUtil.bytesToLong(cum_tsn.getData());
-        int gaps = SignalUtil.intFromTwoBytes(num_gap.getData());
-        int dupl = SignalUtil.intFromTwoBytes(num_dupl.getData());
+        long cumulativeTSN = ByteCursor.getUnsignedInt(cum_tsn.getData(),0);
+        int gaps = ByteCursor.getUnsignedShort(num_gap.getData(),0);
+        int dupl = ByteCursor.getUnsignedShort(num_dupl.getData(),0);
 
+        ByteCursor rest = ByteCursor.wrap(data.getRest());
         List<GapAck> gapAcks = new ArrayList<>(gaps);
-        ByteRange rng = new ByteRange(0,2);
         for(int i = 0; i<gaps; i++) {
-            int a = SignalUtil.intFromTwoBytes(SignalUtil.copyRange(data.getRest(),rng));
-            rng = rng.plus(2);
-            int b = SignalUtil.intFromTwoBytes(SignalUtil.copyRange(data.getRest(),rng));
-            rng = rng.plus(2);
+            int a = rest.readUnsignedShort();
+            int b = rest.readUnsignedShort();
             gapAcks.add(new GapAck(a,b));
         }
 
         List<Long> duplicates = new ArrayList<>(dupl);
-        rng = rng.lengthFromA(4);
         for(int i = 0; i<dupl; i++) {
-            long dpl = SignalUtil.bytesToLong(SignalUtil.copyRange(data.getRest(),rng));
-            rng = rng.plus(4);
-            duplicates.add(dpl);
+            duplicates.add(rest.readUnsignedInt());
         }
 
         /*
@@ -0,0 +1,274 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Delay based congestion control modelled on BBR
+ * <a href="https://tools.ietf.org/html/draft-cardwell-iccrg-bbr-congestion-control-00">BBR congestion control</a>
+ *
+ * Keeps a windowed max of delivery rate and a windowed min of RTT, and sizes the window
+ * from their product, the bandwidth delay product, instead of growing until packets are lost.
+ * That keeps the bottleneck queue short, which matters when data channels share a link with media.
+ *
+ * There is no pacer, so the gains BBR applies to the pacing rate in PROBE_BW are applied to the window here,
+ * with one burst of headroom for delayed and aggregated SACKs.
+ *
+ * Not thread safe, the owning {@link SendBuffer} calls it under its lock.
+ */
+public class BbrCongestionController implements CongestionController {
+
+    public enum Mode {
+        STARTUP, DRAIN, PROBE_BW, PROBE_RTT
+    }
+
+    private final static double HIGH_GAIN = 2.885;
+    private final static double[] PROBE_BW_GAINS = {1.25, 0.75, 1, 1, 1, 1, 1, 1};
+
+    private final static int BANDWIDTH_WINDOW_ROUNDS = 10;
+    private final static int FULL_BANDWIDTH_ROUNDS = 3;
+    private final static double FULL_BANDWIDTH_GROWTH = 1.25;
+
+    private final static long MIN_RTT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private final static long PROBE_RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private int mtu;
+    private final long maxWindow;
+    private final LongSupplier clock;
+
+    private Mode mode = Mode.STARTUP;
+    private long cwnd;
+
+    private long minRttNanos = -1;
+    private long minRttStamp;
+    private long probeRttMin;
+    private long probeRttDone;
+
+    /**
+     * Delivery rate per round in bytes per nanosecond, a round lasts one min RTT
+     */
+    private final double[] bandwidthSamples = new double[BANDWIDTH_WINDOW_ROUNDS];
+    private int sampleIndex = 0;
+    private long roundStart;
+    private long roundDelivered = 0;
+    private boolean roundAppLimited = false;
+
+    private double fullBandwidth = 0;
+    private int fullBandwidthCount = 0;
+    private boolean fullBandwidthReached = false;
+
+    private int cycleIndex = 0;
+
+    /**
+     * @param mtu largest packet we send
+     * @param peerReceiveWindow a_rwnd from INIT/INIT ACK, the window never grows past it
+     */
+    public BbrCongestionController(int mtu, long peerReceiveWindow) {
+        this(mtu, peerReceiveWindow, System::nanoTime);
+    }
+
+    BbrCongestionController(int mtu, long peerReceiveWindow, LongSupplier clock) {
+        this.mtu = mtu;
+        this.clock = clock;
+        this.cwnd = Rfc4960CongestionController.initialWindow(mtu);
+        this.maxWindow = Math.max(peerReceiveWindow, cwnd);
+    }
+
+    @Override
+    public void setMtu(int mtu) {
+        this.mtu = mtu;
+        cwnd = Math.max(Math.min(cwnd, maxWindow), minimumWindow());
+    }
+
+    @Override
+    public boolean canSend(long flightSize) {
+        return flightSize < cwnd;
+    }
+
+    @Override
+    public long burstLimit() {
+        return (long) MAX_BURST * mtu;
+    }
+
+    @Override
+    public void onRttSample(long rttNanos) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (mode == Mode.PROBE_RTT) {
+            probeRttMin = Math.min(probeRttMin, rttNanos);
+        }
+        if (minRttNanos < 0) {
+            roundStart = now;
+        }
+        if (minRttNanos < 0 || rttNanos <= minRttNanos) {
+            minRttNanos = rttNanos;
+            minRttStamp = now;
+        }
+    }
+
+    /**
+     * The round in progress is app limited, its sample only counts if it raises the max,
+     * and it says nothing about whether startup has filled the pipe
+     */
+    @Override
+    public void onAppLimited() {
+        roundAppLimited = true;
+    }
+
+    @Override
+    public void onSack(long cumulativeTSN, long bytesAcked, long flightBefore, boolean cumulativeAdvanced) {
+        long now = clock.getAsLong();
+        roundDelivered += bytesAcked;
+        if (minRttNanos > 0 && now - roundStart >= minRttNanos) {
+            endRound(now);
+        }
+        updateMode(now, flightBefore - bytesAcked);
+        updateWindow(bytesAcked);
+    }
+
+    private void endRound(long now) {
+        double sample = roundDelivered / (double) (now - roundStart);
+        boolean appLimited = roundAppLimited;
+        roundDelivered = 0;
+        roundStart = now;
+        roundAppLimited = false;
+
+        if (!appLimited || sample >= maxBandwidth()) {
+            bandwidthSamples[sampleIndex % BANDWIDTH_WINDOW_ROUNDS] = sample;
+            sampleIndex++;
+        }
+        if (!fullBandwidthReached && !appLimited) {
+            double bandwidth = maxBandwidth();
+            if (bandwidth >= fullBandwidth * FULL_BANDWIDTH_GROWTH) {
+                fullBandwidth = bandwidth;
+                fullBandwidthCount = 0;
+            } else if (++fullBandwidthCount >= FULL_BANDWIDTH_ROUNDS) {
+                fullBandwidthReached = true;
+            }
+        }
+        if (mode == Mode.PROBE_BW) {
+            cycleIndex = (cycleIndex + 1) % PROBE_BW_GAINS.length;
+        }
+    }
+
+    private void updateMode(long now, long flightSize) {
+        if (mode == Mode.STARTUP && fullBandwidthReached) {
+            mode = Mode.DRAIN;
+        }
+        if (mode == Mode.DRAIN && flightSize <= bandwidthDelayProduct()) {
+            mode = Mode.PROBE_BW;
+            cycleIndex = 0;
+        }
+        if (mode != Mode.PROBE_RTT && minRttNanos > 0 && now - minRttStamp > MIN_RTT_WINDOW_NANOS) {
+            mode = Mode.PROBE_RTT;
+            probeRttMin = Long.MAX_VALUE;
+            probeRttDone = now + PROBE_RTT_NANOS;
+        }
+        if (mode == Mode.PROBE_RTT && now >= probeRttDone) {
+            if (probeRttMin != Long.MAX_VALUE) {
+                minRttNanos = probeRttMin;
+            }
+            minRttStamp = now;
+            mode = fullBandwidthReached ? Mode.PROBE_BW : Mode.STARTUP;
+        }
+    }
+
+    private void updateWindow(long bytesAcked) {
+        long target = targetWindow();
+        if (mode == Mode.PROBE_RTT) {
+            cwnd = target;
+        } else if (!fullBandwidthReached) {
+            if (target == 0 || cwnd < target) {
+                cwnd += bytesAcked;
+            }
+        } else {
+            cwnd = Math.min(cwnd + bytesAcked, target);
+        }
+        cwnd = Math.max(Math.min(cwnd, maxWindow), minimumWindow());
+    }
+
+    private long targetWindow() {
+        switch (mode) {
+            case STARTUP:
+                return (long) (HIGH_GAIN * bandwidthDelayProduct());
+            case DRAIN:
+                return bandwidthDelayProduct();
+            case PROBE_BW:
+                return (long) (PROBE_BW_GAINS[cycleIndex] * bandwidthDelayProduct()) + burstLimit();
+            default:
+                return minimumWindow();
+        }
+    }
+
+    private long minimumWindow() {
+        return 4L * mtu;
+    }
+
+    private double maxBandwidth() {
+        double max = 0;
+        for (double sample : bandwidthSamples) {
+            max = Math.max(max, sample);
+        }
+        return max;
+    }
+
+    /**
+     * @return estimated bytes the path holds, 0 before the first samples
+     */
+    public long bandwidthDelayProduct() {
+        return minRttNanos > 0 ? (long) (maxBandwidth() * minRttNanos) : 0;
+    }
+
+    /**
+     * Loss alone is not taken as congestion, the model already reflects a full queue
+     */
+    @Override
+    public void onFastRetransmit(long highestOutstanding) {
+    }
+
+    @Override
+    public void onRetransmissionTimeout() {
+        cwnd = minimumWindow();
+    }
+
+    @Override
+    public long getCwnd() {
+        return cwnd;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getMinRttNanos() {
+        return minRttNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BbrCongestionController{" +
+                "mode=" + mode +
+                ", cwnd=" + cwnd +
+                ", minRttNanos=" + minRttNanos +
+                ", bandwidthDelayProduct=" + bandwidthDelayProduct() +
+                '}';
+    }
+}
@@ -27,6 +27,8 @@ public class BufferedSent implements Comparable<BufferedSent> {
     private final long tsn;
     private final int resends;
     private final int fastResendNum;
+    private final PartialReliability reliability;
+    private final LocalDateTime bufferedTime;
 
     public boolean canFastResend() {
         return !fastResent && fastResendNum >= 3;
@@ -42,6 +44,19 @@ public class BufferedSent implements Comparable<BufferedSent> {
             int resends,
             int fastResendNum,
             boolean fastResent) {
+        this(data,bufferState,lastSendTime,tsn,resends,fastResendNum,fastResent,PartialReliability.RELIABLE,null);
+    }
+
+    private BufferedSent(
+            SendData data,
+            SendBufferedState bufferState,
+            LocalDateTime lastSendTime,
+            long tsn,
+            int resends,
+            int fastResendNum,
+            boolean fastResent,
+            PartialReliability reliability,
+            LocalDateTime bufferedTime) {
         this.data = data;
         this.bufferState = bufferState;
         this.lastSendTime = lastSendTime;
@@ -49,10 +64,16 @@ public class BufferedSent implements Comparable<BufferedSent> {
         this.resends = resends;
         this.fastResendNum = fastResendNum;
         this.fastResent = fastResent;
+        this.reliability = reliability;
+        this.bufferedTime = bufferedTime;
     }
 
     public static BufferedSent buffer(SendData data,long tsn) {
-        return new BufferedSent(data,SendBufferedState.STORED,null,tsn,0,0,false);
+        return buffer(data,tsn,PartialReliability.RELIABLE);
+    }
+
+    public static BufferedSent buffer(SendData data,long tsn,PartialReliability reliability) {
+        return new BufferedSent(data,SendBufferedState.STORED,null,tsn,0,0,false,reliability,LocalDateTime.now());
     }
 
     public boolean canBeOverwritten() {
@@ -60,23 +81,99 @@ public class BufferedSent implements Comparable<BufferedSent> {
     }
 
     public BufferedSent acknowledge() {
-        return new BufferedSent(data, SendBufferedState.ACKNOWLEDGED,lastSendTime,tsn,resends,fastResendNum,fastResent);
+        return withState(SendBufferedState.ACKNOWLEDGED,lastSendTime,resends,fastResendNum,fastResent);
     }
 
     public BufferedSent resend() {
-        return new BufferedSent(data, SendBufferedState.SENT,LocalDateTime.now(),tsn,resends+1,fastResendNum,fastResent);
+        return withState(SendBufferedState.SENT,LocalDateTime.now(),resends+1,fastResendNum,fastResent);
     }
 
     public BufferedSent fastResend() {
-        return new BufferedSent(data, SendBufferedState.SENT,LocalDateTime.now(),tsn,resends,fastResendNum,true);
+        return withState(SendBufferedState.SENT,LocalDateTime.now(),resends,fastResendNum,true);
     }
 
     public BufferedSent markFast() {
-        return new BufferedSent(data, SendBufferedState.SENT,lastSendTime,tsn,resends,fastResendNum+1,fastResent);
+        return withState(bufferState,lastSendTime,resends,fastResendNum+1,fastResent);
+    }
+
+    /**
+     * @return chunk waiting to be resent after T3-rtx expired, rfc4960 section 6.3.3
+     */
+    public BufferedSent markForRetransmit() {
+        return withState(SendBufferedState.RETRANSMIT,lastSendTime,resends,fastResendNum,fastResent);
+    }
+
+    /**
+     * @return chunk waiting to be fast retransmitted when the window allows, rfc4960 section 7.2.4
+     */
+    public BufferedSent markForFastRetransmit() {
+        return withState(SendBufferedState.FAST_RETRANSMIT,lastSendTime,resends,fastResendNum,fastResent);
     }
 
     public BufferedSent send() {
-        return new BufferedSent(data, SendBufferedState.SENT,LocalDateTime.now(),tsn,resends,fastResendNum,fastResent);
+        return withState(SendBufferedState.SENT,LocalDateTime.now(),resends,fastResendNum,fastResent);
+    }
+
+    /**
+     * @param tsn TSN given when the chunk leaves the send queue
+     * @return chunk with the TSN set
+     */
+    public BufferedSent assignTsn(long tsn) {
+        return new BufferedSent(data.withTsn(tsn),bufferState,lastSendTime,tsn,resends,fastResendNum,fastResent,reliability,bufferedTime);
+    }
+
+    /**
+     * @return chunk given up on, it is skipped by a FORWARD TSN instead of retransmitted
+     */
+    public BufferedSent abandon() {
+        return withState(SendBufferedState.ABANDONED,lastSendTime,resends,fastResendNum,fastResent);
+    }
+
+    private BufferedSent withState(
+            SendBufferedState state,
+            LocalDateTime sendTime,
+            int resends,
+            int fastResendNum,
+            boolean fastResent) {
+        return new BufferedSent(data,state,sendTime,tsn,resends,fastResendNum,fastResent,reliability,bufferedTime);
+    }
+
+    public boolean isAbandoned() {
+        return SendBufferedState.ABANDONED.equals(bufferState);
+    }
+
+    /**
+     * @return whether the chunk is counted in flight
+     */
+    public boolean isSent() {
+        return SendBufferedState.SENT.equals(bufferState);
+    }
+
+    /**
+     * @return whether the chunk waits to be resent, after T3-rtx or a fast retransmit
+     */
+    public boolean isMarkedForRetransmit() {
+        return SendBufferedState.RETRANSMIT.equals(bufferState) || isMarkedForFastRetransmit();
+    }
+
+    public boolean isMarkedForFastRetransmit() {
+        return SendBufferedState.FAST_RETRANSMIT.equals(bufferState);
+    }
+
+    /**
+     * @param now current time
+     * @return whether the chunk should be abandoned rather than retransmitted
+     */
+    public boolean shouldAbandon(LocalDateTime now) {
+        return reliability.shouldAbandon(resends + (fastResent ? 1 : 0), bufferedTime, now);
+    }
+
+    /**
+     * @param now current time
+     * @return whether the lifetime passed before the chunk was sent
+     */
+    public boolean isExpired(LocalDateTime now) {
+        return reliability.expired(bufferedTime, now);
     }
 
     public SendData getData() {
@@ -91,6 +188,13 @@ public class BufferedSent implements Comparable<BufferedSent> {
         return lastSendTime;
     }
 
+    /**
+     * @return whether the chunk was sent more than once, its acknowledgement then gives no RTT sample
+     */
+    public boolean isRetransmitted() {
+        return resends > 0 || fastResent;
+    }
+
     @Override
     public String toString() {
         return "BufferedSent{" +
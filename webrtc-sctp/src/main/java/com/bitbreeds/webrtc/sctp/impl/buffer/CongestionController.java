@@ -0,0 +1,96 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Decides how many bytes one association may have in flight.
+ *
+ * The {@link SendBuffer} feeds it SACK arrivals, RTT samples and loss events,
+ * and asks it before moving data to flight.
+ * Calls come under the send buffer lock, implementations need no synchronization of their own.
+ *
+ * @see Rfc4960CongestionController
+ * @see BbrCongestionController
+ */
+public interface CongestionController {
+
+    /**
+     * Packets allowed out in one go, rfc4960 section 15
+     */
+    int MAX_BURST = 4;
+
+    /**
+     * @param flightSize bytes outstanding
+     * @return whether new data may be sent
+     */
+    boolean canSend(long flightSize);
+
+    /**
+     * @return most new bytes to put on the wire in one go
+     */
+    long burstLimit();
+
+    /**
+     * @param cumulativeTSN cumulative TSN of the SACK
+     * @param bytesAcked bytes newly acknowledged by the SACK
+     * @param flightBefore bytes outstanding before the SACK was applied
+     * @param cumulativeAdvanced whether the SACK moved the cumulative TSN
+     */
+    void onSack(long cumulativeTSN, long bytesAcked, long flightBefore, boolean cumulativeAdvanced);
+
+    /**
+     * @param rttNanos round trip of a chunk acknowledged without being retransmitted
+     */
+    default void onRttSample(long rttNanos) {
+    }
+
+    /**
+     * Nothing is waiting to be sent, so the delivery rate sampled until the
+     * current round ends says more about the application than about the path
+     */
+    default void onAppLimited() {
+    }
+
+    /**
+     * Everything outstanding was acknowledged
+     */
+    default void onAllAcked() {
+    }
+
+    /**
+     * @param highestOutstanding highest TSN in flight when the loss was detected
+     */
+    void onFastRetransmit(long highestOutstanding);
+
+    /**
+     * T3-rtx expired
+     */
+    void onRetransmissionTimeout();
+
+    /**
+     * The path MTU changed, later bursts and window increases use the new size
+     *
+     * @param mtu largest packet the association now sends
+     */
+    void setMtu(int mtu);
+
+    /**
+     * @return current congestion window in bytes
+     */
+    long getCwnd();
+
+}
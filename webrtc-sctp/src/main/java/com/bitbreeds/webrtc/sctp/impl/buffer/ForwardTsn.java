@@ -0,0 +1,91 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Content of a FORWARD TSN or I-FORWARD-TSN chunk
+ * <a href="https://tools.ietf.org/html/rfc3758#section-3.2">rfc3758 FORWARD TSN</a>
+ * <a href="https://tools.ietf.org/html/rfc8260#section-2.3">rfc8260 I-FORWARD-TSN</a>
+ */
+public class ForwardTsn {
+
+    private final long newCumulativeTSN;
+
+    /**
+     * Highest abandoned stream sequence number of ordered messages, by stream
+     */
+    private final Map<Integer, Integer> streamSequences;
+
+    /**
+     * Highest abandoned message identifier of unordered fragmented messages, by stream.
+     * Only sent in an I-FORWARD-TSN, where it lets the peer drop fragments it can not complete.
+     */
+    private final Map<Integer, Integer> unorderedMessages;
+
+    public ForwardTsn(long newCumulativeTSN, Map<Integer, Integer> streamSequences) {
+        this(newCumulativeTSN, streamSequences, Collections.emptyMap());
+    }
+
+    public ForwardTsn(
+            long newCumulativeTSN,
+            Map<Integer, Integer> streamSequences,
+            Map<Integer, Integer> unorderedMessages) {
+        this.newCumulativeTSN = newCumulativeTSN;
+        this.streamSequences = streamSequences;
+        this.unorderedMessages = unorderedMessages;
+    }
+
+    public long getNewCumulativeTSN() {
+        return newCumulativeTSN;
+    }
+
+    public Map<Integer, Integer> getStreamSequences() {
+        return streamSequences;
+    }
+
+    public Map<Integer, Integer> getUnorderedMessages() {
+        return unorderedMessages;
+    }
+
+    @Override
+    public String toString() {
+        return "ForwardTsn{" +
+                "newCumulativeTSN=" + newCumulativeTSN +
+                ", streamSequences=" + streamSequences +
+                ", unorderedMessages=" + unorderedMessages +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ForwardTsn that = (ForwardTsn) o;
+        return newCumulativeTSN == that.newCumulativeTSN &&
+                Objects.equals(streamSequences, that.streamSequences) &&
+                Objects.equals(unorderedMessages, that.unorderedMessages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(newCumulativeTSN, streamSequences, unorderedMessages);
+    }
+}
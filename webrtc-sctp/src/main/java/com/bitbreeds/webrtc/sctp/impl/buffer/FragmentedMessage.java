@@ -0,0 +1,66 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Fragments received of one I-DATA message, their TSNs by fragment sequence number.
+ * <a href="https://tools.ietf.org/html/rfc8260#section-2.1">rfc8260 I-DATA</a>
+ *
+ * Fragments of different messages may interleave, so they are found
+ * by message identifier rather than by walking consecutive TSNs.
+ * Not thread safe, used under the receive buffer lock.
+ */
+public class FragmentedMessage {
+
+    private final TreeMap<Long,Long> tsnByFragment = new TreeMap<>();
+
+    /**
+     * Fragment sequence number of the end fragment, -1 until it is received
+     */
+    private long endFragment = -1;
+
+    /**
+     * @param fragmentSequence fragment sequence number
+     * @param tsn TSN the fragment came with
+     * @param isEnd whether the fragment has the E bit
+     */
+    public void add(long fragmentSequence, long tsn, boolean isEnd) {
+        tsnByFragment.put(fragmentSequence, tsn);
+        if (isEnd) {
+            endFragment = fragmentSequence;
+        }
+    }
+
+    /**
+     * @return whether all fragments from the first to the end are received
+     */
+    public boolean isComplete() {
+        return endFragment >= 0 && tsnByFragment.size() == endFragment + 1;
+    }
+
+    /**
+     * @return TSNs of the fragments in message order
+     */
+    public List<Long> getTsns() {
+        return new ArrayList<>(tsnByFragment.values());
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Chunks in flight stored at TSN modulo the size of the ring.
+ *
+ * Covers the TSNs from the lowest outstanding to the highest sent, chunks acknowledged
+ * by gap blocks leave empty slots until the cumulative ack passes them.
+ * Lookup, removal and finding the lowest outstanding chunk do not depend on the number in flight,
+ * the ring doubles when the covered range outgrows it.
+ *
+ * A bitmap with one bit per slot is the scoreboard of outstanding chunks,
+ * so walks over a TSN range skip acknowledged runs 64 slots at a time.
+ */
+public class InFlightRing {
+
+    private BufferedSent[] slots;
+    private long[] outstanding;
+    private int mask;
+
+    /**
+     * Lowest outstanding and highest added TSN, only valid when not empty
+     */
+    private long firstTsn;
+    private long lastTsn;
+
+    private int size = 0;
+
+    /**
+     * @param initialSlots starting size, rounded up to a power of two of at least 64
+     */
+    public InFlightRing(int initialSlots) {
+        if (initialSlots <= 0) {
+            throw new IllegalArgumentException("Slots must be above 0, is " + initialSlots);
+        }
+        int length = Math.max(Long.SIZE, Integer.highestOneBit(initialSlots));
+        if (length < initialSlots) {
+            length <<= 1;
+        }
+        this.slots = new BufferedSent[length];
+        this.outstanding = new long[length / Long.SIZE];
+        this.mask = length - 1;
+    }
+
+    /**
+     * Add or replace the chunk at its TSN
+     *
+     * @param sent chunk put on the wire
+     */
+    public void put(BufferedSent sent) {
+        long tsn = sent.getTsn();
+        if (size == 0) {
+            firstTsn = tsn;
+            lastTsn = tsn;
+        } else {
+            long first = Math.min(firstTsn, tsn);
+            long last = Math.max(lastTsn, tsn);
+            while (last - first >= slots.length) {
+                grow();
+            }
+            firstTsn = first;
+            lastTsn = last;
+        }
+        int index = index(tsn);
+        if (slots[index] == null) {
+            outstanding[index >>> 6] |= 1L << index;
+            size++;
+        }
+        slots[index] = sent;
+    }
+
+    /**
+     * @param tsn TSN of the chunk
+     * @return chunk in flight with the TSN, null if none
+     */
+    public BufferedSent get(long tsn) {
+        if (!covers(tsn)) {
+            return null;
+        }
+        return slots[index(tsn)];
+    }
+
+    /**
+     * @param tsn TSN of the acknowledged chunk
+     * @return removed chunk, null if it was not in flight
+     */
+    public BufferedSent remove(long tsn) {
+        if (!covers(tsn)) {
+            return null;
+        }
+        int index = index(tsn);
+        BufferedSent removed = slots[index];
+        if (removed == null) {
+            return null;
+        }
+        slots[index] = null;
+        outstanding[index >>> 6] &= ~(1L << index);
+        size--;
+        if (size == 0) {
+            return removed;
+        }
+        if (tsn == firstTsn) {
+            firstTsn = nextOutstanding(tsn + 1, lastTsn);
+        }
+        else if (tsn == lastTsn) {
+            lastTsn = previousOutstanding(tsn - 1);
+        }
+        return removed;
+    }
+
+    /**
+     * @param from lowest TSN to look at
+     * @param to highest TSN to look at
+     * @return lowest TSN in flight within the range, -1 if none
+     */
+    public long nextOutstanding(long from, long to) {
+        if (size == 0) {
+            return -1;
+        }
+        long tsn = Math.max(from, firstTsn);
+        long end = Math.min(to, lastTsn);
+        while (tsn <= end) {
+            int index = index(tsn);
+            long word = outstanding[index >>> 6] >>> index;
+            if (word != 0) {
+                tsn += Long.numberOfTrailingZeros(word);
+                return tsn <= end ? tsn : -1;
+            }
+            tsn += Long.SIZE - (index & 63);
+        }
+        return -1;
+    }
+
+    /**
+     * Only called within the covered range, which has a chunk at the lowest TSN
+     */
+    private long previousOutstanding(long from) {
+        long tsn = from;
+        while (true) {
+            int index = index(tsn);
+            long word = outstanding[index >>> 6] << (63 - (index & 63));
+            if (word != 0) {
+                return tsn - Long.numberOfLeadingZeros(word);
+            }
+            tsn -= (index & 63) + 1;
+        }
+    }
+
+    /**
+     * @return lowest outstanding chunk, null if empty
+     */
+    public BufferedSent first() {
+        return size == 0 ? null : slots[index(firstTsn)];
+    }
+
+    public long getFirstTsn() {
+        return firstTsn;
+    }
+
+    public long getLastTsn() {
+        return lastTsn;
+    }
+
+    /**
+     * @param tsn TSN to check
+     * @return whether the TSN is between the lowest and highest in flight
+     */
+    public boolean covers(long tsn) {
+        return size > 0 && tsn >= firstTsn && tsn <= lastTsn;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param action called for the chunks in flight in TSN order
+     */
+    public void forEach(Consumer<BufferedSent> action) {
+        for (long tsn = nextOutstanding(firstTsn, lastTsn); tsn >= 0; tsn = nextOutstanding(tsn + 1, lastTsn)) {
+            action.accept(slots[index(tsn)]);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(slots, null);
+        Arrays.fill(outstanding, 0);
+        size = 0;
+    }
+
+    private int index(long tsn) {
+        return (int) (tsn & mask);
+    }
+
+    private void grow() {
+        BufferedSent[] old = slots;
+        slots = new BufferedSent[old.length << 1];
+        outstanding = new long[slots.length / Long.SIZE];
+        mask = slots.length - 1;
+        if (size > 0) {
+            for (long tsn = firstTsn; tsn <= lastTsn; tsn++) {
+                BufferedSent sent = old[(int) (tsn & (old.length - 1))];
+                if (sent != null) {
+                    int index = index(tsn);
+                    slots[index] = sent;
+                    outstanding[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InFlightRing{" +
+                "size=" + size +
+                ", firstTsn=" + (size > 0 ? firstTsn : -1) +
+                ", lastTsn=" + (size > 0 ? lastTsn : -1) +
+                '}';
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.webrtc.DataChannelType;
+import com.bitbreeds.webrtc.model.webrtc.ReliabilityParameters;
+
+import java.time.LocalDateTime;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * When a message may be abandoned instead of retransmitted
+ * <a href="https://tools.ietf.org/html/rfc3758#section-3.5">rfc3758 sender side</a>
+ * <a href="https://tools.ietf.org/html/draft-ietf-rtcweb-data-channel-13#section-6.1">data channel reliability</a>
+ */
+public class PartialReliability {
+
+    public static final PartialReliability RELIABLE = new PartialReliability(-1, -1);
+
+    /**
+     * Retransmissions allowed, negative for no limit
+     */
+    private final int maxRetransmits;
+
+    /**
+     * Time from buffering until the message is abandoned, negative for no limit
+     */
+    private final long lifetimeMillis;
+
+    private PartialReliability(int maxRetransmits, long lifetimeMillis) {
+        this.maxRetransmits = maxRetransmits;
+        this.lifetimeMillis = lifetimeMillis;
+    }
+
+    public static PartialReliability maxRetransmits(int maxRetransmits) {
+        return new PartialReliability(maxRetransmits, -1);
+    }
+
+    public static PartialReliability lifetime(long lifetimeMillis) {
+        return new PartialReliability(-1, lifetimeMillis);
+    }
+
+    /**
+     * @param parameters from the DCEP OPEN of the channel, may be null
+     * @return reliability the channel asked for
+     */
+    public static PartialReliability fromChannel(ReliabilityParameters parameters) {
+        if (parameters == null) {
+            return RELIABLE;
+        }
+        DataChannelType type = parameters.getType();
+        switch (type) {
+            case DATA_CHANNEL_PARTIAL_RELIABLE_REXMIT:
+            case DATA_CHANNEL_PARTIAL_RELIABLE_REXMIT_UNORDERED:
+                return maxRetransmits(parameters.getParameter());
+            case DATA_CHANNEL_PARTIAL_RELIABLE_TIMED:
+            case DATA_CHANNEL_PARTIAL_RELIABLE_TIMED_UNORDERED:
+                return lifetime(parameters.getParameter());
+            default:
+                return RELIABLE;
+        }
+    }
+
+    public boolean isReliable() {
+        return maxRetransmits < 0 && lifetimeMillis < 0;
+    }
+
+    /**
+     * @param retransmissions times the chunk was already retransmitted
+     * @param bufferedTime when the message was buffered
+     * @param now current time
+     * @return whether to abandon the chunk instead of sending it again
+     */
+    public boolean shouldAbandon(int retransmissions, LocalDateTime bufferedTime, LocalDateTime now) {
+        if (maxRetransmits >= 0 && retransmissions >= maxRetransmits) {
+            return true;
+        }
+        return expired(bufferedTime, now);
+    }
+
+    /**
+     * @param bufferedTime when the message was buffered
+     * @param now current time
+     * @return whether the lifetime has passed, so the chunk is not worth sending at all
+     */
+    public boolean expired(LocalDateTime bufferedTime, LocalDateTime now) {
+        return lifetimeMillis >= 0 && bufferedTime != null && bufferedTime.plusNanos(lifetimeMillis * 1000000L).isBefore(now);
+    }
+
+    @Override
+    public String toString() {
+        return "PartialReliability{" +
+                "maxRetransmits=" + maxRetransmits +
+                ", lifetimeMillis=" + lifetimeMillis +
+                '}';
+    }
+
+}
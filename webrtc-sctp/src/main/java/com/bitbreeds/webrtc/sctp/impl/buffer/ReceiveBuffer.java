@@ -2,6 +2,7 @@ package com.bitbreeds.webrtc.sctp.impl.buffer;
 
 import com.bitbreeds.webrtc.model.sctp.SackUtil;
 import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.SlabAllocator;
 import com.bitbreeds.webrtc.model.webrtc.Deliverable;
 import com.bitbreeds.webrtc.sctp.impl.model.ReceivedData;
 import org.slf4j.Logger;
@@ -58,7 +59,21 @@ public class ReceiveBuffer {
 
     private Map<Integer,Integer> orderedStreams = new HashMap<>();
 
+    /**
+     * Fragments of I-DATA messages not yet delivered, by stream, U bit and message identifier
+     */
+    private final Map<Long,FragmentedMessage> interleaved = new HashMap<>();
+
+    /**
+     * Holds received payloads off heap until they are delivered
+     */
+    private final SlabAllocator allocator;
+
     public ReceiveBuffer(int bufferSize,int capacity) {
+        this(bufferSize,capacity,SlabAllocator.shared());
+    }
+
+    public ReceiveBuffer(int bufferSize,int capacity,SlabAllocator allocator) {
         if(bufferSize <= 0) {
             throw new IllegalArgumentException("Buffer must be above 0, is " + bufferSize);
         }
@@ -71,6 +86,7 @@ public class ReceiveBuffer {
         this.maxReceivedTSN = -1;
         this.lowestDelivered = -1;
         this.duplicates = new ArrayList<>();
+        this.allocator = allocator;
     }
 
     /**
@@ -132,10 +148,14 @@ public class ReceiveBuffer {
                 logger.info("{} was a duplicate, ignore",data.getTSN());
             }
             else if(old == null || old.canBeOverwritten()) {
-                buffer[position] = new BufferedReceived(data, ReceiveBufferedState.RECEIVED,DeliveredState.READY);
+                buffer[position] = new BufferedReceived(data.storeIn(allocator), ReceiveBufferedState.RECEIVED,DeliveredState.READY);
+                if(data.isInterleaved() && data.getFlag().isFragmented()) {
+                    interleaved.computeIfAbsent(messageKey(data), i -> new FragmentedMessage())
+                            .add(data.getFragmentSequence(), data.getTSN(), data.getFlag().isEnd());
+                }
                 this.maxReceivedTSN = Math.max(this.maxReceivedTSN,data.getTSN());
-                this.capacity -= data.getPayload().length;
-                this.receivedBytes += data.getPayload().length;
+                this.capacity -= data.getPayloadLength();
+                this.receivedBytes += data.getPayloadLength();
             }
             else if(data.getTSN() == old.getData().getTSN()){
                 duplicates.add(data.getTSN());
@@ -177,6 +197,148 @@ public class ReceiveBuffer {
     }
 
 
+    /**
+     * The peer abandoned everything up to the new cumulative TSN.
+     * Fragments of messages that can no longer complete are dropped, ordered streams
+     * skip the abandoned sequence numbers. A SACK should be sent in response.
+     *
+     * @param forwardTsn received FORWARD TSN
+     * @see <a href="https://tools.ietf.org/html/rfc3758#section-3.6">rfc3758 receiver side</a>
+     */
+    public void receiveForwardTsn(ForwardTsn forwardTsn) {
+        long newCumulativeTSN = forwardTsn.getNewCumulativeTSN();
+        synchronized (lock) {
+            if(newCumulativeTSN <= cumulativeTSN) {
+                logger.debug("Forward TSN {} is not ahead of {}", newCumulativeTSN, cumulativeTSN);
+                return;
+            }
+            if(newCumulativeTSN - cumulativeTSN > buffer.length) {
+                throw new IllegalArgumentException("Forward TSN " + newCumulativeTSN + " is not in the expected range");
+            }
+
+            for (long tsn = lowestDelivered + 1; tsn <= newCumulativeTSN; tsn++) {
+                BufferedReceived bf = getStored(tsn);
+                if (bf != null && !bf.isDelivered()
+                        && bf.getData().getFlag().isFragmented() && !completeMessage(tsn)) {
+                    if (bf.getData().isInterleaved()) {
+                        dropMessage(messageKey(bf.getData()));
+                    }
+                    else {
+                        dropFragment(tsn, bf);
+                    }
+                }
+            }
+
+            /*
+             * I-DATA fragments of abandoned messages may sit above the new cumulative TSN
+             */
+            forwardTsn.getStreamSequences().forEach((stream, messageId) ->
+                    dropIncomplete(messageKey(stream, false, messageId)));
+            forwardTsn.getUnorderedMessages().forEach((stream, messageId) ->
+                    dropIncomplete(messageKey(stream, true, messageId)));
+
+            for (long tsn = cumulativeTSN + 1; tsn <= newCumulativeTSN; tsn++) {
+                BufferedReceived bf = getStored(tsn);
+                if (bf != null) {
+                    setBuffered(tsn, bf.finish());
+                }
+            }
+            this.cumulativeTSN = newCumulativeTSN;
+            this.maxReceivedTSN = Math.max(maxReceivedTSN, newCumulativeTSN);
+
+            /*
+             * Nothing at or below the new cumulative TSN waits for a missing chunk any more
+             */
+            while (lowestDelivered < newCumulativeTSN) {
+                BufferedReceived bf = getStored(lowestDelivered + 1);
+                if (bf != null && !bf.isDelivered()) {
+                    break;
+                }
+                lowestDelivered++;
+            }
+
+            forwardTsn.getStreamSequences().forEach((stream, sequence) ->
+                    orderedStreams.merge(stream, sequence + 1, Math::max));
+        }
+    }
+
+    private void dropFragment(long tsn, BufferedReceived bf) {
+        this.capacity += bf.getData().getPayloadLength();
+        bf.getData().release();
+        setBuffered(tsn, bf.finish().deliver());
+    }
+
+    private void dropIncomplete(long key) {
+        FragmentedMessage message = interleaved.get(key);
+        if (message != null && !message.isComplete()) {
+            dropMessage(key);
+        }
+    }
+
+    /**
+     * Drop every received fragment of an I-DATA message, the fragments still count as received
+     */
+    private void dropMessage(long key) {
+        FragmentedMessage message = interleaved.remove(key);
+        if (message == null) {
+            return;
+        }
+        for (long tsn : message.getTsns()) {
+            BufferedReceived bf = getStored(tsn);
+            if (bf != null && !bf.isDelivered()) {
+                this.capacity += bf.getData().getPayloadLength();
+                bf.getData().release();
+                setBuffered(tsn, bf.deliver());
+            }
+        }
+    }
+
+    private static long messageKey(ReceivedData data) {
+        return messageKey(data.getStreamId(), data.getFlag().isUnordered(), data.getStreamSequence());
+    }
+
+    private static long messageKey(int stream, boolean unordered, int messageId) {
+        return ((long) stream << 33) | (unordered ? 1L << 32 : 0) | (messageId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param tsn TSN to look up
+     * @return buffered data for exactly this TSN that is still in use, null otherwise
+     */
+    private BufferedReceived getStored(long tsn) {
+        BufferedReceived bf = getBuffered(tsn);
+        if (bf == null || bf.canBeOverwritten() || bf.getData().getTSN() != tsn) {
+            return null;
+        }
+        return bf;
+    }
+
+    /**
+     * @param tsn TSN of a fragment
+     * @return whether every fragment of its message is buffered
+     */
+    private boolean completeMessage(long tsn) {
+        ReceivedData data = getStored(tsn).getData();
+        if (data.isInterleaved()) {
+            FragmentedMessage message = interleaved.get(messageKey(data));
+            return message != null && message.isComplete();
+        }
+        long start = tsn;
+        BufferedReceived bf = getStored(start);
+        while (bf != null && !bf.getData().getFlag().isStart()) {
+            bf = getStored(--start);
+        }
+        if (bf == null) {
+            return false;
+        }
+        long end = tsn;
+        bf = getStored(end);
+        while (bf != null && !bf.getData().getFlag().isEnd()) {
+            bf = getStored(++end);
+        }
+        return bf != null;
+    }
+
     /**
      * @return get messages for next layer
      */
@@ -195,7 +357,7 @@ public class ReceiveBuffer {
                                     1,
                                     bf.getData().getStreamId(),
                                     bf.getData().getProtocolId()));
-                            setBuffered(tsn, bf.deliver());
+                            markDelivered(tsn, bf);
                         } else {
                             if (bf.getData().getFlag().isStart()) {
                                 finishFragment(bf)
@@ -207,13 +369,15 @@ public class ReceiveBuffer {
                             receiveUnfragmentedBuffered(bf)
                                     .ifPresent(deliverable -> {
                                         dl.add(deliverable);
-                                        setBuffered(tsn, bf.deliver());
                                     });
                         } else {
                             if (bf.getData().getFlag().isStart()) {
                                 if (nextInStream(bf.getData())) {
                                     finishFragment(bf)
-                                            .ifPresent(dl::add);
+                                            .ifPresent(deliverable -> {
+                                                orderedStreams.put(bf.getData().getStreamId(),bf.getData().getStreamSequence()+1);
+                                                dl.add(deliverable);
+                                            });
                                 }
                             }
                         }
@@ -249,30 +413,31 @@ public class ReceiveBuffer {
      */
     private Optional<Deliverable> receiveUnfragmentedBuffered(BufferedReceived buffered) {
         if(nextInStream(buffered.getData())) {
-            setBuffered(buffered.getData().getTSN(), buffered.deliver());
             orderedStreams.put(buffered.getData().getStreamId(),buffered.getData().getStreamSequence()+1);
-            return Optional.of(new Deliverable(
+            Deliverable deliverable = new Deliverable(
                     buffered.getData().getPayload(),
                     1,
                     buffered.getData().getStreamId(),
-                    buffered.getData().getProtocolId()));
+                    buffered.getData().getProtocolId());
+            markDelivered(buffered.getData().getTSN(), buffered);
+            return Optional.of(deliverable);
         }
         return Optional.empty();
     }
 
     /**
      *
-     * Update lowest deliverable, so we can use it for calc later
+     * Update lowest deliverable, so we can use it for calc later.
+     * Interleaved messages are delivered out of TSN order, so move past every delivered TSN.
      * @param deliverables current deliverables
      */
     private void updateLowestDelivered(List<Deliverable> deliverables) {
-        int fragments = deliverables.stream()
-                .map(Deliverable::getOriginalFragmentNumber)
-                .reduce(0,Integer::sum);
-
-        for (int i = 1; i <= fragments; i++) {
-            BufferedReceived vf = getBuffered(lowestDelivered + i);
-            if (vf != null && vf.isDelivered()) {
+        if (deliverables.isEmpty()) {
+            return;
+        }
+        while (lowestDelivered < maxReceivedTSN) {
+            BufferedReceived vf = getBuffered(lowestDelivered + 1);
+            if (vf != null && vf.isDelivered() && vf.getData().getTSN() == lowestDelivered + 1) {
                 lowestDelivered++;
             } else {
                 break;
@@ -361,11 +526,33 @@ public class ReceiveBuffer {
 
 
     private void setDelivered(List<Long> tsns) {
-        tsns.forEach(dlTsn -> {
-                    BufferedReceived xs = getBuffered(dlTsn);
-                    setBuffered(dlTsn,xs.deliver());
+        tsns.forEach(dlTsn -> markDelivered(dlTsn,getBuffered(dlTsn)));
+    }
+
+    /**
+     * Mark as delivered and free the payload, the entry is kept for TSN tracking
+     *
+     * @param tsn to mark
+     * @param buffered data for tsn
+     */
+    private void markDelivered(long tsn,BufferedReceived buffered) {
+        buffered.getData().release();
+        setBuffered(tsn,buffered.deliver());
+    }
+
+    /**
+     * Drop everything buffered and give back its memory, used when the association closes.
+     */
+    public void clear() {
+        synchronized (lock) {
+            for (int i = 0; i < buffer.length; i++) {
+                if (buffer[i] != null) {
+                    buffer[i].getData().release();
+                    buffer[i] = null;
                 }
-        );
+            }
+            interleaved.clear();
+        }
     }
 
     private Deliverable fromTsns(List<Long> tsns) {
@@ -395,6 +582,18 @@ public class ReceiveBuffer {
         if(!start.getData().getFlag().isStart()) {
             return Optional.empty();
         }
+        else if(start.getData().isInterleaved()) {
+            long key = messageKey(start.getData());
+            FragmentedMessage message = interleaved.get(key);
+            if(message == null || !message.isComplete()) {
+                return Optional.empty();
+            }
+            interleaved.remove(key);
+            List<Long> tsns = message.getTsns();
+            Deliverable del = fromTsns(tsns);
+            setDelivered(tsns);
+            return Optional.of(del);
+        }
         else {
             long tsn = start.getData().getTSN();
             List<Long> good = new ArrayList<>();
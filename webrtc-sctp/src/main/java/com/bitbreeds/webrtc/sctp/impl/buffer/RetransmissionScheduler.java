@@ -1,11 +1,9 @@
 package com.bitbreeds.webrtc.sctp.impl.buffer;
 
+import com.bitbreeds.webrtc.common.HashedWheelTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -31,17 +29,20 @@ public class RetransmissionScheduler {
     private final AtomicReference<RetransmissionTimeout> timeout =
             new AtomicReference<>(RetransmissionTimeout.initial());
 
-    private final ScheduledExecutorService scheduler;
-    private final AtomicReference<ScheduledFuture<?>> current = new AtomicReference<>();
+    private final HashedWheelTimer timer;
+    private final AtomicReference<HashedWheelTimer.Timeout> current = new AtomicReference<>();
 
     private final Runnable retransmit;
 
+    /**
+     * @param retransmit action run on the shared timer thread when the timer expires
+     */
     public RetransmissionScheduler(Runnable retransmit) {
-        this.scheduler = Executors.newScheduledThreadPool(1,r -> {
-            Thread t = Executors.defaultThreadFactory().newThread(r);
-            t.setDaemon(true);
-            return t;
-        });
+        this(HashedWheelTimer.shared(), retransmit);
+    }
+
+    public RetransmissionScheduler(HashedWheelTimer timer, Runnable retransmit) {
+        this.timer = timer;
         this.retransmit = retransmit;
     }
 
@@ -74,18 +75,18 @@ public class RetransmissionScheduler {
     }
 
     public void stop() {
-        ScheduledFuture<?> toCancel = current.getAndSet(null);
+        HashedWheelTimer.Timeout toCancel = current.getAndSet(null);
         logger.debug("Attempting stop of {}",toCancel);
         if(toCancel != null) {
-            toCancel.cancel(false);
+            toCancel.cancel();
             logger.debug("Performed stop of {}",toCancel);
         }
     }
 
-    private ScheduledFuture<?> createScheduler(ScheduledFuture<?> existing,Runnable action) {
-        if(existing == null) {
+    private HashedWheelTimer.Timeout createScheduler(HashedWheelTimer.Timeout existing, Runnable action) {
+        if(existing == null || existing.isExpired()) {
             logger.debug("Scheduling timer with time {}",timeout.get().getRetransmissionTimeoutMillis());
-            return scheduler.schedule(
+            return timer.schedule(
                     action,
                     timeout.get().getRetransmissionTimeoutMillis(),
                     TimeUnit.MILLISECONDS);
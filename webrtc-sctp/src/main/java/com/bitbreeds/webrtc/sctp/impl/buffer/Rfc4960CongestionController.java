@@ -0,0 +1,153 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Loss based congestion control for one association, with one destination address
+ * <a href="https://tools.ietf.org/html/rfc4960#section-7.2">SCTP congestion control</a>
+ *
+ * Slow start while cwnd is at or below ssthresh, congestion avoidance above it.
+ * Fast retransmit halves the window once per loss event, fast recovery lasts until the
+ * cumulative TSN passes the highest TSN outstanding when it started.
+ * T3 expiry collapses the window to one MTU.
+ *
+ * Not thread safe, the owning {@link SendBuffer} calls it under its lock.
+ */
+public class Rfc4960CongestionController implements CongestionController {
+
+    private int mtu;
+    private long cwnd;
+    private long ssthresh;
+    private long partialBytesAcked = 0;
+
+    private boolean inFastRecovery = false;
+    private long fastRecoveryExit;
+
+    /**
+     * @param mtu largest packet we send
+     * @param peerReceiveWindow a_rwnd from INIT/INIT ACK, the initial ssthresh
+     */
+    public Rfc4960CongestionController(int mtu, long peerReceiveWindow) {
+        this.mtu = mtu;
+        this.cwnd = initialWindow(mtu);
+        this.ssthresh = peerReceiveWindow;
+    }
+
+    /**
+     * rfc4960 section 7.2.1
+     */
+    static long initialWindow(int mtu) {
+        return Math.min(4L * mtu, Math.max(2L * mtu, 4380));
+    }
+
+    /**
+     * The window is kept, only growth and the floors taken on loss follow the new size
+     */
+    @Override
+    public void setMtu(int mtu) {
+        this.mtu = mtu;
+    }
+
+    @Override
+    public boolean canSend(long flightSize) {
+        return flightSize < cwnd;
+    }
+
+    @Override
+    public long burstLimit() {
+        return (long) MAX_BURST * mtu;
+    }
+
+    @Override
+    public void onSack(long cumulativeTSN, long bytesAcked, long flightBefore, boolean cumulativeAdvanced) {
+        if (inFastRecovery && cumulativeTSN >= fastRecoveryExit) {
+            inFastRecovery = false;
+        }
+        if (!cumulativeAdvanced || inFastRecovery || bytesAcked == 0) {
+            return;
+        }
+        boolean fullyUsed = flightBefore >= cwnd;
+        if (cwnd <= ssthresh) {
+            if (fullyUsed) {
+                cwnd += Math.min(bytesAcked, mtu);
+            }
+        } else {
+            partialBytesAcked += bytesAcked;
+            if (partialBytesAcked >= cwnd && fullyUsed) {
+                partialBytesAcked -= cwnd;
+                cwnd += mtu;
+            }
+        }
+    }
+
+    /**
+     * rfc4960 section 7.2.2
+     */
+    @Override
+    public void onAllAcked() {
+        partialBytesAcked = 0;
+    }
+
+    /**
+     * rfc4960 section 7.2.4
+     */
+    @Override
+    public void onFastRetransmit(long highestOutstanding) {
+        if (inFastRecovery) {
+            return;
+        }
+        ssthresh = Math.max(cwnd / 2, 4L * mtu);
+        cwnd = ssthresh;
+        partialBytesAcked = 0;
+        inFastRecovery = true;
+        fastRecoveryExit = highestOutstanding;
+    }
+
+    /**
+     * rfc4960 section 7.2.3
+     */
+    @Override
+    public void onRetransmissionTimeout() {
+        ssthresh = Math.max(cwnd / 2, 4L * mtu);
+        cwnd = mtu;
+        partialBytesAcked = 0;
+        inFastRecovery = false;
+    }
+
+    @Override
+    public long getCwnd() {
+        return cwnd;
+    }
+
+    public long getSsthresh() {
+        return ssthresh;
+    }
+
+    public int getMtu() {
+        return mtu;
+    }
+
+    @Override
+    public String toString() {
+        return "Rfc4960CongestionController{" +
+                "cwnd=" + cwnd +
+                ", ssthresh=" + ssthresh +
+                ", partialBytesAcked=" + partialBytesAcked +
+                ", inFastRecovery=" + inFastRecovery +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Round robin over the streams with queued messages, one message each turn, rfc8260 section 3.2.
+ */
+public class RoundRobinScheduler implements StreamScheduler {
+
+    private final Deque<Integer> ready = new ArrayDeque<>();
+
+    @Override
+    public void onMessageQueued(int stream, int bytes) {
+        if (!ready.contains(stream)) {
+            ready.add(stream);
+        }
+    }
+
+    @Override
+    public int select() {
+        return ready.element();
+    }
+
+    @Override
+    public void onMessageDequeued(int stream, int bytes, boolean moreQueued) {
+        ready.remove(stream);
+        if (moreQueued) {
+            ready.add(stream);
+        }
+    }
+
+}
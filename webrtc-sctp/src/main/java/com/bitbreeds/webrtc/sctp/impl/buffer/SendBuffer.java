@@ -1,12 +1,18 @@
 package com.bitbreeds.webrtc.sctp.impl.buffer;
 
+import com.bitbreeds.webrtc.common.SlabAllocator;
 import com.bitbreeds.webrtc.model.sctp.GapAck;
+import com.bitbreeds.webrtc.model.webrtc.DataChannelPriority;
+import com.bitbreeds.webrtc.sctp.impl.PacketBundler;
 import com.bitbreeds.webrtc.sctp.impl.model.SendData;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
 
 /*
  * Copyright (c) 19/02/2018, Jonas Waage
@@ -27,14 +33,16 @@ import java.util.stream.Collectors;
 /**
  * Buffer to store SCTP messages sent
  * <a href="https://tools.ietf.org/html/rfc4960#section-6.2.1">SCTP sack</a>
- * <a href="https://tools.ietf.org/html/rfc2581#section-4.2">TCP congestion control</a>
+ * <a href="https://tools.ietf.org/html/rfc4960#section-7.2">SCTP congestion control</a>
  *
  * Buffer for sent messages
  * Responsibilities:
- * - Assigning TSN
+ * - Assigning TSN, when a chunk leaves the queue
+ * - Choosing the stream to send from with a {@link StreamScheduler}
  * - Ensuring we have a finite send buffer
- * - Ensuring we overhold max inflight
+ * - Ensuring bytes in flight stay within the {@link CongestionController} and the peer receive window
  * - Ensure resend if message is never acked
+ * - Tracking bytes buffered per stream, so senders can wait for room instead of overflowing the buffer
  *
  */
 public class SendBuffer {
@@ -43,20 +51,75 @@ public class SendBuffer {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final Queue<BufferedSent> queue = new ArrayDeque<>();
-    private Map<Long,BufferedSent> inFlight = new HashMap<>();
+    private final StreamScheduler scheduler;
+    private final SendQueue queue;
+    private final InFlightRing inFlight = new InFlightRing(INITIAL_INFLIGHT_SLOTS);
 
-    private final static int DEFAULT_MAX_INFLIGHT = 5;
+    private final static int INITIAL_INFLIGHT_SLOTS = 256;
+
+    /**
+     * No limit on the number of chunks, the congestion window decides
+     */
+    private final static int DEFAULT_MAX_INFLIGHT = Integer.MAX_VALUE;
     private final int maxInflight;
 
+    private final static int DEFAULT_MTU = PacketBundler.DEFAULT_MAX_PACKET_SIZE;
+
+    /**
+     * Current path MTU, sizes the congestion window and the packet resent on T3-rtx
+     */
+    private int mtu = DEFAULT_MTU;
+
+    /**
+     * Common header of the packet the chunks are bundled in
+     */
+    private final static int COMMON_HEADER = 12;
+
+    private final CongestionControllerFactory congestionControl;
+    private CongestionController congestion;
+
+    /**
+     * Bytes of chunks sent and not yet acknowledged
+     */
+    private long flightSize = 0;
+
+    /**
+     * Chunks marked for retransmission when T3-rtx expired, sent before any new data
+     */
+    private int markedForRetransmit = 0;
+
+    /**
+     * User data bytes that may still be buffered, space is reserved before the message is fragmented
+     */
     private int capacity;
 
+    /**
+     * Peer receive window, last a_rwnd minus what was sent since
+     */
     private long remoteBufferSize;
     private long remoteCumulativeTSN;
+    private long nextTsn;
     private boolean remoteIsInitialized = false;
 
     private long bytesSent = 0;
 
+    /**
+     * User data bytes per stream queued or in flight, until acknowledged or dropped
+     */
+    private final Map<Integer,Long> bufferedAmount = new HashMap<>();
+    private final Map<Integer,Long> lowThresholds = new HashMap<>();
+
+    /**
+     * Streams that fell to their low threshold, the listener is called outside the lock
+     */
+    private final List<Integer> bufferedAmountLow = new ArrayList<>();
+    private volatile IntConsumer bufferedAmountLowListener = i -> {};
+
+    /**
+     * Holds buffered chunks off heap until they are acknowledged
+     */
+    private final SlabAllocator allocator;
+
     public SendBuffer(int capacity) {
         this(capacity,DEFAULT_MAX_INFLIGHT);
     }
@@ -64,26 +127,87 @@ public class SendBuffer {
     public SendBuffer(
             int capacity,
             int maxInflight
+    ) {
+        this(capacity,maxInflight,SlabAllocator.shared());
+    }
+
+    public SendBuffer(
+            int capacity,
+            int maxInflight,
+            SlabAllocator allocator
+    ) {
+        this(capacity,maxInflight,allocator,CongestionControllerFactory.RFC4960);
+    }
+
+    public SendBuffer(int capacity, CongestionControllerFactory congestionControl) {
+        this(capacity,congestionControl,StreamSchedulerFactory.FCFS);
+    }
+
+    public SendBuffer(
+            int capacity,
+            CongestionControllerFactory congestionControl,
+            StreamSchedulerFactory streamScheduler
+    ) {
+        this(capacity,DEFAULT_MAX_INFLIGHT,SlabAllocator.shared(),congestionControl,streamScheduler);
+    }
+
+    public SendBuffer(
+            int capacity,
+            int maxInflight,
+            SlabAllocator allocator,
+            CongestionControllerFactory congestionControl
+    ) {
+        this(capacity,maxInflight,allocator,congestionControl,StreamSchedulerFactory.FCFS);
+    }
+
+    public SendBuffer(
+            int capacity,
+            int maxInflight,
+            SlabAllocator allocator,
+            CongestionControllerFactory congestionControl,
+            StreamSchedulerFactory streamScheduler
     ) {
         if(capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be above 0, is " + capacity);
         }
         this.maxInflight = maxInflight;
         this.capacity = capacity;
+        this.allocator = allocator;
+        this.congestionControl = congestionControl;
+        this.scheduler = streamScheduler.create();
+        this.queue = new SendQueue(scheduler);
     }
 
 
-    public void initializeRemote(int remoteBufferSize, long remoteCumulativeTSN) {
+    /**
+     * @param remoteBufferSize a_rwnd of the peer
+     * @param initialTSN TSN of the first chunk sent
+     */
+    public void initializeRemote(int remoteBufferSize, long initialTSN) {
         synchronized (lock) {
             if (!remoteIsInitialized) {
                 this.remoteBufferSize = remoteBufferSize;
-                this.remoteCumulativeTSN = remoteCumulativeTSN;
+                this.nextTsn = initialTSN;
+                this.remoteCumulativeTSN = initialTSN - 1;
+                this.congestion = congestionControl.create(mtu, remoteBufferSize);
                 this.remoteIsInitialized = true;
             }
         }
     }
 
 
+    /**
+     * @param mtu path MTU found by probing, or the base size after a black hole
+     */
+    public void setMtu(int mtu) {
+        synchronized (lock) {
+            this.mtu = mtu;
+            if (congestion != null) {
+                congestion.setMtu(mtu);
+            }
+        }
+    }
+
     public long getCapacity() {
         return capacity;
     }
@@ -96,6 +220,79 @@ public class SendBuffer {
         return bytesSent;
     }
 
+    public long getFlightSize() {
+        synchronized (lock) {
+            return flightSize;
+        }
+    }
+
+    public long getCongestionWindow() {
+        synchronized (lock) {
+            return congestion != null ? congestion.getCwnd() : 0;
+        }
+    }
+
+    /**
+     * @return TSN the next chunk sent gets
+     */
+    public long getNextTsn() {
+        synchronized (lock) {
+            return nextTsn;
+        }
+    }
+
+    /**
+     * Set before the first message is buffered
+     *
+     * @param interleaving whether I-DATA is used, so fragments of messages on different streams may interleave
+     */
+    public void setInterleaving(boolean interleaving) {
+        synchronized (lock) {
+            queue.setInterleaving(interleaving);
+        }
+    }
+
+    /**
+     * @param stream stream to prioritize
+     * @param priority priority of the data channel on the stream
+     */
+    public void setPriority(int stream, DataChannelPriority priority) {
+        synchronized (lock) {
+            scheduler.setPriority(stream, priority);
+        }
+    }
+
+    /**
+     * @param stream stream to check
+     * @return user data bytes of the stream queued or in flight, not yet acknowledged or dropped
+     */
+    public long getBufferedAmount(int stream) {
+        synchronized (lock) {
+            return bufferedAmount.getOrDefault(stream, 0L);
+        }
+    }
+
+    /**
+     * @param stream stream to watch
+     * @param threshold the listener is called when the buffered amount of the stream falls from above to at or below this
+     */
+    public void setBufferedAmountLowThreshold(int stream, long threshold) {
+        synchronized (lock) {
+            if (threshold == 0) {
+                lowThresholds.remove(stream);
+            } else {
+                lowThresholds.put(stream, threshold);
+            }
+        }
+    }
+
+    /**
+     * @param listener called with the stream when its buffered amount falls to or below its threshold
+     */
+    public void setBufferedAmountLowListener(IntConsumer listener) {
+        this.bufferedAmountLowListener = listener;
+    }
+
 
     /**
      *
@@ -104,18 +301,66 @@ public class SendBuffer {
      * @param messages data to store
      */
     public void buffer(List<SendData> messages) {
+        buffer(messages,PartialReliability.RELIABLE);
+    }
+
+    /**
+     *
+     * Buffer a message that may be abandoned instead of retransmitted
+     *
+     * @param messages all chunks of one message
+     * @param reliability when the chunks of the message may be abandoned
+     */
+    public void buffer(List<SendData> messages, PartialReliability reliability) {
+        reserve(messages.stream().mapToInt(SendData::getPayloadLength).sum());
+        bufferReserved(messages, reliability);
+    }
+
+    /**
+     * Take buffer space for a message before it is created, so a full buffer is reported
+     * to the sender while the rest of the work happens on the association thread.
+     *
+     * @param size bytes of user data in the message
+     * @throws OutOfBufferSpaceError if the message does not fit
+     */
+    public void reserve(int size) {
         if(!remoteIsInitialized) {
             throw new InitialMessageNotReceived("Initial SCTP message not received yet, no initial TSN");
         }
         synchronized (lock) {
-            messages.forEach( data -> {
-                if (capacity - data.getSctpPayload().length < 0) {
-                    throw new OutOfBufferSpaceError("Send buffer has capacity " + capacity +
-                            " message with size "+ data.getSctpPayload().length +" was dropped");
-                }
-                capacity -= data.getSctpPayload().length;
-                queue.add(BufferedSent.buffer(data, data.getTsn()));
-            });
+            if (capacity - size < 0) {
+                throw new OutOfBufferSpaceError("Send buffer has capacity " + capacity +
+                        " message with size "+ size +" was dropped");
+            }
+            capacity -= size;
+        }
+    }
+
+    /**
+     * @param size bytes reserved for a message that will not be buffered after all
+     */
+    public void cancelReservation(int size) {
+        synchronized (lock) {
+            capacity += size;
+        }
+    }
+
+    /**
+     * Buffer a message that space was reserved for with {@link #reserve(int)}
+     *
+     * @param messages all chunks of one message
+     * @param reliability when the chunks of the message may be abandoned
+     */
+    public void bufferReserved(List<SendData> messages, PartialReliability reliability) {
+        synchronized (lock) {
+            messages.forEach(data ->
+                bufferedAmount.merge(data.getStreamId(), (long) data.getPayloadLength(), Long::sum)
+            );
+            List<BufferedSent> message = new ArrayList<>(messages.size());
+            messages.forEach( data ->
+                message.add(BufferedSent.buffer(data.storeIn(allocator), data.getTsn(), reliability))
+            );
+            queue.add(message);
             logger.debug("After buffering inflight:" + inFlight + " queue: " + queue.size());
         }
     }
@@ -134,60 +379,100 @@ public class SendBuffer {
      * @return fastresend data
      */
     public SackResult receiveSack(SackData sack) {
+        SackResult result = handleSack(sack);
+        notifyBufferedAmountLow();
+        return result;
+    }
+
+    private SackResult handleSack(SackData sack) {
         synchronized (lock) {
             logger.debug("Handling sack {} with inflight {} and cumTSN {}", sack,inFlight,remoteCumulativeTSN);
             if(sack.getCumulativeTSN() >= remoteCumulativeTSN) {
-                boolean updatedCumTSN = sack.getCumulativeTSN() >= remoteCumulativeTSN;
+                boolean updatedCumTSN = sack.getCumulativeTSN() > remoteCumulativeTSN;
 
-                remoteBufferSize = sack.getBufferLeft();
                 remoteCumulativeTSN = sack.getCumulativeTSN();
 
-                List<BufferedSent> acked = inFlight.values().stream()
-                        .filter(i -> acknowledged(sack, i))
-                        .collect(Collectors.toList());
-
-                long size = acked.stream()
-                        .map(i -> i.getData().getSctpPayload().length)
-                        .reduce(0, Integer::sum);
-
-                List<Long> tsns = acked.stream()
-                        .map(BufferedSent::getTsn)
-                        .collect(Collectors.toList());
-
-                capacity += size;
-
-                inFlight.keySet().removeAll(tsns);
+                long flightBefore = flightSize;
+                long bytesAcked = 0;
+                boolean cumulativeAdvanced = false;
+                LocalDateTime lastSampleSend = null;
 
-                List<GapAck> gapAcks = sack.getTsns();
-                if(!gapAcks.isEmpty()) {
-                    GapAck ack = gapAcks.get(gapAcks.size()-1);
+                List<BufferedSent> acked = new ArrayList<>();
+                long cumulativeTSN = sack.getCumulativeTSN();
+                while (!inFlight.isEmpty() && inFlight.getFirstTsn() <= cumulativeTSN) {
+                    acked.add(inFlight.remove(inFlight.getFirstTsn()));
+                    cumulativeAdvanced = true;
+                }
 
-                    Long largest = sack.getCumulativeTSN()+ack.end;
+                /*
+                 * One pass over the gap blocks, chunks inside a block are acknowledged,
+                 * chunks between blocks get a miss indication and those with enough are fast retransmitted.
+                 */
+                List<BufferedSent> fastMarked = new ArrayList<>();
+                LocalDateTime now = LocalDateTime.now();
+                long next = cumulativeTSN + 1;
+                for (GapAck gap : sack.getTsns()) {
+                    long start = Math.max(cumulativeTSN + gap.start, next);
+                    long end = cumulativeTSN + gap.end;
+                    for (long tsn = inFlight.nextOutstanding(next, start - 1); tsn >= 0;
+                         tsn = inFlight.nextOutstanding(tsn + 1, start - 1)) {
+                        BufferedSent marked = inFlight.get(tsn);
+                        if (!marked.isSent()) {
+                            continue; //Abandoned, or resent anyway
+                        }
+                        marked = marked.markFast();
+                        inFlight.put(marked);
+                        if (marked.canFastResend()) {
+                            if (marked.shouldAbandon(now)) {
+                                abandon(marked);
+                            }
+                            else {
+                                fastMarked.add(marked);
+                            }
+                        }
+                    }
+                    for (long tsn = inFlight.nextOutstanding(start, end); tsn >= 0;
+                         tsn = inFlight.nextOutstanding(tsn + 1, end)) {
+                        acked.add(inFlight.remove(tsn));
+                    }
+                    next = Math.max(next, end + 1);
+                }
 
-                    List<Long> fastAck = inFlight.keySet().stream()
-                            .filter(i -> i < largest).collect(Collectors.toList());
+                long bytesFreed = 0;
+                for (BufferedSent sent : acked) {
+                    bytesFreed += sent.getData().getPayloadLength();
+                    released(sent.getData());
+                    sent.getData().release();
+                    if (sent.isMarkedForRetransmit()) {
+                        markedForRetransmit--;
+                    }
+                    if (!sent.isSent()) {
+                        continue; //Abandoned or marked for retransmission, already out of the flight
+                    }
+                    if (!sent.isRetransmitted() &&
+                            (lastSampleSend == null || sent.getLastSendTime().isAfter(lastSampleSend))) {
+                        lastSampleSend = sent.getLastSendTime();
+                    }
+                    bytesAcked += sent.getData().getChunkLength();
+                }
 
-                    List<BufferedSent> marked = fastAck.stream()
-                            .map(fast -> inFlight.get(fast))
-                            .map(BufferedSent::markFast)
-                            .collect(Collectors.toList());
+                capacity += bytesFreed;
+                flightSize -= bytesAcked;
+                remoteBufferSize = Math.max(0, sack.getBufferLeft() - flightSize);
 
-                    Optional<BufferedSent> resend = marked.stream()
-                            .filter(BufferedSent::canFastResend)
-                            .min(BufferedSent::compareTo);
+                if (lastSampleSend != null) {
+                    congestion.onRttSample(Duration.between(lastSampleSend, LocalDateTime.now()).toNanos());
+                }
 
-                    List<BufferedSent> resendList = resend
-                            .map(BufferedSent::fastResend)
-                            .map(Collections::singletonList)
-                            .orElse(Collections.emptyList());
+                markAppLimited();
+                congestion.onSack(cumulativeTSN, bytesAcked, flightBefore, cumulativeAdvanced);
+                if (flightSize == 0 && markedForRetransmit == 0) {
+                    congestion.onAllAcked();
+                }
 
-                    marked.forEach(
-                            i->inFlight.put(i.getTsn(),i)
-                    );
-                    resendList.forEach(
-                            i->inFlight.put(i.getTsn(),i)
-                    );
-                    return new SackResult(resendList,updatedCumTSN);
+                if (!fastMarked.isEmpty()) {
+                    congestion.onFastRetransmit(inFlight.getLastTsn());
+                    return new SackResult(fastRetransmit(fastMarked),updatedCumTSN);
                 }
 
                 logger.debug("After Sack inflight:" + inFlight + " queue: " + queue.size());
@@ -200,39 +485,42 @@ public class SendBuffer {
         return new SackResult(Collections.emptyList(),false);
     }
 
-    private boolean acknowledged(SackData data,BufferedSent inFlight) {
-        return data.getCumulativeTSN() >= inFlight.getTsn() ||
-                inGapAck(data.getCumulativeTSN(),data.getTsns(),inFlight.getTsn());
-    }
-
-
-    private boolean inGapAck(Long cumulativeTSN,List<GapAck> acks,long inflightTSN) {
-        return acks.stream()
-                .reduce(false,
-                        (a,b) -> b.inRange(inflightTSN-cumulativeTSN),
-                        (a,b) -> a || b);
-    }
-
     /**
      *
-     * Move messages to inflight
+     * Move messages to inflight, at most Max.Burst packets worth at a time.
+     * Chunks marked for retransmission go first, new data waits until they are all resent.
      *
      * @return messages to put on wire
      */
     public List<BufferedSent> getDataToSend() {
         ArrayList<BufferedSent> toSend = new ArrayList<>();
         synchronized (lock) {
-            while (!queue.isEmpty() && canFly(queue.element())) {
-                BufferedSent buff = queue.remove();
-                BufferedSent sent = buff.send();
-                inFlight.put(buff.getTsn(), sent);
+            long burst = resendMarked(congestion.burstLimit(), toSend);
+            LocalDateTime now = LocalDateTime.now();
+            while (markedForRetransmit == 0 && !queue.isEmpty() && burst < congestion.burstLimit()) {
+                BufferedSent next = queue.peek();
+                if (isMessageStart(next) && next.isExpired(now)) {
+                    drop(queue.pollMessage());
+                    continue;
+                }
+                if (!canFly(next)) {
+                    break;
+                }
+                BufferedSent buff = queue.poll();
+                BufferedSent sent = buff.assignTsn(nextTsn++).send();
+                inFlight.put(sent);
                 toSend.add(sent);
+
+                int length = sent.getData().getChunkLength();
+                burst += length;
+                flightSize += length;
+                remoteBufferSize = Math.max(0, remoteBufferSize - length);
             }
-            bytesSent += toSend.stream()
-                    .map(i->i.getData().getSctpPayload().length)
-                    .reduce(0,Integer::sum);
+            markAppLimited();
+            bytesSent += burst;
             logger.debug("After getting messages to send inflight:" + inFlight + " queue: " + queue.size());
         }
+        notifyBufferedAmountLow();
 
         return toSend;
     }
@@ -241,33 +529,276 @@ public class SendBuffer {
 
 
     /**
-     * Pull earliest message for retransmission
+     * Tell the controller when the queue runs dry, delivery then measures the sender and not the path
+     */
+    private void markAppLimited() {
+        if (queue.isEmpty() && markedForRetransmit == 0) {
+            congestion.onAppLimited();
+        }
+    }
+
+    /**
+     * Called when T3-rtx expires. Every outstanding chunk is marked for retransmission and taken
+     * out of the flight, and the earliest that fit in one packet are resent,
+     * the rest follow as the congestion window allows, rfc4960 section 6.3.3 and 7.2.3.
+     * Chunks that have used up their reliability are abandoned on the way.
      *
-     * @return first message based on TSN which is in flight.
+     * @return earliest chunks not abandoned, that fit in one packet
      */
     public List<BufferedSent> getDataToRetransmit() {
+        List<BufferedSent> resend = retransmit();
+        notifyBufferedAmountLow();
+        return resend;
+    }
+
+    private List<BufferedSent> retransmit() {
         synchronized (lock) {
+            if (inFlight.isEmpty()) {
+                return Collections.emptyList();
+            }
+            congestion.onRetransmissionTimeout();
+
+            LocalDateTime now = LocalDateTime.now();
+            long last = inFlight.getLastTsn();
+            for (long tsn = inFlight.nextOutstanding(inFlight.getFirstTsn(), last); tsn >= 0;
+                 tsn = inFlight.nextOutstanding(tsn + 1, last)) {
+                BufferedSent sent = inFlight.get(tsn);
+                if (sent.isAbandoned()) {
+                    continue;
+                }
+                if (sent.shouldAbandon(now)) {
+                    abandon(sent);
+                    continue;
+                }
+                if (sent.isSent()) {
+                    flightSize -= sent.getData().getChunkLength();
+                    inFlight.put(sent.markForRetransmit());
+                    markedForRetransmit++;
+                }
+            }
 
-            List<BufferedSent> bufferedSents = inFlight.values().stream()
-                    .min(BufferedSent::compareTo)
-                    .map(Collections::singletonList)
-                    .orElse(Collections.emptyList());
+            List<BufferedSent> toSend = new ArrayList<>();
+            resendMarked(mtu - COMMON_HEADER, toSend);
+            return toSend;
+        }
+    }
+
+    /**
+     * The earliest chunks that fit in one packet are resent right away,
+     * the rest are taken out of the flight and resent as the window allows, rfc4960 section 7.2.4
+     *
+     * @param fastMarked chunks with enough miss indications, in TSN order
+     * @return chunks to resend now
+     */
+    private List<BufferedSent> fastRetransmit(List<BufferedSent> fastMarked) {
+        List<BufferedSent> toSend = new ArrayList<>();
+        long bytes = 0;
+        boolean full = false;
+        for (BufferedSent marked : fastMarked) {
+            int length = marked.getData().getChunkLength();
+            full = full || (!toSend.isEmpty() && bytes + length > mtu - COMMON_HEADER);
+            if (full) {
+                flightSize -= length;
+                inFlight.put(marked.markForFastRetransmit());
+                markedForRetransmit++;
+            }
+            else {
+                BufferedSent resend = marked.fastResend();
+                inFlight.put(resend);
+                toSend.add(resend);
+                bytes += length;
+            }
+        }
+        return toSend;
+    }
 
+    /**
+     * Resend marked chunks in TSN order while the congestion window allows.
+     * One chunk may always be sent when nothing is in flight.
+     *
+     * @param limit most bytes of chunks to resend
+     * @param toSend collects the resent chunks
+     * @return bytes resent
+     */
+    private long resendMarked(long limit, List<BufferedSent> toSend) {
+        long bytes = 0;
+        if (markedForRetransmit == 0) {
+            return bytes;
+        }
+        long last = inFlight.getLastTsn();
+        for (long tsn = inFlight.nextOutstanding(inFlight.getFirstTsn(), last); tsn >= 0 && markedForRetransmit > 0;
+             tsn = inFlight.nextOutstanding(tsn + 1, last)) {
+            BufferedSent sent = inFlight.get(tsn);
+            if (!sent.isMarkedForRetransmit()) {
+                continue;
+            }
+            int length = sent.getData().getChunkLength();
+            if (flightSize > 0 && (bytes + length > limit || !congestion.canSend(flightSize))) {
+                break;
+            }
             //Mark number of resends and time
-            bufferedSents.forEach(i->
-                inFlight.computeIfPresent(i.getTsn(),(key,value) -> value.resend())
-            );
+            BufferedSent resent = sent.isMarkedForFastRetransmit() ? sent.fastResend() : sent.resend();
+            inFlight.put(resent);
+            toSend.add(resent);
+            markedForRetransmit--;
+            bytes += length;
+            flightSize += length;
+            remoteBufferSize = Math.max(0, remoteBufferSize - length);
+        }
+        return bytes;
+    }
+
+    /**
+     * The Advanced.Peer.Ack.Point moves past abandoned chunks at the front of the flight,
+     * chunks between them may already be gap acknowledged.
+     *
+     * @return FORWARD TSN to send, if abandoned chunks hold back the peers cumulative TSN
+     * @see <a href="https://tools.ietf.org/html/rfc3758#section-3.5">rfc3758 sender side</a>
+     */
+    public Optional<ForwardTsn> getForwardTsn() {
+        synchronized (lock) {
+            BufferedSent first = inFlight.first();
+            if (first == null || !first.isAbandoned()) {
+                return Optional.empty();
+            }
+            Map<Integer,Integer> streamSequences = new HashMap<>();
+            Map<Integer,Integer> unorderedMessages = new HashMap<>();
+            long last = inFlight.getLastTsn();
+            long tsn = inFlight.getFirstTsn();
+            while (tsn >= 0) {
+                BufferedSent sent = inFlight.get(tsn);
+                if (!sent.isAbandoned()) {
+                    break;
+                }
+                SendData data = sent.getData();
+                if (data.getFlags().isOrdered()) {
+                    streamSequences.merge(data.getStreamId(), data.getStreamSequence(), Math::max);
+                }
+                else if (data.getFlags().isFragmented()) {
+                    unorderedMessages.merge(data.getStreamId(), data.getStreamSequence(), Math::max);
+                }
+                tsn = inFlight.nextOutstanding(tsn + 1, last);
+            }
+            long advancedPeerAckPoint = tsn < 0 ? last : tsn - 1;
+            return Optional.of(new ForwardTsn(advancedPeerAckPoint, streamSequences, unorderedMessages));
+        }
+    }
+
+    /**
+     * Abandon the chunk and the other chunks of its message still in flight,
+     * chunks of the message not yet sent are dropped from the queue.
+     * With I-DATA the fragments need not have consecutive TSNs, so the whole flight is searched.
+     */
+    private void abandon(BufferedSent sent) {
+        abandonChunk(sent);
+        SendData data = sent.getData();
+        if (data.getFlags().isUnFragmented()) {
+            return;
+        }
+        long last = inFlight.getLastTsn();
+        for (long tsn = inFlight.nextOutstanding(inFlight.getFirstTsn(), last); tsn >= 0;
+             tsn = inFlight.nextOutstanding(tsn + 1, last)) {
+            BufferedSent other = inFlight.get(tsn);
+            if (sameMessage(data, other.getData())) {
+                abandonChunk(other);
+            }
+        }
+        drop(queue.dropRestOf(data.getStreamId(), data.getStreamSequence()));
+    }
 
-            return bufferedSents;
+    private void abandonChunk(BufferedSent sent) {
+        if (sent.isAbandoned()) {
+            return;
+        }
+        if (sent.isSent()) {
+            flightSize -= sent.getData().getChunkLength();
+        }
+        else if (sent.isMarkedForRetransmit()) {
+            markedForRetransmit--;
+        }
+        logger.debug("Abandoning TSN {}", sent.getTsn());
+        inFlight.put(sent.abandon());
+    }
+
+    /**
+     * Chunks dropped before they got a TSN, the peer never hears of them
+     */
+    private void drop(List<BufferedSent> chunks) {
+        for (BufferedSent chunk : chunks) {
+            logger.debug("Dropping unsent chunk on stream {}", chunk.getData().getStreamId());
+            capacity += chunk.getData().getPayloadLength();
+            released(chunk.getData());
+            chunk.getData().release();
         }
     }
 
     /**
-     * @return whether max inflight and remote buffer allows sending or not
+     * Take the user data of a chunk off its stream, note the stream if that brings it to its low threshold
+     */
+    private void released(SendData data) {
+        int stream = data.getStreamId();
+        long before = bufferedAmount.getOrDefault(stream, 0L);
+        long after = before - data.getPayloadLength();
+        if (after <= 0) {
+            bufferedAmount.remove(stream);
+        } else {
+            bufferedAmount.put(stream, after);
+        }
+        long threshold = lowThresholds.getOrDefault(stream, 0L);
+        if (before > threshold && after <= threshold && !bufferedAmountLow.contains(stream)) {
+            bufferedAmountLow.add(stream);
+        }
+    }
+
+    private void notifyBufferedAmountLow() {
+        List<Integer> streams;
+        synchronized (lock) {
+            if (bufferedAmountLow.isEmpty()) {
+                return;
+            }
+            streams = new ArrayList<>(bufferedAmountLow);
+            bufferedAmountLow.clear();
+        }
+        streams.forEach(bufferedAmountLowListener::accept);
+    }
+
+    private static boolean isMessageStart(BufferedSent chunk) {
+        SCTPOrderFlag flags = chunk.getData().getFlags();
+        return flags.isUnFragmented() || flags.isStart();
+    }
+
+    private static boolean sameMessage(SendData data, SendData other) {
+        return other.getFlags().isFragmented()
+                && data.getFlags().isOrdered() == other.getFlags().isOrdered()
+                && data.getStreamId() == other.getStreamId()
+                && data.getStreamSequence() == other.getStreamSequence();
+    }
+
+    /**
+     * Drop everything buffered and give back its memory, used when the association closes.
+     */
+    public void clear() {
+        synchronized (lock) {
+            queue.forEach(i -> i.getData().release());
+            inFlight.forEach(i -> i.getData().release());
+            queue.clear();
+            inFlight.clear();
+            bufferedAmount.clear();
+            bufferedAmountLow.clear();
+            flightSize = 0;
+            markedForRetransmit = 0;
+        }
+    }
+
+    /**
+     * One chunk may always be in flight when the peer window is closed, rfc4960 section 6.1 A
+     *
+     * @return whether congestion window and peer receive window allow sending or not
      */
     private boolean canFly(BufferedSent data) {
         return maxInflight - inFlight.size() > 0
-                && remoteBufferSize > data.getData().getSctpPayload().length;
+                && congestion.canSend(flightSize)
+                && (remoteBufferSize >= data.getData().getChunkLength() || flightSize == 0);
     }
 
 
@@ -16,5 +16,13 @@ package com.bitbreeds.webrtc.sctp.impl.buffer;
  * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
 public enum SendBufferedState {
-    STORED,SENT,ACKNOWLEDGED
+    STORED,SENT,ACKNOWLEDGED,ABANDONED,
+    /**
+     * Sent, then marked for retransmission when T3-rtx expired, not counted in flight until resent
+     */
+    RETRANSMIT,
+    /**
+     * Missed three times, but did not fit in the fast retransmit packet, not counted in flight until resent
+     */
+    FAST_RETRANSMIT
 }
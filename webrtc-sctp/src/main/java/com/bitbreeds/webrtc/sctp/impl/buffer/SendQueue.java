@@ -0,0 +1,210 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Chunks waiting to be sent, one queue per stream.
+ * <a href="https://tools.ietf.org/html/rfc8260#section-3">SCTP stream schedulers</a>
+ *
+ * The {@link StreamScheduler} picks the stream at each message boundary,
+ * all fragments of a message are taken before another stream gets a turn,
+ * so fragments get consecutive TSNs as rfc4960 section 6.9 requires.
+ * With I-DATA fragments of different messages may interleave, rfc8260 section 2,
+ * then every chunk is scheduled on its own and a large message no longer blocks other streams.
+ *
+ * Not thread safe, used under the send buffer lock.
+ */
+public class SendQueue {
+
+    private final StreamScheduler scheduler;
+
+    private final Map<Integer,Deque<BufferedSent>> streams = new HashMap<>();
+
+    /**
+     * Stream whose message is partly taken, -1 at a message boundary
+     */
+    private int current = -1;
+
+    /**
+     * Bytes taken of the current message
+     */
+    private int currentBytes = 0;
+
+    private int size = 0;
+
+    private boolean interleaving = false;
+
+    public SendQueue(StreamScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param interleaving whether chunks are I-DATA, so streams may switch inside a message
+     */
+    public void setInterleaving(boolean interleaving) {
+        if (this.interleaving == interleaving) {
+            return;
+        }
+        if (size > 0) {
+            throw new IllegalStateException("Interleaving can only change while nothing is queued");
+        }
+        this.interleaving = interleaving;
+    }
+
+    /**
+     * @param message all chunks of one message, in fragment order
+     */
+    public void add(List<BufferedSent> message) {
+        if (message.isEmpty()) {
+            return;
+        }
+        int stream = message.get(0).getData().getStreamId();
+        Deque<BufferedSent> queue = streams.computeIfAbsent(stream, i -> new ArrayDeque<>());
+        int bytes = 0;
+        for (BufferedSent chunk : message) {
+            queue.add(chunk);
+            bytes += chunk.getData().getChunkLength();
+            if (interleaving) {
+                scheduler.onMessageQueued(stream, chunk.getData().getChunkLength());
+            }
+        }
+        size += message.size();
+        if (!interleaving) {
+            scheduler.onMessageQueued(stream, bytes);
+        }
+    }
+
+    /**
+     * @return next chunk to send, or null if empty
+     */
+    public BufferedSent peek() {
+        if (size == 0) {
+            return null;
+        }
+        return streams.get(nextStream()).element();
+    }
+
+    /**
+     * @return next chunk to send, or null if empty
+     */
+    public BufferedSent poll() {
+        if (size == 0) {
+            return null;
+        }
+        return take(nextStream());
+    }
+
+    private BufferedSent take(int stream) {
+        Deque<BufferedSent> queue = streams.get(stream);
+        BufferedSent chunk = queue.remove();
+        size--;
+        if (interleaving) {
+            scheduler.onMessageDequeued(stream, chunk.getData().getChunkLength(), !queue.isEmpty());
+            return chunk;
+        }
+        currentBytes += chunk.getData().getChunkLength();
+        if (isLast(chunk)) {
+            finishMessage(stream, queue);
+        }
+        else {
+            current = stream;
+        }
+        return chunk;
+    }
+
+    /**
+     * @return the chunks left of the next message, removed from the queue
+     */
+    public List<BufferedSent> pollMessage() {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        return takeMessage(nextStream());
+    }
+
+    private List<BufferedSent> takeMessage(int stream) {
+        List<BufferedSent> message = new ArrayList<>();
+        BufferedSent chunk;
+        do {
+            chunk = take(stream);
+            message.add(chunk);
+        } while (!isLast(chunk));
+        return message;
+    }
+
+    /**
+     * Remove what is left of a message whose sent fragments were abandoned.
+     *
+     * @param stream stream of the message
+     * @param streamSequence stream sequence number of the message
+     * @return removed chunks, empty if the message is not partly taken
+     */
+    public List<BufferedSent> dropRestOf(int stream, int streamSequence) {
+        Deque<BufferedSent> queue = streams.get(stream);
+        if (queue == null || queue.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BufferedSent head = queue.element();
+        SCTPOrderFlag flags = head.getData().getFlags();
+        if (flags.isUnFragmented() || flags.isStart() || head.getData().getStreamSequence() != streamSequence) {
+            return Collections.emptyList();
+        }
+        return takeMessage(stream);
+    }
+
+    private int nextStream() {
+        return current >= 0 ? current : scheduler.select();
+    }
+
+    private void finishMessage(int stream, Deque<BufferedSent> queue) {
+        scheduler.onMessageDequeued(stream, currentBytes, !queue.isEmpty());
+        current = -1;
+        currentBytes = 0;
+    }
+
+    private static boolean isLast(BufferedSent chunk) {
+        SCTPOrderFlag flags = chunk.getData().getFlags();
+        return flags.isUnFragmented() || flags.isEnd();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Consumer<BufferedSent> consumer) {
+        streams.values().forEach(queue -> queue.forEach(consumer));
+    }
+
+    /**
+     * Drop all chunks, message by message so the scheduler stays in step
+     */
+    public void clear() {
+        while (!isEmpty()) {
+            pollMessage();
+        }
+    }
+
+}
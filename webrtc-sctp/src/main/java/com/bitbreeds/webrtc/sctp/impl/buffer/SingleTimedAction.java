@@ -1,6 +1,8 @@
 package com.bitbreeds.webrtc.sctp.impl.buffer;
 
-import java.util.concurrent.*;
+import com.bitbreeds.webrtc.common.HashedWheelTimer;
+
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -20,19 +22,22 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class SingleTimedAction {
 
-    private final ScheduledExecutorService scheduler;
-    private final AtomicReference<ScheduledFuture<?>> current = new AtomicReference<>();
+    private final HashedWheelTimer timer;
+    private final AtomicReference<HashedWheelTimer.Timeout> current = new AtomicReference<>();
 
     private final Runnable action;
     private final int millis;
 
+    /**
+     * @param retransmit action run on the shared timer thread
+     * @param millis delay before the action runs
+     */
     public SingleTimedAction(Runnable retransmit, int millis) {
-        this.scheduler = Executors.newScheduledThreadPool(1, r -> {
-            Thread t = Executors.defaultThreadFactory().newThread(r);
-            t.setDaemon(true);
-            return t;
-        });
+        this(HashedWheelTimer.shared(), retransmit, millis);
+    }
 
+    public SingleTimedAction(HashedWheelTimer timer, Runnable retransmit, int millis) {
+        this.timer = timer;
         this.action = retransmit;
         this.millis = millis;
     }
@@ -57,15 +62,15 @@ public class SingleTimedAction {
     }
 
     public void stop() {
-        ScheduledFuture<?> toCancel = current.getAndSet(null);
+        HashedWheelTimer.Timeout toCancel = current.getAndSet(null);
         if(toCancel != null) {
-            toCancel.cancel(false);
+            toCancel.cancel();
         }
     }
 
-    private ScheduledFuture<?> createScheduler(ScheduledFuture<?> existing,Runnable action) {
-        if(existing == null) {
-            return scheduler.schedule(
+    private HashedWheelTimer.Timeout createScheduler(HashedWheelTimer.Timeout existing, Runnable action) {
+        if(existing == null || existing.isExpired()) {
+            return timer.schedule(
                     action,
                     millis,
                     TimeUnit.MILLISECONDS);
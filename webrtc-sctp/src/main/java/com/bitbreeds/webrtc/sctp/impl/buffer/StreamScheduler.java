@@ -0,0 +1,62 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.webrtc.DataChannelPriority;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Picks which stream the next message is sent from, rfc8260 section 3.
+ *
+ * The {@link SendQueue} reports messages as they are queued and when the last
+ * fragment of a message leaves the queue, a stream is never preempted in the middle of a message.
+ * With I-DATA every chunk is reported as a message of its own, so streams interleave by fragment.
+ * Calls come under the send buffer lock, implementations need no synchronization of their own.
+ *
+ * @see FcfsScheduler
+ * @see RoundRobinScheduler
+ * @see WeightedFairScheduler
+ */
+public interface StreamScheduler {
+
+    /**
+     * @param stream stream the message was queued on
+     * @param bytes size of the message chunks
+     */
+    void onMessageQueued(int stream, int bytes);
+
+    /**
+     * Only called when a message is queued, must not change state.
+     *
+     * @return stream to take the next message from
+     */
+    int select();
+
+    /**
+     * @param stream stream the message left
+     * @param bytes size of the message chunks
+     * @param moreQueued whether the stream has more messages queued
+     */
+    void onMessageDequeued(int stream, int bytes, boolean moreQueued);
+
+    /**
+     * @param stream stream to prioritize
+     * @param priority priority from the data channel open message
+     */
+    default void setPriority(int stream, DataChannelPriority priority) {
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.webrtc.DataChannelPriority;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Weighted fair queueing, rfc8260 section 3.6, weighted by data channel priority.
+ *
+ * Start time fair queueing, each stream has a virtual start time that grows by
+ * bytes sent divided by its weight. The ready stream with the lowest start time is served next,
+ * so a stream with twice the weight gets twice the bytes while both have data queued.
+ * A stream that becomes ready starts at the current virtual time,
+ * it gets no credit for the time it was idle.
+ */
+public class WeightedFairScheduler implements StreamScheduler {
+
+    /**
+     * Weight of streams without a priority
+     */
+    private static final int DEFAULT_WEIGHT = DataChannelPriority.NORMAL.getPriority();
+
+    private final Map<Integer,Double> ready = new LinkedHashMap<>();
+    private final Map<Integer,Double> idleStart = new HashMap<>();
+    private final Map<Integer,Integer> weights = new HashMap<>();
+
+    private double virtualTime = 0;
+
+    @Override
+    public void onMessageQueued(int stream, int bytes) {
+        if (!ready.containsKey(stream)) {
+            double start = idleStart.getOrDefault(stream, 0.0);
+            idleStart.remove(stream);
+            ready.put(stream, Math.max(start, virtualTime));
+        }
+    }
+
+    @Override
+    public int select() {
+        int selected = -1;
+        double lowest = Double.MAX_VALUE;
+        for (Map.Entry<Integer,Double> entry : ready.entrySet()) {
+            if (entry.getValue() < lowest) {
+                lowest = entry.getValue();
+                selected = entry.getKey();
+            }
+        }
+        if (selected < 0) {
+            throw new IllegalStateException("No stream has queued messages");
+        }
+        return selected;
+    }
+
+    @Override
+    public void onMessageDequeued(int stream, int bytes, boolean moreQueued) {
+        double start = ready.remove(stream);
+        virtualTime = Math.max(virtualTime, start);
+        double next = start + (double) bytes / weights.getOrDefault(stream, DEFAULT_WEIGHT);
+        if (moreQueued) {
+            ready.put(stream, next);
+        }
+        else {
+            idleStart.put(stream, next);
+        }
+    }
+
+    @Override
+    public void setPriority(int stream, DataChannelPriority priority) {
+        if (DataChannelPriority.NOT_SET.equals(priority)) {
+            weights.remove(stream);
+        }
+        else {
+            weights.put(stream, priority.getPriority());
+        }
+    }
+
+}
@@ -16,6 +16,8 @@ package com.bitbreeds.webrtc.sctp.impl.model;
  * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
 
+import com.bitbreeds.webrtc.common.SlabAllocator;
+import com.bitbreeds.webrtc.common.SlabBytes;
 import com.bitbreeds.webrtc.sctp.impl.util.TSNUtil;
 import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
@@ -32,9 +34,12 @@ public class ReceivedData implements Comparable<ReceivedData> {
     private final long TSN;
     private final int streamId;
     private final int streamSequence;
+    private final long fragmentSequence;
     private final SCTPOrderFlag flags;
     private final SCTPPayloadProtocolId protocolId;
     private final byte[] payload;
+    private final SlabBytes stored;
+    private final int payloadLength;
 
     public ReceivedData(long TSN,
                         int streamId,
@@ -42,12 +47,64 @@ public class ReceivedData implements Comparable<ReceivedData> {
                         SCTPOrderFlag flags,
                         SCTPPayloadProtocolId protocolId,
                         byte[] payload) {
+        this(TSN,streamId,streamSequence,-1,flags,protocolId,payload);
+    }
+
+    /**
+     * Data from an I-DATA chunk, fragments are matched by message identifier
+     * and put together in fragment sequence number order.
+     *
+     * @param messageId message identifier, kept where DATA keeps the stream sequence number
+     * @param fragmentSequence fragment sequence number, 0 for the first fragment
+     */
+    public ReceivedData(long TSN,
+                        int streamId,
+                        int messageId,
+                        long fragmentSequence,
+                        SCTPOrderFlag flags,
+                        SCTPPayloadProtocolId protocolId,
+                        byte[] payload) {
         this.TSN = TSN;
         this.streamId = streamId;
-        this.streamSequence = streamSequence;
+        this.streamSequence = messageId;
+        this.fragmentSequence = fragmentSequence;
         this.flags = flags;
         this.protocolId = protocolId;
         this.payload = payload;
+        this.stored = null;
+        this.payloadLength = payload.length;
+    }
+
+    private ReceivedData(ReceivedData data, SlabBytes stored) {
+        this.TSN = data.TSN;
+        this.streamId = data.streamId;
+        this.streamSequence = data.streamSequence;
+        this.fragmentSequence = data.fragmentSequence;
+        this.flags = data.flags;
+        this.protocolId = data.protocolId;
+        this.payload = null;
+        this.stored = stored;
+        this.payloadLength = data.payloadLength;
+    }
+
+    /**
+     * @param allocator allocator to store the payload in
+     * @return copy with the payload off heap, must be released when delivered
+     */
+    public ReceivedData storeIn(SlabAllocator allocator) {
+        if (stored != null) {
+            return this;
+        }
+        return new ReceivedData(this, allocator.allocate(payload));
+    }
+
+    /**
+     * Give back off heap memory, the payload can not be read after this
+     */
+    public void release() {
+        if (stored != null) {
+            stored.release();
+        }
     }
 
     public long getTSN() {
@@ -62,6 +119,20 @@ public class ReceivedData implements Comparable<ReceivedData> {
         return streamSequence;
     }
 
+    /**
+     * @return whether the data came in an I-DATA chunk
+     */
+    public boolean isInterleaved() {
+        return fragmentSequence >= 0;
+    }
+
+    /**
+     * @return fragment sequence number of I-DATA, -1 for DATA
+     */
+    public long getFragmentSequence() {
+        return fragmentSequence;
+    }
+
     public SCTPOrderFlag getFlag() {
         return flags;
     }
@@ -70,8 +141,15 @@ public class ReceivedData implements Comparable<ReceivedData> {
         return protocolId;
     }
 
+    /**
+     * @return the payload, copied to the heap if stored off heap
+     */
     public byte[] getPayload() {
-        return payload;
+        return stored != null ? stored.toBytes() : payload;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
     }
 
     @Override
@@ -106,9 +184,10 @@ public class ReceivedData implements Comparable<ReceivedData> {
                 "TSN=" + TSN +
                 ", streamId=" + streamId +
                 ", streamSequence=" + streamSequence +
+                ", fragmentSequence=" + fragmentSequence +
                 ", flags=" + flags +
                 ", protocolId=" + protocolId +
-                ", payloadSize=" + payload.length +
+                ", payloadSize=" + payloadLength +
                 '}';
     }
 }
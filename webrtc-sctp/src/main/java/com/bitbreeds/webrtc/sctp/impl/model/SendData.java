@@ -1,5 +1,8 @@
 package com.bitbreeds.webrtc.sctp.impl.model;
 
+import com.bitbreeds.webrtc.common.ByteCursor;
+import com.bitbreeds.webrtc.common.SlabAllocator;
+import com.bitbreeds.webrtc.common.SlabBytes;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
 
@@ -26,16 +29,92 @@ public class SendData {
     private final int streamSequence;
     private final SCTPOrderFlag flags;
     private final SCTPPayloadProtocolId protocolId;
-    private final byte[] sctpPayload;
+    private final byte[] chunk;
+    private final SlabBytes stored;
+    private final int chunkLength;
+    private final int payloadLength;
     private final long tsn;
 
-    public SendData(long tsn,int streamId, int streamSequence, SCTPOrderFlag flags, SCTPPayloadProtocolId protocolId, byte[] payload) {
+    /**
+     * TSN follows the 4 byte chunk header
+     */
+    private static final int TSN_OFFSET = 4;
+
+    /**
+     * @param chunk the encoded DATA chunk, bundled into packets when sent, all of it counted as user data
+     */
+    public SendData(long tsn,int streamId, int streamSequence, SCTPOrderFlag flags, SCTPPayloadProtocolId protocolId, byte[] chunk) {
+        this(tsn, streamId, streamSequence, flags, protocolId, chunk, chunk.length);
+    }
+
+    /**
+     * @param chunk the encoded DATA chunk, bundled into packets when sent
+     * @param payloadLength bytes of user data in the chunk, without header and padding
+     */
+    public SendData(
+            long tsn,
+            int streamId,
+            int streamSequence,
+            SCTPOrderFlag flags,
+            SCTPPayloadProtocolId protocolId,
+            byte[] chunk,
+            int payloadLength) {
         this.tsn = tsn;
         this.streamId = streamId;
         this.streamSequence = streamSequence;
         this.flags = flags;
         this.protocolId = protocolId;
-        this.sctpPayload = payload;
+        this.chunk = chunk;
+        this.stored = null;
+        this.chunkLength = chunk.length;
+        this.payloadLength = payloadLength;
+    }
+
+    private SendData(SendData data, SlabBytes stored) {
+        this(data, stored, data.tsn);
+    }
+
+    private SendData(SendData data, SlabBytes stored, long tsn) {
+        this.tsn = tsn;
+        this.streamId = data.streamId;
+        this.streamSequence = data.streamSequence;
+        this.flags = data.flags;
+        this.protocolId = data.protocolId;
+        this.chunk = stored == null ? data.chunk : null;
+        this.stored = stored;
+        this.chunkLength = data.chunkLength;
+        this.payloadLength = data.payloadLength;
+    }
+
+    /**
+     * @param allocator allocator to store the chunk in
+     * @return copy with the chunk off heap, must be released when acknowledged
+     */
+    public SendData storeIn(SlabAllocator allocator) {
+        if (stored != null) {
+            return this;
+        }
+        return new SendData(this, allocator.allocate(chunk));
+    }
+
+    /**
+     * TSNs are assigned when a chunk leaves the send queue,
+     * so fragments of a message stay consecutive whatever order streams are served in.
+     *
+     * @param tsn transmission sequence number of the chunk
+     * @return copy sharing the chunk, written with the given TSN
+     */
+    public SendData withTsn(long tsn) {
+        return new SendData(this, stored, tsn);
+    }
+
+    /**
+     * Give back off heap memory, the chunk can not be read after this
+     */
+    public void release() {
+        if (stored != null) {
+            stored.release();
+        }
     }
 
     public long getTsn() {
@@ -46,6 +125,9 @@ public class SendData {
         return streamId;
     }
 
+    /**
+     * @return stream sequence number, or message identifier for I-DATA
+     */
     public int getStreamSequence() {
         return streamSequence;
     }
@@ -58,7 +140,23 @@ public class SendData {
         return protocolId;
     }
 
-    public byte[] getSctpPayload() {
-        return sctpPayload;
+    /**
+     * @return the encoded chunk, copied to the heap if stored off heap
+     */
+    public byte[] getChunk() {
+        byte[] out = stored != null ? stored.toBytes() : chunk;
+        ByteCursor.putInt(out, TSN_OFFSET, tsn);
+        return out;
+    }
+
+    public int getChunkLength() {
+        return chunkLength;
+    }
+
+    /**
+     * @return bytes of user data in the chunk
+     */
+    public int getPayloadLength() {
+        return payloadLength;
     }
 }
@@ -3,9 +3,6 @@ package com.bitbreeds.webrtc.sctp.impl.util;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.sctp.impl.SCTPContext;
 import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
-import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Copyright (c) 21/07/16, Jonas Waage
@@ -29,39 +26,20 @@ import org.slf4j.LoggerFactory;
  */
 public class SCTPUtil {
 
-    private final static Logger logger = LoggerFactory.getLogger(SCTPUtil.class);
-
-    /**
-     * @param message with checksum set to 0
-     * @return Message with computed checksum.
-     */
-    public static SCTPMessage addChecksum(SCTPMessage message) {
-        byte[] bt = message.toBytes();
-
-        SCTPHeader csumHdr = new SCTPHeader(
-                message.getHeader().getDestinationPort(),
-                message.getHeader().getSourcePort(),
-                message.getHeader().getVerificationTag(),
-                SignalUtil.computeCRC32c(bt));
-
-        SCTPMessage csumMsg = new SCTPMessage(csumHdr, message.getChunks());
-        logger.debug("Output before encode: " + csumMsg );
-        return csumMsg;
-    }
-
-
     /**
      * Commom header with 0d out checksum as it should be before it is computed.
      *
      * TBH this feels like a bunch of crap, why can one not just append the freaking checksum to
      * the end of the message or something.
      *
+     * The context holds the ports as seen in the received INIT, so they are swapped here.
+     *
      * @return common sctp header
      */
     public static SCTPHeader baseHeader(SCTPContext context) {
         return new SCTPHeader(
-                context.getSourcePort(),
                 context.getDestPort(),
+                context.getSourcePort(),
                 SignalUtil.bytesToLong(context.getInitiateTag()),
                 0);
     }
@@ -1,5 +1,6 @@
 package com.bitbreeds.webrtc.sctp.model;
 
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import org.apache.commons.codec.binary.Hex;
 
@@ -41,11 +42,20 @@ public class SCTPAttribute {
     }
 
     public byte[] toBytes() {
-        return SignalUtil.padToMultipleOfFour(SignalUtil.joinBytesArrays(
-                type.toBytes(),
-                SignalUtil.twoBytesFromInt(getLength()),
-                data
-                ));
+        ByteCursor out = ByteCursor.wrap(new byte[SignalUtil.multipleOfFour(getLength())]);
+        writeTo(out);
+        return out.array();
+    }
+
+    /**
+     * @param out cursor to write this attribute to, padded to a multiple of four
+     */
+    public void writeTo(ByteCursor out) {
+        int start = out.position();
+        out.writeShort(type.getNr())
+                .writeShort(getLength())
+                .writeBytes(data)
+                .padFrom(start);
     }
 
     @Override
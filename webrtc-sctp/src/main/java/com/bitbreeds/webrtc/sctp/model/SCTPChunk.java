@@ -1,7 +1,6 @@
 package com.bitbreeds.webrtc.sctp.model;
 
-import com.bitbreeds.webrtc.common.ByteRange;
-import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.ByteCursor;
 import org.apache.commons.codec.binary.Hex;
 
 import java.util.*;
@@ -75,31 +74,31 @@ public class SCTPChunk {
      * @return byterepresentation of chunk padded with 0s to length multiple of four.
      */
     public byte[] toBytes() {
+        if(type.isNoVarTypes() && !variable.isEmpty()){
+            throw new IllegalStateException("No varible size fields allowed for chunk " + type);
+        }
 
-        List<byte[]> fixedBytes = new ArrayList<>();
+        int size = 4;
         for(SCTPFixedAttributeType t: type.getFixedTypes()) {
-            fixedBytes.add( fixed.get(t).getData() );
+            size += fixed.get(t).getData().length;
         }
-
-        final List<byte[]> nonFixed = new ArrayList<>();
-        variable.values().stream().forEach(i -> {
-            nonFixed.add(i.toBytes());
-        });
-
-        if(type.isNoVarTypes() && nonFixed.size() > 0){
-            throw new IllegalStateException("No varible size fields allowed for chunk " + type);
+        for(SCTPAttribute attribute: variable.values()) {
+            size += multipleOfFour(attribute.getLength());
         }
+        size += rest.length;
 
-        return SignalUtil.padToMultipleOfFour(
-                SignalUtil.joinBytesArrays(
-                        type.toBytes(),
-                        new byte[] {flags.getByteRep()},
-                        twoBytesFromInt(length),
-                        SignalUtil.joinBytesArrays(fixedBytes),
-                        SignalUtil.joinBytesArrays(nonFixed),
-                        rest
-                )
-        );
+        ByteCursor out = ByteCursor.wrap(new byte[multipleOfFour(size)])
+                .writeByte(type.getNr())
+                .writeByte(flags.getByteRep())
+                .writeShort(length);
+        for(SCTPFixedAttributeType t: type.getFixedTypes()) {
+            out.writeBytes(fixed.get(t).getData());
+        }
+        for(SCTPAttribute attribute: variable.values()) {
+            attribute.writeTo(out);
+        }
+        out.writeBytes(rest);
+        return out.padFrom(0).array();
     }
 
 
@@ -114,42 +113,33 @@ public class SCTPChunk {
                     + " length: " + bytes.length + "  data:" + Hex.encodeHexString(bytes));
         }
 
-        SCTPMessageType type = SCTPMessageType.fromByte(bytes[0]);
+        ByteCursor in = ByteCursor.wrap(bytes);
+        SCTPMessageType type = SCTPMessageType.fromByte((byte) in.readUnsignedByte());
 
-        int flags = SignalUtil.unsign(bytes[1]);
-        int length = SignalUtil.intFromTwoBytes(Arrays.copyOfRange(bytes,2,4));
+        int flags = in.readUnsignedByte() & 7; //Bits above U, B and E are not used here, like the I bit of rfc7053
+        int length = in.readUnsignedShort();
 
         Map<SCTPFixedAttributeType,SCTPFixedAttribute> fixedAttr = new HashMap<>();
-
-        ByteRange range = SignalUtil.range(4,4);
         for(SCTPFixedAttributeType t:type.getFixedTypes()) {
-            range = range.lengthFromA(t.getLgt());
-            byte[] data = copyRange(bytes,range);
-            fixedAttr.put(t, new SCTPFixedAttribute(t,data) );
-            range = range.plus(t.getLgt());
+            fixedAttr.put(t, new SCTPFixedAttribute(t,in.readBytes(t.getLgt())));
         }
 
         Map<SCTPAttributeType,SCTPAttribute> varAttr = new HashMap<>();
 
         byte[] rest = new byte[] {};
         if(type.isNoVarTypes()) {
-            range = range.lengthFromA(length-range.getA());
-            rest = SignalUtil.copyRange(bytes,range);
+            rest = in.readBytes(length-in.position());
         }
         else {
-            while (bytes.length > range.getB()) {
-                range = range.lengthFromA(2);
-                SCTPAttributeType tp = SCTPAttributeType.fromInt(
-                        intFromTwoBytes(copyRange(bytes, range)));
-                range = range.plus(2);
+            while (in.remaining() >= 4) {
+                int start = in.position();
+                SCTPAttributeType tp = SCTPAttributeType.fromInt(in.readUnsignedShort());
 
-                int lgt = intFromTwoBytes(copyRange(bytes, range));
+                int lgt = in.readUnsignedShort();
                 lgt = Math.max(lgt - 4, 0); //Lgt data includes type and lenght fields, subtract lgt and type to get data portion
 
-                range = range.plus(2).lengthFromA(lgt);
-
-                byte[] data = copyRange(bytes, range);
-                range = range.plus(multipleOfFour(lgt));
+                byte[] data = in.readBytes(lgt);
+                in.alignFrom(start);
                 varAttr.put(tp, new SCTPAttribute(tp, data));
             }
         }
@@ -34,7 +34,11 @@ public enum SCTPFixedAttributeType {
     TSN(4),
     CUMULATIVE_TSN_ACK(4),
     NUM_GAP_BLOCKS(2),
-    NUM_DUPLICATE(2);
+    NUM_DUPLICATE(2),
+    NEW_CUMULATIVE_TSN(4),
+    RESERVED(2),
+    MESSAGE_IDENTIFIER(4),
+    PPID_OR_FSN(4);
 
     /**
      * Length in bytes
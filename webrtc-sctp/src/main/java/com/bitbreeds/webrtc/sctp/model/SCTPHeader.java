@@ -1,10 +1,8 @@
 package com.bitbreeds.webrtc.sctp.model;
 
-import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.ByteCursor;
 import org.apache.commons.codec.binary.Hex;
 
-import java.util.Arrays;
-
 /**
  * Copyright (c) 17/05/16, Jonas Waage
  * <p>
@@ -45,11 +43,12 @@ public class SCTPHeader {
     }
 
     public byte[] toBytes() {
-        return SignalUtil.joinBytesArrays(
-                SignalUtil.twoBytesFromInt(sourcePort),
-                SignalUtil.twoBytesFromInt(sourcePort),
-                SignalUtil.longToFourBytes(verificationTag),
-                SignalUtil.flipBytes(SignalUtil.longToFourBytes(checksum)));
+        return ByteCursor.wrap(new byte[12])
+                .writeShort(sourcePort)
+                .writeShort(destinationPort)
+                .writeInt(verificationTag)
+                .writeInt(Long.reverseBytes(checksum) >>> 32)
+                .array();
     }
 
     public static SCTPHeader fromBytes(byte[] bytes) {
@@ -57,11 +56,12 @@ public class SCTPHeader {
             throw new IllegalArgumentException("Bytes given are incorrect length to be an SCTP header: "
                     + " length: " + bytes.length + "  data:" + Hex.encodeHexString(bytes));
         }
+        ByteCursor in = ByteCursor.wrap(bytes);
         return new SCTPHeader(
-                SignalUtil.intFromTwoBytes(Arrays.copyOf(bytes,2)),
-                SignalUtil.intFromTwoBytes(Arrays.copyOfRange(bytes,2,4)),
-                SignalUtil.bytesToLong(Arrays.copyOfRange(bytes,4,8)),
-                SignalUtil.bytesToLong(Arrays.copyOfRange(bytes,8,12))
+                in.readUnsignedShort(),
+                in.readUnsignedShort(),
+                in.readUnsignedInt(),
+                in.readUnsignedInt()
         );
     }
 
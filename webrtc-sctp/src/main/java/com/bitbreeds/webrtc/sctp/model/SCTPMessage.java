@@ -38,22 +38,35 @@ public class SCTPMessage {
     }
 
     public static SCTPMessage fromBytes(byte[] bytes) {
-        SCTPHeader hdr = SCTPHeader.fromBytes(Arrays.copyOfRange(bytes,0,12));
-        List<SCTPChunk> chunks = new ArrayList<>();
+        return fromBytes(bytes, 0, bytes.length);
+    }
 
-        int initial = 12;
-        //while(bytes.length > initial) {
-        SCTPChunk chunk = SCTPChunk.fromBytes(Arrays.copyOfRange(bytes,initial,bytes.length));
-        chunks.add(chunk);
+    /**
+     * @param bytes array holding the message
+     * @param offset start of the message
+     * @param length length of the message
+     * @return parsed message
+     */
+    public static SCTPMessage fromBytes(byte[] bytes, int offset, int length) {
+        if(length < 16) {
+            throw new IllegalArgumentException("Bytes given are to short to be an SCTP message: " + length);
+        }
+        int end = offset + length;
+        SCTPHeader hdr = SCTPHeader.fromBytes(Arrays.copyOfRange(bytes,offset,offset+12));
+        List<SCTPChunk> chunks = new ArrayList<>();
 
-        initial = initial + SignalUtil.multipleOfFour(chunk.getLength());
-        while(initial < bytes.length) {
-            chunk = SCTPChunk.fromBytes(Arrays.copyOfRange(bytes,initial,bytes.length));
-            if(chunk.getLength() < 1) {
+        int initial = offset + 12;
+        while(end - initial >= 4) {
+            int chunkLength = (SignalUtil.unsign(bytes[initial+2]) << 8) | SignalUtil.unsign(bytes[initial+3]);
+            if(chunkLength < 4) {
                 break; //Must brake if
             }
-            chunks.add(chunk);
-            initial = initial + SignalUtil.multipleOfFour(chunk.getLength());
+            /*
+             * Copy only this chunk, not the rest of the message
+             */
+            int chunkEnd = Math.min(end, initial + SignalUtil.multipleOfFour(chunkLength));
+            chunks.add(SCTPChunk.fromBytes(Arrays.copyOfRange(bytes,initial,chunkEnd)));
+            initial = initial + SignalUtil.multipleOfFour(chunkLength);
         }
 
         return new SCTPMessage(hdr,chunks);
@@ -4,6 +4,7 @@ import com.bitbreeds.webrtc.common.SignalUtil;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -75,7 +76,40 @@ public enum SCTPMessageType {
     COOKIE_ECHO(10,new ArrayList<>(),true),
     COOKIE_ACK(11,new ArrayList<>(),true),
     CWR(13,new ArrayList<>(),true),
-    SHUTDOWN_COMPLETE(14,new ArrayList<>(),true);
+    SHUTDOWN_COMPLETE(14,new ArrayList<>(),true),
+
+    /**
+     * DATA with a 32 bit message identifier and a fragment sequence number,
+     * fragments of different messages may interleave. The last field is the
+     * payload protocol identifier on the first fragment, and the fragment sequence number on the rest.
+     * @see <a href="https://tools.ietf.org/html/rfc8260#section-2.1">rfc8260 I-DATA</a>
+     */
+    I_DATA(64,Arrays.asList(
+            SCTPFixedAttributeType.TSN,
+            SCTPFixedAttributeType.STREAM_IDENTIFIER_S,
+            SCTPFixedAttributeType.RESERVED,
+            SCTPFixedAttributeType.MESSAGE_IDENTIFIER,
+            SCTPFixedAttributeType.PPID_OR_FSN),
+            true
+    ),
+
+    /**
+     * Padding, used to size path MTU probes
+     * @see <a href="https://tools.ietf.org/html/rfc4820">rfc4820</a>
+     */
+    PAD(132,new ArrayList<>(),true),
+
+    /**
+     * Moves the peers cumulative TSN past abandoned DATA, the rest holds stream and sequence number pairs
+     * @see <a href="https://tools.ietf.org/html/rfc3758#section-3.2">rfc3758 FORWARD TSN</a>
+     */
+    FORWARD_TSN(192,Collections.singletonList(SCTPFixedAttributeType.NEW_CUMULATIVE_TSN),true),
+
+    /**
+     * FORWARD TSN used with I-DATA, the rest holds stream, unordered flag and message identifier
+     * @see <a href="https://tools.ietf.org/html/rfc8260#section-2.3">rfc8260 I-FORWARD-TSN</a>
+     */
+    I_FORWARD_TSN(194,Collections.singletonList(SCTPFixedAttributeType.NEW_CUMULATIVE_TSN),true);
 
     /**
      * Message identifier
@@ -119,11 +153,21 @@ public enum SCTPMessageType {
         return new byte[] {SignalUtil.sign(nr)};
     }
 
+    /**
+     * Types by their unsigned byte value
+     */
+    private static final SCTPMessageType[] BY_NR = new SCTPMessageType[256];
+    static {
+        Arrays.fill(BY_NR, NOT_KNOWN);
+        for (SCTPMessageType type : values()) {
+            if (type.nr >= 0) {
+                BY_NR[type.nr] = type;
+            }
+        }
+    }
+
     public static SCTPMessageType fromByte(byte bt) {
-        return Arrays.asList(values())
-                .stream()
-                .filter(i-> i.getNr() == bt)
-                .findFirst().orElse(NOT_KNOWN);
+        return BY_NR[bt & 0xFF];
     }
 
 }
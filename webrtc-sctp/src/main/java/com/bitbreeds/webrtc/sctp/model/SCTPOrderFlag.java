@@ -19,7 +19,6 @@ package com.bitbreeds.webrtc.sctp.model;
 
 import com.bitbreeds.webrtc.common.SignalUtil;
 
-import java.util.Arrays;
 
 /**
  * Reserved: 5 bits
@@ -79,10 +78,20 @@ public enum SCTPOrderFlag {
      * @return flagenum from bytes;
      */
     public static SCTPOrderFlag fromValue(int b) {
-        return Arrays.asList(values()).stream()
-                .filter(i->i.byteRep == b)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No flag combination has value: "+ b));
+        if(b < 0 || b >= BY_VALUE.length) {
+            throw new IllegalArgumentException("No flag combination has value: "+ b);
+        }
+        return BY_VALUE[b];
+    }
+
+    /**
+     * Flags by their value, all 3 bit combinations are covered
+     */
+    private static final SCTPOrderFlag[] BY_VALUE = new SCTPOrderFlag[8];
+    static {
+        for (SCTPOrderFlag flag : values()) {
+            BY_VALUE[flag.byteRep] = flag;
+        }
     }
 
     public boolean isOrdered() {
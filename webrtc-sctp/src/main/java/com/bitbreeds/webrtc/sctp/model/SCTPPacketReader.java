@@ -0,0 +1,220 @@
+package com.bitbreeds.webrtc.sctp.model;
+
+import com.bitbreeds.webrtc.common.ByteCursor;
+import java.util.Arrays;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Flyweight reader over a received SCTP packet.
+ *
+ * Reads the common header and walks the chunks in place, without copying
+ * or allocating per chunk. DATA fields and the payload position are read
+ * straight from the packet, other chunks can be turned into a {@link SCTPChunk} when needed.
+ *
+ * Not thread safe, one instance is meant to be reused by a single association.
+ * Values are only valid until the next call to {@link #wrap(byte[], int, int)}
+ * and the underlying array must not change while reading.
+ *
+ * {@link <a href=https://tools.ietf.org/html/rfc4960#section-3>SCTP packet format</a>}
+ */
+public class SCTPPacketReader {
+
+    public final static int HEADER_LENGTH = 12;
+    private final static int CHUNK_HEADER_LENGTH = 4;
+    private final static int DATA_HEADER_LENGTH = 16;
+    private final static int I_DATA_HEADER_LENGTH = 20;
+
+    private byte[] bytes;
+    private int offset;
+    private int end;
+
+    private int chunkStart;
+    private int chunkLength;
+    private int nextChunk;
+
+    /**
+     * Start reading a packet, positioned before the first chunk
+     *
+     * @param bytes array holding the packet
+     * @param offset start of the packet
+     * @param length length of the packet
+     * @return this reader
+     */
+    public SCTPPacketReader wrap(byte[] bytes, int offset, int length) {
+        if(length < HEADER_LENGTH + CHUNK_HEADER_LENGTH) {
+            throw new IllegalArgumentException("Bytes given are to short to be an SCTP message: " + length);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.end = offset + length;
+        this.chunkStart = -1;
+        this.chunkLength = 0;
+        this.nextChunk = offset + HEADER_LENGTH;
+        return this;
+    }
+
+    public int getSourcePort() {
+        return readShort(offset);
+    }
+
+    public int getDestinationPort() {
+        return readShort(offset + 2);
+    }
+
+    public long getVerificationTag() {
+        return readUnsignedInt(offset + 4);
+    }
+
+    /**
+     * @return checksum as stored, the same value {@link SCTPHeader#getChecksum()} gives
+     */
+    public long getChecksum() {
+        return readUnsignedInt(offset + 8);
+    }
+
+    /**
+     * @return the header as an object, for handlers that need it
+     */
+    public SCTPHeader header() {
+        return new SCTPHeader(getSourcePort(),getDestinationPort(),getVerificationTag(),getChecksum());
+    }
+
+    /**
+     * Move to the next chunk
+     *
+     * @return false when no complete chunk is left
+     */
+    public boolean nextChunk() {
+        if(end - nextChunk < CHUNK_HEADER_LENGTH) {
+            return false;
+        }
+        int length = readShort(nextChunk + 2);
+        if(length < CHUNK_HEADER_LENGTH || nextChunk + length > end) {
+            return false;
+        }
+        chunkStart = nextChunk;
+        chunkLength = length;
+        nextChunk = nextChunk + ((length + 3) & ~3);
+        return true;
+    }
+
+    public SCTPMessageType getChunkType() {
+        return SCTPMessageType.fromByte(bytes[chunkStart]);
+    }
+
+    public int getChunkFlags() {
+        return bytes[chunkStart + 1] & 0xFF;
+    }
+
+    /**
+     * @return length of the chunk without padding
+     */
+    public int getChunkLength() {
+        return chunkLength;
+    }
+
+    /**
+     * @return where the current chunk starts in {@link #array()}
+     */
+    public int getChunkOffset() {
+        return chunkStart;
+    }
+
+    public byte[] array() {
+        return bytes;
+    }
+
+    /**
+     * @return whether the current chunk is a DATA chunk with room for its fixed fields
+     */
+    public boolean isData() {
+        return bytes[chunkStart] == 0 && chunkLength >= DATA_HEADER_LENGTH;
+    }
+
+    /**
+     * @return whether the current chunk is an I-DATA chunk with room for its fixed fields
+     */
+    public boolean isInterleavedData() {
+        return (bytes[chunkStart] & 0xFF) == SCTPMessageType.I_DATA.getNr() && chunkLength >= I_DATA_HEADER_LENGTH;
+    }
+
+    public long getTsn() {
+        return readUnsignedInt(chunkStart + 4);
+    }
+
+    public int getStreamId() {
+        return readShort(chunkStart + 8);
+    }
+
+    public int getStreamSequence() {
+        return readShort(chunkStart + 10);
+    }
+
+    public int getProtocolId() {
+        return readInt(chunkStart + 12);
+    }
+
+    /**
+     * @return message identifier of an I-DATA chunk
+     */
+    public long getMessageId() {
+        return readUnsignedInt(chunkStart + 12);
+    }
+
+    /**
+     * @return payload protocol identifier of a first I-DATA fragment, fragment sequence number otherwise
+     */
+    public long getPpidOrFsn() {
+        return readUnsignedInt(chunkStart + 16);
+    }
+
+    /**
+     * @return where the DATA or I-DATA payload starts in {@link #array()}
+     */
+    public int getPayloadOffset() {
+        return chunkStart + dataHeaderLength();
+    }
+
+    public int getPayloadLength() {
+        return chunkLength - dataHeaderLength();
+    }
+
+    private int dataHeaderLength() {
+        return bytes[chunkStart] == 0 ? DATA_HEADER_LENGTH : I_DATA_HEADER_LENGTH;
+    }
+
+    /**
+     * @return copy of the current chunk parsed the old way, for chunks without a flyweight accessor
+     */
+    public SCTPChunk toChunk() {
+        int chunkEnd = Math.min(end, chunkStart + ((chunkLength + 3) & ~3));
+        return SCTPChunk.fromBytes(Arrays.copyOfRange(bytes, chunkStart, chunkEnd));
+    }
+
+    private int readShort(int position) {
+        return ByteCursor.getUnsignedShort(bytes, position);
+    }
+
+    private int readInt(int position) {
+        return ByteCursor.getInt(bytes, position);
+    }
+
+    private long readUnsignedInt(int position) {
+        return ByteCursor.getUnsignedInt(bytes, position);
+    }
+}
@@ -0,0 +1,201 @@
+package com.bitbreeds.webrtc.sctp.model;
+
+import com.bitbreeds.webrtc.common.BufferPool;
+import com.bitbreeds.webrtc.common.ByteCursor;
+import com.bitbreeds.webrtc.common.PooledBuffer;
+import com.bitbreeds.webrtc.common.SignalUtil;
+
+import java.util.Arrays;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Writes SCTP packets in a single pass.
+ *
+ * The header and chunks are encoded straight into one buffer taken from the
+ * {@link BufferPool}, and the CRC32c is patched into the header once the packet is complete.
+ * The same buffer is reused for every packet written until {@link #close()}.
+ *
+ * Not thread safe, take one per thread of work with {@link #pooled()}.
+ *
+ * {@link <a href=https://tools.ietf.org/html/rfc4960#section-6.8>SCTP checksum</a>}
+ */
+public class SCTPPacketWriter implements AutoCloseable {
+
+    private PooledBuffer pooled;
+    private byte[] buffer;
+    private int position;
+
+    private SCTPPacketWriter(PooledBuffer pooled) {
+        this.pooled = pooled;
+        this.buffer = pooled.array();
+    }
+
+    /**
+     * @return writer on a pooled buffer, must be closed to give the buffer back
+     */
+    public static SCTPPacketWriter pooled() {
+        return new SCTPPacketWriter(BufferPool.shared().acquire(BufferPool.DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * @param message message to encode, the checksum in its header is ignored
+     * @return packet ready for the wire
+     */
+    public static byte[] encode(SCTPMessage message) {
+        try (SCTPPacketWriter writer = pooled()) {
+            writer.begin(message.getHeader());
+            message.getChunks().forEach(writer::writeChunk);
+            return writer.finish();
+        }
+    }
+
+    /**
+     * Start a new packet, anything written before is dropped
+     *
+     * @param header common header, the checksum is left as 0 until {@link #finish()}
+     * @return this writer
+     */
+    public SCTPPacketWriter begin(SCTPHeader header) {
+        position = 0;
+        putShort(header.getSourcePort());
+        putShort(header.getDestinationPort());
+        putInt(header.getVerificationTag());
+        putInt(0);
+        return this;
+    }
+
+    /**
+     * Encode a chunk, padded to a multiple of four
+     *
+     * @param chunk chunk to write
+     */
+    public void writeChunk(SCTPChunk chunk) {
+        SCTPMessageType type = chunk.getType();
+        if(type.isNoVarTypes() && !chunk.getVariable().isEmpty()) {
+            throw new IllegalStateException("No varible size fields allowed for chunk " + type);
+        }
+        int start = position;
+        put((byte) type.getNr());
+        put(chunk.getFlags().getByteRep());
+        putShort(chunk.getLength());
+        for(SCTPFixedAttributeType t: type.getFixedTypes()) {
+            put(chunk.getFixed().get(t).getData());
+        }
+        for(SCTPAttribute attribute : chunk.getVariable().values()) {
+            int attributeStart = position;
+            putShort(attribute.getType().getNr());
+            putShort(attribute.getLength());
+            put(attribute.getData());
+            pad(attributeStart);
+        }
+        put(chunk.getRest());
+        pad(start);
+    }
+
+    /**
+     * @param chunk chunk already encoded and padded, like stored DATA
+     */
+    public void writeChunk(byte[] chunk) {
+        put(chunk);
+    }
+
+    /**
+     * @return bytes written to the current packet, header included
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Drop what was written after a given size, to take back a chunk that did not fit
+     *
+     * @param size earlier value of {@link #size()}
+     */
+    public void truncate(int size) {
+        if(size < 0 || size > position) {
+            throw new IllegalArgumentException("Can not truncate to " + size + " with " + position + " written");
+        }
+        position = size;
+    }
+
+    /**
+     * Compute the checksum in place and copy out the packet
+     *
+     * @return packet ready for the wire
+     */
+    public byte[] finish() {
+        long crc = SignalUtil.computeCRC32c(buffer, 0, position);
+        ByteCursor.putInt(buffer, 8, Long.reverseBytes(crc) >>> 32);
+        return Arrays.copyOf(buffer, position);
+    }
+
+    @Override
+    public void close() {
+        if(pooled != null) {
+            pooled.release();
+            pooled = null;
+        }
+        buffer = null;
+    }
+
+    private void pad(int start) {
+        int padded = SignalUtil.multipleOfFour(position - start);
+        ensure(start + padded - position);
+        while(position < start + padded) {
+            buffer[position++] = 0;
+        }
+    }
+
+    private void put(byte value) {
+        ensure(1);
+        buffer[position++] = value;
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void putShort(int value) {
+        ensure(2);
+        ByteCursor.putShort(buffer, position, value);
+        position += 2;
+    }
+
+    private void putInt(long value) {
+        ensure(4);
+        ByteCursor.putInt(buffer, position, value);
+        position += 4;
+    }
+
+    /**
+     * Grow past the pooled size for large packets like an INIT ACK with a big cookie,
+     * the pooled buffer goes back right away.
+     */
+    private void ensure(int bytes) {
+        if(position + bytes > buffer.length) {
+            byte[] larger = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            if(pooled != null) {
+                pooled.release();
+                pooled = null;
+            }
+            buffer = larger;
+        }
+    }
+}
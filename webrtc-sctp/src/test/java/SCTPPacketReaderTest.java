@@ -0,0 +1,125 @@
+import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPPacketReader;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class SCTPPacketReaderTest {
+
+    private final static String INIT = "1388138800000000a630caa40100005633c89cf5000200000100080037429a54c000000480080009c00fc1808200000080020024e9eac84358178100ae0c280e0598ed4bf2071c7314acc154aa20de77ec40026780040006000100008003000680c10000";
+
+    private static byte[] dataChunk(long tsn, int stream, int sequence, byte[] payload) {
+        int length = 16 + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate((length + 3) & ~3);
+        buffer.put((byte) 0).put((byte) 3).putShort((short) length)
+                .putInt((int) tsn)
+                .putShort((short) stream)
+                .putShort((short) sequence)
+                .putInt(51)
+                .put(payload);
+        return buffer.array();
+    }
+
+    private static byte[] packet(byte[]... chunks) {
+        int length = 12 + Arrays.stream(chunks).mapToInt(i -> i.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putShort((short) 5000).putShort((short) 5001).putInt(0xFFFFFFF0).putInt(7);
+        Arrays.stream(chunks).forEach(buffer::put);
+        return buffer.array();
+    }
+
+    @Test
+    public void testHeaderAndControlChunkMatchMessage() throws DecoderException {
+        byte[] bytes = Hex.decodeHex(INIT.toCharArray());
+        SCTPMessage message = SCTPMessage.fromBytes(bytes);
+        SCTPPacketReader reader = new SCTPPacketReader().wrap(bytes, 0, bytes.length);
+
+        SCTPHeader header = message.getHeader();
+        assertEquals(header.getSourcePort(), reader.getSourcePort());
+        assertEquals(header.getDestinationPort(), reader.getDestinationPort());
+        assertEquals(header.getVerificationTag(), reader.getVerificationTag());
+        assertEquals(header.getChecksum(), reader.getChecksum());
+
+        assertTrue(reader.nextChunk());
+        assertEquals(SCTPMessageType.INITIATION, reader.getChunkType());
+        assertFalse(reader.isData());
+        assertArrayEquals(message.getChunks().get(0).toBytes(), reader.toChunk().toBytes());
+        assertFalse(reader.nextChunk());
+    }
+
+    @Test
+    public void testBundledDataReadInPlace() {
+        byte[] bytes = packet(
+                dataChunk(0xFFFFFFFEL, 1, 2, new byte[] {1, 2, 3}),
+                dataChunk(0xFFFFFFFFL, 1, 3, new byte[] {4, 5, 6, 7}));
+        SCTPPacketReader reader = new SCTPPacketReader().wrap(bytes, 0, bytes.length);
+        assertEquals(0xFFFFFFF0L, reader.getVerificationTag());
+
+        assertTrue(reader.nextChunk());
+        assertTrue(reader.isData());
+        assertEquals(0xFFFFFFFEL, reader.getTsn());
+        assertEquals(1, reader.getStreamId());
+        assertEquals(2, reader.getStreamSequence());
+        assertEquals(51, reader.getProtocolId());
+        assertEquals(3, reader.getChunkFlags());
+        assertEquals(3, reader.getPayloadLength());
+        assertEquals(28, reader.getPayloadOffset());
+
+        assertTrue(reader.nextChunk());
+        assertEquals(0xFFFFFFFFL, reader.getTsn());
+        assertEquals(3, reader.getStreamSequence());
+        assertArrayEquals(new byte[] {4, 5, 6, 7},
+                Arrays.copyOfRange(bytes, reader.getPayloadOffset(), reader.getPayloadOffset() + reader.getPayloadLength()));
+        assertFalse(reader.nextChunk());
+    }
+
+    @Test
+    public void testReadsFromOffset() {
+        byte[] inner = packet(dataChunk(9, 0, 0, new byte[] {1}));
+        byte[] bytes = new byte[inner.length + 10];
+        System.arraycopy(inner, 0, bytes, 10, inner.length);
+
+        SCTPPacketReader reader = new SCTPPacketReader().wrap(bytes, 10, inner.length);
+        assertEquals(5000, reader.getSourcePort());
+        assertTrue(reader.nextChunk());
+        assertEquals(9, reader.getTsn());
+    }
+
+    @Test
+    public void testStopsAtTruncatedChunk() {
+        byte[] bytes = packet(dataChunk(1, 0, 0, new byte[] {1, 2, 3, 4}));
+        SCTPPacketReader reader = new SCTPPacketReader().wrap(bytes, 0, bytes.length - 4);
+        assertFalse(reader.nextChunk());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooShort() {
+        new SCTPPacketReader().wrap(new byte[12], 0, 12);
+    }
+}
@@ -0,0 +1,96 @@
+import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.sctp.model.SCTPChunk;
+import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import com.bitbreeds.webrtc.sctp.model.SCTPPacketWriter;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class SCTPPacketWriterTest {
+
+    private final static String INIT = "1388138800000000a630caa40100005633c89cf5000200000100080037429a54c000000480080009c00fc1808200000080020024e9eac84358178100ae0c280e0598ed4bf2071c7314acc154aa20de77ec40026780040006000100008003000680c10000";
+
+    private final SCTPHeader header = new SCTPHeader(5000, 5001, 1234, 0);
+
+    private static long checksumOf(byte[] packet) {
+        byte[] copy = Arrays.copyOf(packet, packet.length);
+        copy[8] = copy[9] = copy[10] = copy[11] = 0;
+        return SignalUtil.computeCRC32c(copy);
+    }
+
+    private static SCTPChunk chunk(int payloadSize) {
+        return new SCTPChunk(
+                SCTPMessageType.COOKIE_ECHO,
+                SCTPOrderFlag.fromValue(0),
+                4 + payloadSize,
+                new HashMap<>(),
+                new HashMap<>(),
+                new byte[payloadSize]);
+    }
+
+    @Test
+    public void testEncodesLikeToBytes() throws DecoderException {
+        SCTPMessage message = SCTPMessage.fromBytes(Hex.decodeHex(INIT.toCharArray()));
+        byte[] packet = SCTPPacketWriter.encode(message);
+        byte[] expected = message.toBytes();
+
+        assertArrayEquals(Arrays.copyOf(expected, 8), Arrays.copyOf(packet, 8));
+        assertArrayEquals(Arrays.copyOfRange(expected, 12, expected.length), Arrays.copyOfRange(packet, 12, packet.length));
+    }
+
+    @Test
+    public void testChecksumPatchedInPlace() {
+        byte[] packet = SCTPPacketWriter.encode(new SCTPMessage(header, Collections.singletonList(chunk(5))));
+
+        assertEquals(12 + 12, packet.length);
+        SCTPHeader written = SCTPHeader.fromBytes(Arrays.copyOf(packet, 12));
+        assertEquals(checksumOf(packet), SignalUtil.bytesToLong(SignalUtil.flipBytes(SignalUtil.longToFourBytes(written.getChecksum()))));
+    }
+
+    @Test
+    public void testGrowsPastPooledBuffer() {
+        byte[] packet = SCTPPacketWriter.encode(new SCTPMessage(header, Collections.singletonList(chunk(5000))));
+
+        assertEquals(12 + 5004, packet.length);
+        assertEquals(checksumOf(packet), SignalUtil.bytesToLong(SignalUtil.flipBytes(Arrays.copyOfRange(packet, 8, 12))));
+    }
+
+    @Test
+    public void testTruncateDropsLastChunk() {
+        try (SCTPPacketWriter writer = SCTPPacketWriter.pooled()) {
+            writer.begin(header);
+            writer.writeChunk(chunk(4));
+            int size = writer.size();
+            writer.writeChunk(chunk(100));
+            writer.truncate(size);
+
+            assertEquals(12 + 8, writer.finish().length);
+        }
+    }
+}
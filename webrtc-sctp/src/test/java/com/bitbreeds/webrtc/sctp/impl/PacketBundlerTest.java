@@ -0,0 +1,111 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
+import com.bitbreeds.webrtc.sctp.model.SCTPChunk;
+import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessage;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class PacketBundlerTest {
+
+    private final SCTPHeader header = new SCTPHeader(5000, 5001, 1234, 0);
+
+    private static byte[] chunk(SCTPMessageType type, int length) {
+        byte[] chunk = new byte[length];
+        chunk[0] = SignalUtil.sign(type.getNr());
+        chunk[2] = (byte) (length >> 8);
+        chunk[3] = (byte) length;
+        return chunk;
+    }
+
+    @Test
+    public void controlIsBundledBeforeData() {
+        PacketBundler bundler = new PacketBundler(1200);
+        bundler.addData(chunk(SCTPMessageType.DATA, 100));
+        bundler.addControl(chunk(SCTPMessageType.SELECTIVE_ACK, 16));
+        bundler.addData(chunk(SCTPMessageType.DATA, 100));
+
+        List<WireRepresentation> packets = bundler.toPackets(header);
+
+        assertEquals(1, packets.size());
+        assertEquals(SCTPMessageType.SELECTIVE_ACK, packets.get(0).getMessageType());
+        assertEquals(12 + 16 + 100 + 100, packets.get(0).getPayload().length);
+    }
+
+    @Test
+    public void packetsStayWithinMaxSize() {
+        PacketBundler bundler = new PacketBundler(1200);
+        for (int i = 0; i < 10; i++) {
+            bundler.addData(chunk(SCTPMessageType.DATA, 400));
+        }
+
+        List<WireRepresentation> packets = bundler.toPackets(header);
+
+        assertEquals(5, packets.size());
+        packets.forEach(i -> assertEquals(12 + 800, i.getPayload().length));
+    }
+
+    @Test
+    public void headerAndChecksumAreWritten() {
+        PacketBundler bundler = new PacketBundler(1200);
+        bundler.addControl(chunk(SCTPMessageType.SELECTIVE_ACK, 16));
+
+        byte[] packet = bundler.toPackets(header).get(0).getPayload();
+        SCTPHeader written = SCTPHeader.fromBytes(Arrays.copyOf(packet, 12));
+        assertEquals(5000, written.getSourcePort());
+        assertEquals(5001, written.getDestinationPort());
+        assertEquals(1234, written.getVerificationTag());
+
+        byte[] checksum = Arrays.copyOfRange(packet, 8, 12);
+        packet[8] = packet[9] = packet[10] = packet[11] = 0;
+        assertEquals(
+                SignalUtil.computeCRC32c(packet),
+                SignalUtil.bytesToLong(SignalUtil.flipBytes(checksum)));
+    }
+
+    @Test
+    public void shutdownCompleteIsNeverBundled() {
+        SCTPChunk complete = new SCTPChunk(
+                SCTPMessageType.SHUTDOWN_COMPLETE,
+                SCTPOrderFlag.fromValue((byte) 0),
+                4,
+                new HashMap<>(),
+                new HashMap<>(),
+                new byte[] {});
+        PacketBundler bundler = new PacketBundler(1200);
+        bundler.addMessage(new SCTPMessage(header, Collections.singletonList(complete)));
+        bundler.addControl(chunk(SCTPMessageType.SELECTIVE_ACK, 16));
+
+        List<WireRepresentation> packets = bundler.toPackets(header);
+
+        assertEquals(2, packets.size());
+        assertEquals(SCTPMessageType.SHUTDOWN_COMPLETE, packets.get(0).getMessageType());
+        assertEquals(SCTPMessageType.SELECTIVE_ACK, packets.get(1).getMessageType());
+    }
+}
@@ -0,0 +1,120 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.sctp.model.SCTPHeader;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class PathMtuDiscoveryTest {
+
+    private static void fail(PathMtuDiscovery discovery, int size) {
+        for (int i = 1; i < PathMtuDiscovery.MAX_PROBES; i++) {
+            assertEquals(size, discovery.nextProbe(0));
+        }
+    }
+
+    @Test
+    public void searchFindsLargestAcknowledgedSize() {
+        PathMtuDiscovery discovery = new PathMtuDiscovery(1400);
+        assertEquals(1400, discovery.nextProbe(0));
+        fail(discovery, 1400);
+
+        assertEquals(1300, discovery.nextProbe(0));
+        assertTrue(discovery.onProbeAcked(1300));
+        assertEquals(1348, discovery.nextProbe(0));
+        assertTrue(discovery.onProbeAcked(1348));
+        assertEquals(1372, discovery.nextProbe(0));
+        assertTrue(discovery.onProbeAcked(1372));
+
+        assertEquals(0, discovery.nextProbe(0));
+        assertEquals(PathMtuDiscovery.State.SEARCH_COMPLETE, discovery.getState());
+        assertEquals(1372, discovery.getPlpmtu());
+    }
+
+    @Test
+    public void maxAtBaseNeedsNoProbes() {
+        PathMtuDiscovery discovery = new PathMtuDiscovery(PathMtuDiscovery.BASE_PLPMTU);
+        assertEquals(0, discovery.nextProbe(0));
+        assertEquals(PathMtuDiscovery.State.SEARCH_COMPLETE, discovery.getState());
+        assertEquals(PathMtuDiscovery.BASE_PLPMTU, discovery.getPlpmtu());
+    }
+
+    @Test
+    public void acknowledgedMaxCompletesSearch() {
+        PathMtuDiscovery discovery = new PathMtuDiscovery(9000 - 48 - 13);
+        int probe = discovery.nextProbe(0);
+        assertEquals(0, probe % 4);
+        assertTrue(discovery.onProbeAcked(probe));
+        assertEquals(0, discovery.nextProbe(PathMtuDiscovery.RAISE_TIMER_MILLIS * 2));
+        assertEquals(probe, discovery.getPlpmtu());
+    }
+
+    @Test
+    public void searchIsRepeatedAfterRaiseTimer() {
+        PathMtuDiscovery discovery = new PathMtuDiscovery(1400);
+        discovery.nextProbe(0);
+        fail(discovery, 1400);
+        discovery.nextProbe(0);
+        fail(discovery, 1300);
+        while (discovery.getState() == PathMtuDiscovery.State.SEARCHING) {
+            int probe = discovery.nextProbe(0);
+            if (probe != 0) {
+                discovery.onProbeAcked(probe);
+            }
+        }
+
+        assertEquals(0, discovery.nextProbe(PathMtuDiscovery.RAISE_TIMER_MILLIS - 1));
+        assertEquals(1400, discovery.nextProbe(PathMtuDiscovery.RAISE_TIMER_MILLIS));
+    }
+
+    @Test
+    public void repeatedTimeoutsFallBackToBase() {
+        PathMtuDiscovery discovery = new PathMtuDiscovery(1400);
+        discovery.onProbeAcked(discovery.nextProbe(0));
+        assertEquals(1400, discovery.getPlpmtu());
+
+        assertFalse(discovery.onRetransmissionTimeout());
+        discovery.onDataAcked();
+        assertFalse(discovery.onRetransmissionTimeout());
+        assertTrue(discovery.onRetransmissionTimeout());
+
+        assertEquals(PathMtuDiscovery.BASE_PLPMTU, discovery.getPlpmtu());
+        assertEquals(PathMtuDiscovery.State.SEARCHING, discovery.getState());
+        assertEquals(1300, discovery.nextProbe(0));
+    }
+
+    @Test
+    public void probeIsPaddedHeartBeat() {
+        HeartBeatService service = new HeartBeatService();
+        byte[] probe = service.createProbe(new SCTPHeader(5000, 5001, 1234, 0), 1300);
+
+        assertEquals(1300, probe.length);
+        assertEquals(SCTPMessageType.HEARTBEAT.getNr(), probe[12] & 0xff);
+        assertEquals(SCTPMessageType.PAD.getNr(), probe[12 + 24] & 0xff);
+
+        byte[] info = Arrays.copyOfRange(probe, 12 + 8, 12 + 24);
+        assertEquals(1300, service.receiveHeartBeatAck(info));
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.bitbreeds.webrtc.sctp.impl;
+
+import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
+import com.bitbreeds.webrtc.model.webrtc.ConnectionInternalApi;
+import com.bitbreeds.webrtc.model.webrtc.Deliverable;
+import com.bitbreeds.webrtc.sctp.impl.buffer.OutOfBufferSpaceError;
+import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
+import com.bitbreeds.webrtc.sctp.model.SCTPMessageType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.bitbreeds.webrtc.common.PooledBuffer.wrap;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class SCTPImplBatchTest {
+
+    private final static long INITIAL_TSN = 1000;
+
+    private final RecordingConnection connection = new RecordingConnection();
+    private final SCTPImpl sctp = new SCTPImpl(connection);
+
+    @Before
+    public void setup() {
+        sctp.setContext(new SCTPContext(new byte[] {0x4,0x1,0x3,0x4},5000,5000));
+        sctp.handleReceiveInitialTSN(INITIAL_TSN);
+    }
+
+    private static byte[] data(long tsn) {
+        byte[] payload = "hello".getBytes();
+        int chunkLength = 16 + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(12 + ((chunkLength + 3) & ~3));
+        buffer.putShort((short) 5000).putShort((short) 5000).putInt(0x04010304).putInt(0);
+        buffer.put((byte) 0).put((byte) 0x07).putShort((short) chunkLength);
+        buffer.putInt((int) tsn).putShort((short) 0).putShort((short) 0);
+        buffer.putInt(SCTPPayloadProtocolId.WEBRTC_STRING.getId());
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    @Test
+    public void batchIsAcknowledgedWithOneSack() {
+        List<WireRepresentation> out = sctp.handleRequests(
+                Arrays.asList(wrap(data(INITIAL_TSN)), wrap(data(INITIAL_TSN + 1)), wrap(data(INITIAL_TSN + 2))));
+
+        assertEquals(1, out.size());
+        assertEquals(SCTPMessageType.SELECTIVE_ACK, out.get(0).getMessageType());
+        assertEquals(0, connection.onWire.size());
+        assertEquals(3, connection.delivered.size());
+    }
+
+    @Test
+    public void singleRequestIsAcknowledgedRightAway() {
+        List<WireRepresentation> out = sctp.handleRequest(data(INITIAL_TSN));
+
+        assertEquals(1, out.size());
+        assertEquals(SCTPMessageType.SELECTIVE_ACK, out.get(0).getMessageType());
+        assertEquals(1, connection.delivered.size());
+    }
+
+    @Test
+    public void failingMessageDoesNotStopBatch() {
+        List<WireRepresentation> out = sctp.handleRequests(
+                Arrays.asList(wrap(new byte[] {1, 2, 3}), wrap(data(INITIAL_TSN))));
+
+        assertEquals(1, out.size());
+        assertEquals(1, connection.delivered.size());
+    }
+
+    @Test
+    public void sendIsBufferedOnAssociationExecutor() {
+        List<Runnable> tasks = new ArrayList<>();
+        SCTPImpl queued = new SCTPImpl(connection, tasks::add);
+        queued.setContext(new SCTPContext(new byte[] {0x4,0x1,0x3,0x4},5000,5000));
+        queued.initializeRemote(100000, 1);
+
+        queued.bufferForSending(new byte[100], SCTPPayloadProtocolId.WEBRTC_BINARY, 1);
+        queued.bufferForSending(new byte[100], SCTPPayloadProtocolId.WEBRTC_BINARY, 1);
+        assertEquals(0, connection.onWire.size());
+
+        new ArrayList<>(tasks).forEach(Runnable::run);
+        assertEquals(2, connection.onWire.size());
+        assertEquals(200, queued.getBufferedAmount(1));
+    }
+
+    @Test(expected = OutOfBufferSpaceError.class)
+    public void fullSendBufferIsReportedToSender() {
+        SCTPImpl queued = new SCTPImpl(connection, task -> {});
+        queued.initializeRemote(100000, 1);
+
+        queued.bufferForSending(new byte[1500000], SCTPPayloadProtocolId.WEBRTC_BINARY, 1);
+        queued.bufferForSending(new byte[1500000], SCTPPayloadProtocolId.WEBRTC_BINARY, 1);
+    }
+
+    private static class RecordingConnection implements ConnectionInternalApi {
+
+        private final List<Deliverable> delivered = new ArrayList<>();
+        private final List<byte[]> onWire = new ArrayList<>();
+
+        @Override
+        public void presentToUser(Deliverable deliverable) {
+            delivered.add(deliverable);
+        }
+
+        @Override
+        public void send(byte[] data) {
+        }
+
+        @Override
+        public void send(byte[] data, SCTPPayloadProtocolId id, int streamId) {
+        }
+
+        @Override
+        public void send(String data) {
+        }
+
+        @Override
+        public void putDataOnWire(byte[] data) {
+            onWire.add(data);
+        }
+
+        @Override
+        public int getPort() {
+            return 0;
+        }
+
+        @Override
+        public void processReceivedMessage(byte[] data) {
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class BbrCongestionControllerTest {
+
+    private static final int MTU = 1200;
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RWND = 1_000_000;
+
+    private long now = 0;
+
+    /**
+     * A path delivering one MTU per millisecond with 50ms RTT, a 60000 byte bandwidth delay product
+     */
+    private void runPath(BbrCongestionController controller, int millis) {
+        for (int i = 0; i < millis; i++) {
+            now += TimeUnit.MILLISECONDS.toNanos(1);
+            controller.onRttSample(RTT);
+            controller.onSack(i, MTU, controller.getCwnd(), true);
+        }
+    }
+
+    /**
+     * The application only offers one MTU every other millisecond, half what the path delivers
+     */
+    private void runAppLimited(BbrCongestionController controller, int millis) {
+        for (int i = 0; i < millis; i++) {
+            now += TimeUnit.MILLISECONDS.toNanos(1);
+            controller.onAppLimited();
+            controller.onRttSample(RTT);
+            controller.onSack(i, i % 2 == 0 ? MTU : 0, controller.getCwnd(), true);
+        }
+    }
+
+    @Test
+    public void testStartupGrowsLikeSlowStart() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        long initial = controller.getCwnd();
+        controller.onSack(1, MTU, initial, true);
+        assertEquals(initial + MTU, controller.getCwnd());
+        assertEquals(BbrCongestionController.Mode.STARTUP, controller.getMode());
+    }
+
+    @Test
+    public void testSettlesNearBandwidthDelayProduct() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runPath(controller, 2000);
+
+        assertEquals(BbrCongestionController.Mode.PROBE_BW, controller.getMode());
+        long bdp = controller.bandwidthDelayProduct();
+        assertTrue("bdp " + bdp, Math.abs(bdp - 60000) < 3000);
+        assertTrue("cwnd " + controller.getCwnd(),
+                controller.getCwnd() >= 0.75 * bdp && controller.getCwnd() <= 1.25 * bdp + controller.burstLimit());
+    }
+
+    @Test
+    public void testLossDoesNotShrinkWindow() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runPath(controller, 2000);
+        long cwnd = controller.getCwnd();
+        controller.onFastRetransmit(100);
+        assertEquals(cwnd, controller.getCwnd());
+    }
+
+    @Test
+    public void testProbeRttAfterMinRttExpires() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runPath(controller, 2000);
+
+        now += TimeUnit.SECONDS.toNanos(11);
+        controller.onSack(1, MTU, controller.getCwnd(), true);
+        assertEquals(BbrCongestionController.Mode.PROBE_RTT, controller.getMode());
+        assertEquals(4 * MTU, controller.getCwnd());
+
+        runPath(controller, 250);
+        assertEquals(BbrCongestionController.Mode.PROBE_BW, controller.getMode());
+    }
+
+    @Test
+    public void testTimeoutCollapsesWindow() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runPath(controller, 2000);
+        controller.onRetransmissionTimeout();
+        assertEquals(4 * MTU, controller.getCwnd());
+    }
+
+    @Test
+    public void testAppLimitedRoundsDoNotLowerBandwidth() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runPath(controller, 2000);
+        long bdp = controller.bandwidthDelayProduct();
+
+        runAppLimited(controller, 2000);
+        assertEquals(bdp, controller.bandwidthDelayProduct());
+        assertEquals(BbrCongestionController.Mode.PROBE_BW, controller.getMode());
+    }
+
+    @Test
+    public void testAppLimitedRoundsDoNotEndStartup() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, RWND, () -> now);
+        runAppLimited(controller, 2000);
+        assertEquals(BbrCongestionController.Mode.STARTUP, controller.getMode());
+
+        runPath(controller, 2000);
+        assertEquals(BbrCongestionController.Mode.PROBE_BW, controller.getMode());
+    }
+
+    @Test
+    public void testWindowCappedByPeerReceiveWindow() {
+        BbrCongestionController controller = new BbrCongestionController(MTU, 20000, () -> now);
+        runPath(controller, 200);
+        assertEquals(20000, controller.getCwnd());
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class InFlightRingTest {
+
+    private static BufferedSent sent(long tsn) {
+        return BufferedSent.buffer(null, tsn).send();
+    }
+
+    private static List<Long> tsns(InFlightRing ring) {
+        List<Long> out = new ArrayList<>();
+        ring.forEach(i -> out.add(i.getTsn()));
+        return out;
+    }
+
+    @Test
+    public void removingFirstMovesPastAcknowledgedSlots() {
+        InFlightRing ring = new InFlightRing(8);
+        for (long tsn = 10; tsn < 15; tsn++) {
+            ring.put(sent(tsn));
+        }
+        ring.remove(11);
+        ring.remove(12);
+        assertEquals(10, ring.first().getTsn());
+
+        ring.remove(10);
+        assertEquals(13, ring.first().getTsn());
+        assertEquals(Arrays.asList(13L, 14L), tsns(ring));
+        assertEquals(2, ring.size());
+    }
+
+    @Test
+    public void growsWhenRangeOutgrowsRing() {
+        InFlightRing ring = new InFlightRing(4);
+        for (long tsn = 100; tsn < 120; tsn++) {
+            ring.put(sent(tsn));
+        }
+        ring.remove(100);
+        ring.put(sent(130));
+
+        assertEquals(20, ring.size());
+        assertEquals(101, ring.getFirstTsn());
+        assertEquals(130, ring.getLastTsn());
+        assertEquals(119, ring.get(119).getTsn());
+        assertNull(ring.get(125));
+        assertNull(ring.get(100));
+    }
+
+    @Test
+    public void replaceKeepsSize() {
+        InFlightRing ring = new InFlightRing(4);
+        ring.put(sent(1));
+        ring.put(ring.get(1).resend());
+
+        assertEquals(1, ring.size());
+        assertTrue(ring.get(1).isRetransmitted());
+    }
+
+    @Test
+    public void emptiedRingStartsAtNextTsn() {
+        InFlightRing ring = new InFlightRing(4);
+        ring.put(sent(1));
+        ring.put(sent(2));
+        ring.remove(2);
+        ring.remove(1);
+        assertTrue(ring.isEmpty());
+        assertNull(ring.first());
+
+        ring.put(sent(1000));
+        assertEquals(1000, ring.first().getTsn());
+        assertEquals(1, ring.size());
+    }
+
+    @Test
+    public void nextOutstandingSkipsAcknowledgedRuns() {
+        InFlightRing ring = new InFlightRing(64);
+        for (long tsn = 60; tsn < 260; tsn++) {
+            ring.put(sent(tsn));
+        }
+        for (long tsn = 61; tsn < 250; tsn++) {
+            ring.remove(tsn);
+        }
+
+        assertEquals(60, ring.nextOutstanding(0, 300));
+        assertEquals(250, ring.nextOutstanding(61, 300));
+        assertEquals(-1, ring.nextOutstanding(61, 249));
+        assertEquals(Arrays.asList(60L, 250L, 251L, 252L, 253L, 254L, 255L, 256L, 257L, 258L, 259L), tsns(ring));
+
+        ring.remove(60);
+        assertEquals(250, ring.getFirstTsn());
+        ring.remove(259);
+        assertEquals(258, ring.getLastTsn());
+    }
+
+    @Test
+    public void removeOutsideRangeIsIgnored() {
+        InFlightRing ring = new InFlightRing(4);
+        ring.put(sent(5));
+        assertNull(ring.remove(4));
+        assertNull(ring.remove(9));
+        assertEquals(1, ring.size());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
+import com.bitbreeds.webrtc.model.webrtc.Deliverable;
+import com.bitbreeds.webrtc.sctp.impl.model.ReceivedData;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class ReceiveBufferForwardTsnTest {
+
+    private ReceivedData make(long tsn, int ssn, SCTPOrderFlag flag, byte[] data) {
+        return new ReceivedData(tsn,
+                1,
+                ssn,
+                flag,
+                SCTPPayloadProtocolId.WEBRTC_BINARY,data);
+    }
+
+    @Test
+    public void orderedStreamSkipsAbandonedMessage() {
+        ReceiveBuffer buffer = new ReceiveBuffer(6,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(2,1,SCTPOrderFlag.ORDERED_UNFRAGMENTED,new byte[]{1}));
+        assertEquals(0,buffer.getMessagesForDelivery().size());
+
+        buffer.receiveForwardTsn(new ForwardTsn(1, Collections.singletonMap(1, 0)));
+
+        List<Deliverable> del = buffer.getMessagesForDelivery();
+        assertEquals(1,del.size());
+        assertArrayEquals(new byte[]{1},del.get(0).getData());
+
+        SackData sack = buffer.getSackDataToSend();
+        assertEquals(2,sack.getCumulativeTSN());
+        assertEquals(Collections.emptyList(),sack.getTsns());
+    }
+
+    @Test
+    public void incompleteFragmentsAreDropped() {
+        ReceiveBuffer buffer = new ReceiveBuffer(6,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(1,0,SCTPOrderFlag.UNORDERED_START_FRAGMENT,new byte[]{0,1,2}));
+        buffer.store(make(3,0,SCTPOrderFlag.UNORDERED_END_FRAGMENT,new byte[]{6,7,8}));
+        assertEquals(0,buffer.getMessagesForDelivery().size());
+        assertEquals(94,buffer.getCapacity());
+
+        buffer.receiveForwardTsn(new ForwardTsn(3, Collections.emptyMap()));
+        assertEquals(100,buffer.getCapacity());
+        assertEquals(0,buffer.getMessagesForDelivery().size());
+
+        buffer.store(make(4,0,SCTPOrderFlag.UNORDERED_UNFRAGMENTED,new byte[]{9}));
+        List<Deliverable> del = buffer.getMessagesForDelivery();
+        assertEquals(1,del.size());
+        assertArrayEquals(new byte[]{9},del.get(0).getData());
+        assertEquals(4,buffer.getSackDataToSend().getCumulativeTSN());
+    }
+
+    @Test
+    public void oldForwardTsnIsIgnored() {
+        ReceiveBuffer buffer = new ReceiveBuffer(6,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(1,0,SCTPOrderFlag.UNORDERED_UNFRAGMENTED,new byte[]{1}));
+        buffer.getMessagesForDelivery();
+        buffer.getSackDataToSend();
+
+        buffer.receiveForwardTsn(new ForwardTsn(0, Collections.emptyMap()));
+        assertEquals(1,buffer.getSackDataToSend().getCumulativeTSN());
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
+import com.bitbreeds.webrtc.model.webrtc.Deliverable;
+import com.bitbreeds.webrtc.sctp.impl.model.ReceivedData;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class ReceiveBufferInterleavedTest {
+
+    private ReceivedData make(long tsn, int mid, long fsn, SCTPOrderFlag flag, byte[] data) {
+        return new ReceivedData(tsn,
+                1,
+                mid,
+                fsn,
+                flag,
+                fsn == 0 ? SCTPPayloadProtocolId.WEBRTC_BINARY : null,
+                data);
+    }
+
+    @Test
+    public void interleavedMessagesAreReassembled() {
+        ReceiveBuffer buffer = new ReceiveBuffer(10,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(1,0,0,SCTPOrderFlag.UNORDERED_START_FRAGMENT,new byte[]{0,1}));
+        buffer.store(make(2,1,0,SCTPOrderFlag.UNORDERED_START_FRAGMENT,new byte[]{5}));
+        buffer.store(make(3,0,1,SCTPOrderFlag.UNORDERED_MIDDLE_FRAGMENT,new byte[]{2}));
+        buffer.store(make(4,1,1,SCTPOrderFlag.UNORDERED_END_FRAGMENT,new byte[]{6}));
+
+        List<Deliverable> first = buffer.getMessagesForDelivery();
+        assertEquals(1,first.size());
+        assertArrayEquals(new byte[]{5,6},first.get(0).getData());
+        assertEquals(SCTPPayloadProtocolId.WEBRTC_BINARY,first.get(0).getProtocolId());
+
+        buffer.store(make(5,0,2,SCTPOrderFlag.UNORDERED_END_FRAGMENT,new byte[]{3}));
+        List<Deliverable> second = buffer.getMessagesForDelivery();
+        assertEquals(1,second.size());
+        assertArrayEquals(new byte[]{0,1,2,3},second.get(0).getData());
+
+        assertEquals(100,buffer.getCapacity());
+        assertEquals(5,buffer.getSackDataToSend().getCumulativeTSN());
+    }
+
+    @Test
+    public void fragmentsAreOrderedByFragmentSequence() {
+        ReceiveBuffer buffer = new ReceiveBuffer(10,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(3,7,2,SCTPOrderFlag.UNORDERED_END_FRAGMENT,new byte[]{3}));
+        buffer.store(make(2,7,1,SCTPOrderFlag.UNORDERED_MIDDLE_FRAGMENT,new byte[]{2}));
+        assertEquals(0,buffer.getMessagesForDelivery().size());
+
+        buffer.store(make(1,7,0,SCTPOrderFlag.UNORDERED_START_FRAGMENT,new byte[]{1}));
+        List<Deliverable> del = buffer.getMessagesForDelivery();
+        assertEquals(1,del.size());
+        assertArrayEquals(new byte[]{1,2,3},del.get(0).getData());
+    }
+
+    @Test
+    public void forwardTsnDropsAbandonedFragmentsAboveCumulativeTsn() {
+        ReceiveBuffer buffer = new ReceiveBuffer(10,100);
+        buffer.setInitialTSN(1);
+
+        buffer.store(make(1,0,0,SCTPOrderFlag.UNORDERED_START_FRAGMENT,new byte[]{0,1}));
+        buffer.store(make(2,1,0,SCTPOrderFlag.UNORDERED_UNFRAGMENTED,new byte[]{9}));
+        buffer.store(make(3,0,1,SCTPOrderFlag.UNORDERED_MIDDLE_FRAGMENT,new byte[]{2}));
+        assertEquals(1,buffer.getMessagesForDelivery().size());
+        assertEquals(97,buffer.getCapacity());
+
+        buffer.receiveForwardTsn(new ForwardTsn(1, Collections.emptyMap(), Collections.singletonMap(1, 0)));
+        assertEquals(100,buffer.getCapacity());
+
+        buffer.store(make(4,2,0,SCTPOrderFlag.UNORDERED_UNFRAGMENTED,new byte[]{4}));
+        List<Deliverable> del = buffer.getMessagesForDelivery();
+        assertEquals(1,del.size());
+        assertArrayEquals(new byte[]{4},del.get(0).getData());
+        assertEquals(4,buffer.getSackDataToSend().getCumulativeTSN());
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class Rfc4960CongestionControllerTest {
+
+    private static final int MTU = 1200;
+
+    @Test
+    public void testInitialWindow() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        assertEquals(4380, window.getCwnd());
+        assertEquals(100000, window.getSsthresh());
+        assertTrue(window.canSend(4379));
+        assertFalse(window.canSend(4380));
+    }
+
+    @Test
+    public void testSlowStartGrowsByAtMostMtu() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        window.onSack(1, 3000, 4380, true);
+        assertEquals(4380 + MTU, window.getCwnd());
+
+        window.onSack(2, 500, window.getCwnd(), true);
+        assertEquals(4380 + MTU + 500, window.getCwnd());
+    }
+
+    @Test
+    public void testNoGrowthWhenWindowNotUsed() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        window.onSack(1, 1000, 1000, true);
+        assertEquals(4380, window.getCwnd());
+    }
+
+    @Test
+    public void testNoGrowthWithoutCumulativeAdvance() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        window.onSack(1, 1000, 4380, false);
+        assertEquals(4380, window.getCwnd());
+    }
+
+    @Test
+    public void testCongestionAvoidanceGrowsOneMtuPerWindow() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 4000);
+        window.onSack(1, 2000, 4380, true);
+        assertEquals(4380, window.getCwnd());
+        window.onSack(2, 2380, 4380, true);
+        assertEquals(4380 + MTU, window.getCwnd());
+    }
+
+    @Test
+    public void testFastRetransmitHalvesOncePerRecovery() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        for (int i = 0; i < 10; i++) {
+            window.onSack(i, MTU, window.getCwnd(), true);
+        }
+        long before = window.getCwnd();
+
+        window.onFastRetransmit(100);
+        assertEquals(before / 2, window.getCwnd());
+        assertEquals(before / 2, window.getSsthresh());
+
+        window.onFastRetransmit(100);
+        window.onSack(50, MTU, window.getCwnd(), true);
+        assertEquals(before / 2, window.getCwnd());
+
+        window.onSack(100, MTU, window.getCwnd(), true);
+        window.onSack(101, MTU, window.getCwnd(), true);
+        window.onFastRetransmit(200);
+        assertEquals(4 * MTU, window.getCwnd());
+    }
+
+    @Test
+    public void testTimeoutCollapsesToOneMtu() {
+        Rfc4960CongestionController window = new Rfc4960CongestionController(MTU, 100000);
+        window.onRetransmissionTimeout();
+        assertEquals(MTU, window.getCwnd());
+        assertEquals(4 * MTU, window.getSsthresh());
+    }
+
+}
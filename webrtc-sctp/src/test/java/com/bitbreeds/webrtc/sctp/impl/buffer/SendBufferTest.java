@@ -1,5 +1,6 @@
 package com.bitbreeds.webrtc.sctp.impl.buffer;
 
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
 import com.bitbreeds.webrtc.model.sctp.SackUtil;
 import com.bitbreeds.webrtc.common.SetUtil;
@@ -7,10 +8,14 @@ import com.bitbreeds.webrtc.sctp.impl.model.SendData;
 import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Copyright (c) 26/02/2018, Jonas Waage
@@ -83,6 +88,336 @@ public class SendBufferTest {
     }
 
 
+    private List<SendData> makeLargeData(long tsn) {
+        return Collections.singletonList(new SendData(tsn,0,0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED, SCTPPayloadProtocolId.WEBRTC_BINARY,
+                new byte[1000]));
+    }
+
+    @Test
+    public void congestionWindowLimitsFlight() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=10; i++) {
+            buffer.buffer(makeLargeData(i));
+        }
+
+        List<BufferedSent> toSend = buffer.getDataToSend();
+        assertEquals(5,toSend.size());
+        assertEquals(5*1000,buffer.getFlightSize());
+        assertEquals(0,buffer.getDataToSend().size());
+
+        buffer.receiveSack(new SackData(5L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertEquals(0,buffer.getFlightSize());
+        assertEquals(4380+1200,buffer.getCongestionWindow());
+        assertEquals(5,buffer.getDataToSend().size());
+    }
+
+    @Test
+    public void retransmissionTimeoutShrinksWindow() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=10; i++) {
+            buffer.buffer(makeLargeData(i));
+        }
+        buffer.getDataToSend();
+
+        assertEquals(1,buffer.getDataToRetransmit().size());
+        assertEquals(1200,buffer.getCongestionWindow());
+        assertEquals(1000,buffer.getFlightSize());
+
+        buffer.receiveSack(new SackData(5L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertEquals(0,buffer.getFlightSize());
+        assertEquals(1200,buffer.getCongestionWindow());
+        assertEquals(2,buffer.getDataToSend().size());
+    }
+
+    @Test
+    public void congestionWindowFollowsPathMtu() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+        buffer.setMtu(1400);
+
+        for(int i=1; i<=10; i++) {
+            buffer.buffer(makeLargeData(i));
+        }
+        assertEquals(5,buffer.getDataToSend().size());
+
+        buffer.receiveSack(new SackData(5L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertEquals(4380+1400,buffer.getCongestionWindow());
+
+        buffer.getDataToSend();
+        buffer.getDataToRetransmit();
+        assertEquals(1400,buffer.getCongestionWindow());
+    }
+
+    @Test
+    public void retransmissionTimeoutResendsAllOutstandingBeforeNewData() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=10; i++) {
+            buffer.buffer(makeLargeData(i));
+        }
+        assertEquals(5,buffer.getDataToSend().size());
+
+        List<BufferedSent> resent = buffer.getDataToRetransmit();
+        assertEquals(1,resent.size());
+        assertEquals(1,resent.get(0).getTsn());
+        assertEquals(1000,buffer.getFlightSize());
+
+        List<BufferedSent> toSend = buffer.getDataToSend();
+        assertEquals(1,toSend.size());
+        assertEquals(2,toSend.get(0).getTsn());
+        assertEquals(0,buffer.getDataToSend().size());
+
+        buffer.receiveSack(new SackData(1L, Collections.emptyList(), Collections.emptyList(), 100000));
+        toSend = buffer.getDataToSend();
+        assertEquals(2,toSend.size());
+        assertEquals(3,toSend.get(0).getTsn());
+        assertEquals(4,toSend.get(1).getTsn());
+
+        buffer.receiveSack(new SackData(4L, Collections.emptyList(), Collections.emptyList(), 100000));
+        toSend = buffer.getDataToSend();
+        assertEquals(4,toSend.size());
+        assertEquals(5,toSend.get(0).getTsn());
+        assertTrue(toSend.get(0).isRetransmitted());
+        assertEquals(6,toSend.get(1).getTsn());
+        assertFalse(toSend.get(1).isRetransmitted());
+    }
+
+    @Test
+    public void missesBetweenGapBlocksTriggerFastRetransmit() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=5; i++) {
+            buffer.buffer(makeLargeData(i));
+        }
+        assertEquals(5,buffer.getDataToSend().size());
+
+        SackData sack = new SackData(1L, SackUtil.getGapAckList(1L,SetUtil.newHashSet(3L,5L)), Collections.emptyList(),100000);
+        assertEquals(0,buffer.receiveSack(sack).getFastRetransmits().size());
+        assertEquals(2,buffer.getInflightSize());
+        assertEquals(2000,buffer.getFlightSize());
+
+        assertEquals(0,buffer.receiveSack(sack).getFastRetransmits().size());
+        List<BufferedSent> resend = buffer.receiveSack(sack).getFastRetransmits();
+        assertEquals(1,resend.size());
+        assertEquals(2,resend.get(0).getTsn());
+        assertEquals(1000,buffer.getFlightSize());
+
+        assertEquals(0,buffer.receiveSack(sack).getFastRetransmits().size());
+        List<BufferedSent> next = buffer.getDataToSend();
+        assertEquals(1,next.size());
+        assertEquals(4,next.get(0).getTsn());
+        assertTrue(next.get(0).isRetransmitted());
+        assertEquals(2000,buffer.getFlightSize());
+    }
+
+    @Test
+    public void fastRetransmitFillsOnePacket() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=5; i++) {
+            buffer.buffer(makeData(i));
+        }
+        assertEquals(5,buffer.getDataToSend().size());
+
+        SackData sack = new SackData(1L, SackUtil.getGapAckList(1L,SetUtil.newHashSet(3L,5L)), Collections.emptyList(),100000);
+        buffer.receiveSack(sack);
+        buffer.receiveSack(sack);
+        List<BufferedSent> resend = buffer.receiveSack(sack).getFastRetransmits();
+        assertEquals(2,resend.size());
+        assertEquals(2,resend.get(0).getTsn());
+        assertEquals(4,resend.get(1).getTsn());
+
+        assertEquals(0,buffer.receiveSack(sack).getFastRetransmits().size());
+    }
+
+    @Test
+    public void repeatedCumulativeAckIsNotAnUpdate() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        for(int i=1; i<=2; i++) {
+            buffer.buffer(makeData(i));
+        }
+        buffer.getDataToSend();
+
+        SackData sack = new SackData(1L, Collections.emptyList(), Collections.emptyList(),100000);
+        assertTrue(buffer.receiveSack(sack).isUpdatedCumulative());
+        assertFalse(buffer.receiveSack(sack).isUpdatedCumulative());
+    }
+
+    @Test
+    public void exhaustedRetransmitsAreAbandoned() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        buffer.buffer(makeLargeData(1), PartialReliability.maxRetransmits(0));
+        buffer.buffer(makeLargeData(2), PartialReliability.maxRetransmits(0));
+        buffer.buffer(makeLargeData(3));
+        assertEquals(3,buffer.getDataToSend().size());
+        assertFalse(buffer.getForwardTsn().isPresent());
+
+        List<BufferedSent> resend = buffer.getDataToRetransmit();
+        assertEquals(1,resend.size());
+        assertEquals(3,resend.get(0).getTsn());
+        assertEquals(1000,buffer.getFlightSize());
+        assertEquals(new ForwardTsn(2, Collections.emptyMap()), buffer.getForwardTsn().get());
+
+        buffer.receiveSack(new SackData(2L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertFalse(buffer.getForwardTsn().isPresent());
+        assertEquals(1,buffer.getInflightSize());
+        assertEquals(100000-1000,buffer.getCapacity());
+    }
+
+    @Test
+    public void abandoningFragmentAbandonsMessage() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        List<SendData> message = Arrays.asList(
+                fragment(1, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                fragment(2, SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT),
+                fragment(3, SCTPOrderFlag.ORDERED_END_FRAGMENT));
+        buffer.buffer(message, PartialReliability.maxRetransmits(1));
+        assertEquals(3,buffer.getDataToSend().size());
+
+        assertEquals(1,buffer.getDataToRetransmit().size());
+        assertEquals(0,buffer.getDataToRetransmit().size());
+
+        assertEquals(0,buffer.getFlightSize());
+        assertEquals(new ForwardTsn(3, Collections.singletonMap(4, 7)), buffer.getForwardTsn().get());
+    }
+
+    @Test
+    public void expiredQueuedChunksAreNotSent() throws InterruptedException {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        buffer.buffer(makeLargeData(1), PartialReliability.lifetime(1));
+        Thread.sleep(5);
+        buffer.buffer(makeLargeData(2));
+
+        List<BufferedSent> toSend = buffer.getDataToSend();
+        assertEquals(1,toSend.size());
+        assertEquals(1,toSend.get(0).getTsn());
+        assertFalse(buffer.getForwardTsn().isPresent());
+        assertEquals(100000-1000,buffer.getCapacity());
+    }
+
+    @Test
+    public void fragmentsGetConsecutiveTsnsWhenStreamsInterleave() {
+        SendBuffer buffer = new SendBuffer(100000, CongestionControllerFactory.RFC4960, StreamSchedulerFactory.ROUND_ROBIN);
+        buffer.initializeRemote(100000,1);
+
+        buffer.buffer(Arrays.asList(
+                fragment(0, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                fragment(0, SCTPOrderFlag.ORDERED_END_FRAGMENT)));
+        buffer.buffer(Collections.singletonList(new SendData(0,1,0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED,
+                SCTPPayloadProtocolId.WEBRTC_BINARY, new byte[1000])));
+        buffer.buffer(Arrays.asList(
+                fragment(0, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                fragment(0, SCTPOrderFlag.ORDERED_END_FRAGMENT)));
+
+        List<BufferedSent> toSend = buffer.getDataToSend();
+        assertEquals(5,toSend.size());
+        assertEquals(4,toSend.get(0).getData().getStreamId());
+        assertEquals(4,toSend.get(1).getData().getStreamId());
+        assertEquals(1,toSend.get(2).getData().getStreamId());
+        assertEquals(4,toSend.get(3).getData().getStreamId());
+        assertEquals(4,toSend.get(4).getData().getStreamId());
+        for (int i = 0; i < toSend.size(); i++) {
+            assertEquals(i + 1,toSend.get(i).getTsn());
+            assertEquals(i + 1,ByteCursor.getInt(toSend.get(i).getData().getChunk(), 4));
+        }
+    }
+
+    @Test
+    public void interleavingSwitchesStreamInsideMessage() {
+        SendBuffer buffer = new SendBuffer(100000, CongestionControllerFactory.RFC4960, StreamSchedulerFactory.ROUND_ROBIN);
+        buffer.setInterleaving(true);
+        buffer.initializeRemote(100000,1);
+
+        buffer.buffer(Arrays.asList(
+                fragment(0, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                fragment(0, SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT),
+                fragment(0, SCTPOrderFlag.ORDERED_END_FRAGMENT)));
+        buffer.buffer(Collections.singletonList(new SendData(0,1,0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED,
+                SCTPPayloadProtocolId.WEBRTC_BINARY, new byte[1000])));
+
+        List<BufferedSent> toSend = buffer.getDataToSend();
+        assertEquals(4,toSend.size());
+        assertEquals(4,toSend.get(0).getData().getStreamId());
+        assertEquals(1,toSend.get(1).getData().getStreamId());
+        assertEquals(4,toSend.get(2).getData().getStreamId());
+        assertEquals(4,toSend.get(3).getData().getStreamId());
+    }
+
+    private SendData fragment(long tsn, SCTPOrderFlag flag) {
+        return new SendData(tsn,4,7, flag, SCTPPayloadProtocolId.WEBRTC_BINARY, new byte[1000]);
+    }
+
+    /**
+     * DATA chunk with a 16 byte header and padding in front of the user data
+     */
+    private SendData message(int stream, int length) {
+        return new SendData(0, stream, 0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED, SCTPPayloadProtocolId.WEBRTC_BINARY,
+                new byte[16 + ((length + 3) & ~3)], length);
+    }
+
+    @Test
+    public void bufferedAmountCountsUserDataOnly() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+
+        buffer.buffer(Collections.singletonList(message(4, 99)));
+        assertEquals(99,buffer.getBufferedAmount(4));
+        assertEquals(0,buffer.getBufferedAmount(0));
+    }
+
+    @Test
+    public void bufferedAmountLowFiresWhenAckBringsStreamToThreshold() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(100000,1);
+        List<Integer> low = new ArrayList<>();
+        buffer.setBufferedAmountLowListener(low::add);
+
+        buffer.setBufferedAmountLowThreshold(4, 1000);
+        buffer.buffer(Collections.singletonList(message(4, 1000)));
+        buffer.buffer(Collections.singletonList(message(4, 1000)));
+        buffer.buffer(Collections.singletonList(message(0, 10)));
+
+        assertEquals(2000,buffer.getBufferedAmount(4));
+        assertEquals(3,buffer.getDataToSend().size());
+        assertEquals(2000,buffer.getBufferedAmount(4));
+
+        buffer.receiveSack(new SackData(1L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertEquals(1000,buffer.getBufferedAmount(4));
+        assertEquals(Collections.singletonList(4),low);
+
+        buffer.receiveSack(new SackData(3L, Collections.emptyList(), Collections.emptyList(), 100000));
+        assertEquals(0,buffer.getBufferedAmount(4));
+        assertEquals(0,buffer.getBufferedAmount(0));
+        assertEquals(Arrays.asList(4,0),low);
+    }
+
+    @Test
+    public void closedPeerWindowAllowsOneChunk() {
+        SendBuffer buffer = new SendBuffer(100000);
+        buffer.initializeRemote(500,1);
+
+        buffer.buffer(makeLargeData(1));
+        buffer.buffer(makeLargeData(2));
+
+        assertEquals(1,buffer.getDataToSend().size());
+        assertEquals(0,buffer.getDataToSend().size());
+    }
+
     @Test(expected = OutOfBufferSpaceError.class)
     public void outOfBufferTest() {
         SendBuffer buffer = new SendBuffer(200);
@@ -0,0 +1,143 @@
+package com.bitbreeds.webrtc.sctp.impl.buffer;
+
+import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
+import com.bitbreeds.webrtc.model.webrtc.DataChannelPriority;
+import com.bitbreeds.webrtc.sctp.impl.model.SendData;
+import com.bitbreeds.webrtc.sctp.model.SCTPOrderFlag;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+public class StreamSchedulerTest {
+
+    private static int next(StreamScheduler scheduler, int bytes, boolean moreQueued) {
+        int stream = scheduler.select();
+        scheduler.onMessageDequeued(stream, bytes, moreQueued);
+        return stream;
+    }
+
+    @Test
+    public void fcfsKeepsQueueOrder() {
+        StreamScheduler scheduler = StreamSchedulerFactory.FCFS.create();
+        scheduler.onMessageQueued(1, 1000);
+        scheduler.onMessageQueued(1, 1000);
+        scheduler.onMessageQueued(2, 10);
+
+        assertEquals(1, next(scheduler, 1000, true));
+        assertEquals(1, next(scheduler, 1000, false));
+        assertEquals(2, next(scheduler, 10, false));
+    }
+
+    @Test
+    public void roundRobinAlternatesStreams() {
+        StreamScheduler scheduler = StreamSchedulerFactory.ROUND_ROBIN.create();
+        scheduler.onMessageQueued(1, 1000);
+        scheduler.onMessageQueued(1, 1000);
+        scheduler.onMessageQueued(2, 10);
+        scheduler.onMessageQueued(2, 10);
+
+        assertEquals(1, next(scheduler, 1000, true));
+        assertEquals(2, next(scheduler, 10, true));
+        assertEquals(1, next(scheduler, 1000, false));
+        assertEquals(2, next(scheduler, 10, false));
+    }
+
+    @Test
+    public void weightedFairSharesBytesByPriority() {
+        StreamScheduler scheduler = StreamSchedulerFactory.WEIGHTED_FAIR.create();
+        scheduler.setPriority(1, DataChannelPriority.HIGH);
+        scheduler.setPriority(2, DataChannelPriority.BELOW_NORMAL);
+        for (int i = 0; i < 20; i++) {
+            scheduler.onMessageQueued(1, 1000);
+            scheduler.onMessageQueued(2, 1000);
+        }
+
+        int[] sent = new int[3];
+        for (int i = 0; i < 10; i++) {
+            sent[next(scheduler, 1000, true)]++;
+        }
+        assertEquals(8, sent[1]);
+        assertEquals(2, sent[2]);
+    }
+
+    @Test
+    public void weightedFairServesIdleStreamFirst() {
+        StreamScheduler scheduler = StreamSchedulerFactory.WEIGHTED_FAIR.create();
+        for (int i = 0; i < 100; i++) {
+            scheduler.onMessageQueued(1, 16000);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(1, next(scheduler, 16000, true));
+        }
+
+        scheduler.onMessageQueued(0, 20);
+        assertEquals(0, next(scheduler, 20, false));
+        assertEquals(1, next(scheduler, 16000, true));
+    }
+
+    private static BufferedSent chunk(int stream, int ssn, SCTPOrderFlag flag) {
+        return BufferedSent.buffer(new SendData(0, stream, ssn, flag,
+                SCTPPayloadProtocolId.WEBRTC_BINARY, new byte[100]), 0);
+    }
+
+    private static List<Integer> drain(SendQueue queue) {
+        List<Integer> streams = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            streams.add(queue.poll().getData().getStreamId());
+        }
+        return streams;
+    }
+
+    @Test
+    public void queueNeverSwitchesStreamInsideMessage() {
+        SendQueue queue = new SendQueue(StreamSchedulerFactory.ROUND_ROBIN.create());
+        queue.add(Collections.singletonList(chunk(2, 0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED)));
+        queue.add(Arrays.asList(
+                chunk(1, 0, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                chunk(1, 0, SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT),
+                chunk(1, 0, SCTPOrderFlag.ORDERED_END_FRAGMENT)));
+        queue.add(Collections.singletonList(chunk(2, 1, SCTPOrderFlag.UNORDERED_UNFRAGMENTED)));
+        queue.add(Collections.singletonList(chunk(1, 1, SCTPOrderFlag.UNORDERED_UNFRAGMENTED)));
+
+        assertEquals(6, queue.size());
+        assertEquals(Arrays.asList(2, 1, 1, 1, 2, 1), drain(queue));
+    }
+
+    @Test
+    public void dropRestOfRemovesUnsentFragments() {
+        SendQueue queue = new SendQueue(StreamSchedulerFactory.FCFS.create());
+        queue.add(Arrays.asList(
+                chunk(1, 3, SCTPOrderFlag.ORDERED_START_FRAGMENT),
+                chunk(1, 3, SCTPOrderFlag.ORDERED_MIDDLE_FRAGMENT),
+                chunk(1, 3, SCTPOrderFlag.ORDERED_END_FRAGMENT)));
+        queue.add(Collections.singletonList(chunk(2, 0, SCTPOrderFlag.UNORDERED_UNFRAGMENTED)));
+
+        assertTrue(queue.dropRestOf(1, 3).isEmpty());
+        queue.poll();
+        assertEquals(2, queue.dropRestOf(1, 3).size());
+        assertEquals(Collections.singletonList(2), drain(queue));
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.bitbreeds.webrtc.dtls;
+
+import org.bouncycastle.crypto.tls.DatagramTransport;
+
+import java.io.IOException;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Datagram transport under DTLS that can collect the records written in a batch
+ * and hand them to the socket together.
+ */
+public interface BatchedDatagramTransport extends DatagramTransport {
+
+    /**
+     * Collect datagrams sent from the calling thread until {@link #flushBatch()}
+     */
+    void beginBatch();
+
+    /**
+     * Send everything collected since {@link #beginBatch()}, and send directly again after.
+     */
+    void flushBatch() throws IOException;
+}
@@ -1,10 +1,13 @@
 package com.bitbreeds.webrtc.dtls;
 
+import com.bitbreeds.webrtc.common.CryptoPool;
 import org.apache.commons.codec.binary.Hex;
 import org.bouncycastle.crypto.tls.Certificate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.security.MessageDigest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Copyright (c) 02/03/2017, Jonas Waage
@@ -25,18 +28,27 @@ public class CertUtil {
 
     private final static Logger logger = LoggerFactory.getLogger(CertUtil.class);
 
+    private final static Map<String,String> fingerprints = new ConcurrentHashMap<>();
+
     /**
+     * Computed once per keystore and alias, later offers get the cached value.
+     *
      * @return sha-256 string based on cert in keystore
      */
     public static String getCertFingerPrint(String storePath, String alias,String pass) {
+        return fingerprints.computeIfAbsent(
+                storePath + '\u0000' + alias + '\u0000' + pass,
+                key -> computeCertFingerPrint(storePath, alias, pass));
+    }
+
+    private static String computeCertFingerPrint(String storePath, String alias,String pass) {
         try {
             Certificate cert = DTLSUtils.loadCert(storePath,
                     alias,
                     pass);
 
             byte[] der = cert.getCertificateAt(0).getEncoded();
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] dat = md.digest(der);
+            byte[] dat = CryptoPool.sha256().digest(der);
 
             String fingerprint = createFingerprintString(dat);
             logger.info("Local cert signature is {} ",fingerprint);
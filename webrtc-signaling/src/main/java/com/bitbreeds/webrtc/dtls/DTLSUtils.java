@@ -27,6 +27,8 @@ import java.security.KeyPair;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -47,14 +49,27 @@ public class DTLSUtils {
         }
     }
 
+    /**
+     * Keystores already loaded, connections reuse the certificate and key instead of reading the file again.
+     * Changes to a keystore file are not seen until restart.
+     */
+    private final static Map<String,Pair<Certificate,KeyPair>> loaded = new ConcurrentHashMap<>();
+
     public static Pair<Certificate,KeyPair> getCert(String keystore, String alias, String password) {
+        return loaded.computeIfAbsent(
+                keystore + '\u0000' + alias + '\u0000' + password,
+                key -> readCert(keystore, alias, password));
+    }
+
+    private static Pair<Certificate,KeyPair> readCert(String keystore, String alias, String password) {
         logger.info("Loading cert from {} with alias {}",keystore,alias);
         KeyStore ks  = null;
         try {
             ks = KeyStore.getInstance("JKS");
             File fl = new File(keystore);
-            FileInputStream stream = new FileInputStream(fl);
-            ks.load(stream, password.toCharArray());
+            try (FileInputStream stream = new FileInputStream(fl)) {
+                ks.load(stream, password.toCharArray());
+            }
             final Key key = ks.getKey(alias, password.toCharArray());
             Certificate cert = ks.getCertificate(alias);
             KeyPair kp = new KeyPair(cert.getPublicKey(), (PrivateKey) key);
@@ -0,0 +1,72 @@
+package com.bitbreeds.webrtc.dtls;
+
+import com.bitbreeds.webrtc.transport.PeerSocket;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * The datagrams of an open batch, for a {@link BatchedDatagramTransport}.
+ *
+ * Only the thread that opened the batch adds to it,
+ * datagrams sent from other threads, like STUN answers, go out directly.
+ */
+class DatagramBatch {
+
+    private final PeerSocket socket;
+    private final List<DatagramPacket> packets = new ArrayList<>();
+
+    private volatile Thread owner;
+
+    DatagramBatch(PeerSocket socket) {
+        this.socket = socket;
+    }
+
+    void begin() {
+        owner = Thread.currentThread();
+    }
+
+    /**
+     * The record is copied, DTLS owns the buffer it passes in.
+     *
+     * @return false if no batch is open on this thread, and the caller should send directly
+     */
+    boolean add(byte[] buf, int off, int len) {
+        if (owner != Thread.currentThread()) {
+            return false;
+        }
+        packets.add(new DatagramPacket(Arrays.copyOfRange(buf, off, off + len), len));
+        return true;
+    }
+
+    void flush() throws IOException {
+        owner = null;
+        if (packets.isEmpty()) {
+            return;
+        }
+        try {
+            socket.send(packets);
+        } finally {
+            packets.clear();
+        }
+    }
+}
@@ -4,16 +4,15 @@ import com.bitbreeds.webrtc.common.ByteRange;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.signaling.BindingService;
 import com.bitbreeds.webrtc.signaling.UserData;
+import com.bitbreeds.webrtc.transport.PeerSocket;
 import org.apache.commons.codec.binary.Hex;
 import org.bouncycastle.crypto.tls.AlertDescription;
-import org.bouncycastle.crypto.tls.DatagramTransport;
 import org.bouncycastle.crypto.tls.TlsFatalAlert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.*;
-import java.util.Arrays;
 
 /*
  * Copyright (c) 28/02/2017, Jonas Waage
@@ -38,26 +37,29 @@ import java.util.Arrays;
  *
  * If we receive a STUN message, we reply and do not pass the message to the layer below
  */
-public class DtlsMuxStunTransport implements DatagramTransport {
+public class DtlsMuxStunTransport implements BatchedDatagramTransport {
 
     private final static int IP_BYTES = 20;
     private final static int IP_MAX_BYTES = IP_BYTES + 64;
     private final static int UDP_BYTES = 8;
 
-    private final DatagramSocket socket;
+    private final PeerSocket socket;
     private final int receiveLimit, sendLimit;
 
     private final UserData local;
 
+    private final DatagramBatch batch;
+
     private final BindingService bindingService = new BindingService();
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    public DtlsMuxStunTransport(UserData local, DatagramSocket socket, int mtu) throws IOException {
+    public DtlsMuxStunTransport(UserData local, PeerSocket socket, int mtu) throws IOException {
         this.local = local;
         this.socket = socket;
         this.receiveLimit = mtu - IP_BYTES - UDP_BYTES;
         this.sendLimit = mtu - IP_MAX_BYTES - UDP_BYTES;
+        this.batch = new DatagramBatch(socket);
         if (!socket.isBound() || !socket.isConnected())
         {
             throw new IllegalArgumentException("Unbound socket");
@@ -71,14 +73,16 @@ public class DtlsMuxStunTransport implements DatagramTransport {
         socket.setSoTimeout(waitMillis);
         DatagramPacket packet = new DatagramPacket(buf, off, len);
         socket.receive(packet);
-        logger.debug("Socket read msg: {}", Hex.encodeHexString(SignalUtil.copyRange(packet.getData(), new ByteRange(0,packet.getLength()))));
-        if(buf.length >= 2 && buf[0] == 0 && buf[1] == 1) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Socket read msg: {}", Hex.encodeHexString(SignalUtil.copyRange(packet.getData(), new ByteRange(off, off + packet.getLength()))));
+        }
+        if(packet.getLength() >= 2 && buf[off] == 0 && buf[off + 1] == 1) {
             SocketAddress currentSender = packet.getSocketAddress();
 
-            byte[] data = Arrays.copyOf(packet.getData(), packet.getLength());
-
             byte[] out = bindingService.processBindingRequest(
-                    data,
+                    buf,
+                    off,
+                    packet.getLength(),
                     local.getUserName(),
                     local.getPassword(),
                     (InetSocketAddress) currentSender
@@ -99,8 +103,20 @@ public class DtlsMuxStunTransport implements DatagramTransport {
         if (len > getSendLimit()) {
             throw new TlsFatalAlert(AlertDescription.record_overflow);
         }
-        DatagramPacket packet = new DatagramPacket(buf, off, len);
-        socket.send(packet);
+        if (!batch.add(buf, off, len)) {
+            DatagramPacket packet = new DatagramPacket(buf, off, len);
+            socket.send(packet);
+        }
+    }
+
+    @Override
+    public void beginBatch() {
+        batch.begin();
+    }
+
+    @Override
+    public void flushBatch() throws IOException {
+        batch.flush();
     }
 
     public void close() throws IOException {
@@ -0,0 +1,134 @@
+package com.bitbreeds.webrtc.dtls;
+
+import com.bitbreeds.webrtc.transport.PeerSocket;
+import org.bouncycastle.crypto.tls.AlertDescription;
+import org.bouncycastle.crypto.tls.TlsFatalAlert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.DatagramPacket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * DTLS transport for connections driven by datagram events.
+ *
+ * Datagrams are offered to the transport as they arrive, and DTLS reads them from a queue.
+ * STUN is answered before datagrams get here, so everything offered is DTLS.
+ *
+ * A receive that finds nothing within the wait time returns -1, so a wait of 0
+ * lets us decrypt whatever is queued without blocking.
+ */
+public class QueuedDatagramTransport implements BatchedDatagramTransport {
+
+    private final static int IP_BYTES = 20;
+    private final static int IP_MAX_BYTES = IP_BYTES + 64;
+    private final static int UDP_BYTES = 8;
+    private final static int QUEUE_CAPACITY = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final PeerSocket socket;
+    private final int receiveLimit, sendLimit;
+
+    private final BlockingQueue<byte[]> inbound = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final DatagramBatch batch;
+
+    public QueuedDatagramTransport(PeerSocket socket, int mtu) {
+        this.socket = socket;
+        this.receiveLimit = mtu - IP_BYTES - UDP_BYTES;
+        this.sendLimit = mtu - IP_MAX_BYTES - UDP_BYTES;
+        this.batch = new DatagramBatch(socket);
+        if (!socket.isBound() || !socket.isConnected()) {
+            throw new IllegalArgumentException("Unbound socket");
+        }
+    }
+
+    /**
+     * @param data received DTLS datagram
+     */
+    public void offer(byte[] data) {
+        if (!inbound.offer(data)) {
+            logger.debug("DTLS queue full, dropping datagram of {} bytes", data.length);
+        }
+    }
+
+    /**
+     * @return true if there are datagrams waiting to be received
+     */
+    public boolean hasQueued() {
+        return !inbound.isEmpty();
+    }
+
+    @Override
+    public int receive(byte[] buf, int off, int len, int waitMillis) throws IOException {
+        byte[] data;
+        try {
+            data = waitMillis > 0 ? inbound.poll(waitMillis, TimeUnit.MILLISECONDS) : inbound.poll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while receiving");
+        }
+        if (data == null) {
+            return -1;
+        }
+        int length = Math.min(len, data.length);
+        System.arraycopy(data, 0, buf, off, length);
+        return length;
+    }
+
+    @Override
+    public void send(byte[] buf, int off, int len) throws IOException {
+        if (len > getSendLimit()) {
+            throw new TlsFatalAlert(AlertDescription.record_overflow);
+        }
+        if (!batch.add(buf, off, len)) {
+            socket.send(new DatagramPacket(buf, off, len));
+        }
+    }
+
+    @Override
+    public void beginBatch() {
+        batch.begin();
+    }
+
+    @Override
+    public void flushBatch() throws IOException {
+        batch.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    @Override
+    public int getReceiveLimit() {
+        return receiveLimit;
+    }
+
+    @Override
+    public int getSendLimit() {
+        return sendLimit;
+    }
+}
@@ -1,8 +1,10 @@
 package com.bitbreeds.webrtc.peerconnection;
 
 import com.bitbreeds.webrtc.common.*;
+import com.bitbreeds.webrtc.dtls.BatchedDatagramTransport;
 import com.bitbreeds.webrtc.dtls.DtlsMuxStunTransport;
 import com.bitbreeds.webrtc.dtls.KeyStoreInfo;
+import com.bitbreeds.webrtc.dtls.QueuedDatagramTransport;
 import com.bitbreeds.webrtc.dtls.WebrtcDtlsServer;
 import com.bitbreeds.webrtc.model.webrtc.*;
 import com.bitbreeds.webrtc.model.sctp.SCTPPayloadProtocolId;
@@ -10,8 +12,14 @@ import com.bitbreeds.webrtc.model.webrtc.DataChannel;
 import com.bitbreeds.webrtc.sctp.impl.SCTP;
 import com.bitbreeds.webrtc.sctp.impl.SCTPImpl;
 import com.bitbreeds.webrtc.sctp.impl.SCTPNoopImpl;
+import com.bitbreeds.webrtc.sctp.impl.buffer.CongestionControllerFactory;
+import com.bitbreeds.webrtc.sctp.impl.buffer.StreamSchedulerFactory;
 import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
 import com.bitbreeds.webrtc.signaling.*;
+import com.bitbreeds.webrtc.transport.DedicatedPeerTransport;
+import com.bitbreeds.webrtc.transport.PeerSocket;
+import com.bitbreeds.webrtc.transport.PeerTransport;
+import com.bitbreeds.webrtc.transport.RoutingTransport;
 import org.apache.commons.codec.binary.Hex;
 import org.bouncycastle.crypto.tls.DTLSServerProtocol;
 import org.bouncycastle.crypto.tls.DatagramTransport;
@@ -22,17 +30,15 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.*;
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.bitbreeds.webrtc.common.SignalUtil.*;
-import static com.bitbreeds.webrtc.common.SignalUtil.copyRange;
 
 /*
  * Copyright (c) 16/05/16, Jonas Waage
@@ -58,7 +64,8 @@ import static com.bitbreeds.webrtc.common.SignalUtil.copyRange;
  *
  * An implementation of a webrtc peer connection.
  *
- * This is implemented using a UDP socket.
+ * This is implemented using a UDP socket from a {@link PeerTransport}, either owned by the
+ * connection or shared with other connections.
  * On this UDP socket DTLS and and STUN is multiplexed to allow encrypted SCTP messages, and
  * STUN to handle connectivity.
  *
@@ -68,6 +75,9 @@ import static com.bitbreeds.webrtc.common.SignalUtil.copyRange;
  * relatively easily.
  *
  *
+ * If the socket can push datagrams the connection is event driven, and STUN, DTLS and SCTP
+ * are handled as datagrams arrive. Otherwise {@link #run()} reads the socket on a thread of its own.
+ *
  * This peerconnection supports creation ordered/unordered webrtc datachannels.
  *
  */
@@ -79,37 +89,113 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
 
     enum ConnectionMode {STUN_BINDING, DTLS_HANDSHAKE, SCTP};
 
-    private final ReentrantLock lock = new ReentrantLock(true);
-
     private final static Logger logger = LoggerFactory.getLogger(ConnectionImplementation.class);
 
+    /**
+     * All outgoing SCTP packets, encrypted and sent in batches by a drain task on the shard
+     */
+    private final SingleWriterQueue<byte[]> outbound;
+
+    /**
+     * Most packets encrypted and sent by one run of the drain task
+     */
+    private final static int MAX_SEND_BATCH = 32;
+
     private SCTP sctp = new SCTPNoopImpl();
 
     private final static int DEFAULT_WAIT_MILLIS = 60000;
-    private final static int DEFAULT_MTU = 1500;
-    private final static int DEFAULT_BUFFER_SIZE = 20000;
+
+    /**
+     * Binding requests are a few hundred bytes, so one pooled buffer holds them
+     */
+    private final static int BINDING_BUFFER_SIZE = BufferPool.DEFAULT_BUFFER_SIZE;
+
+    private final static long MONITOR_INTERVAL_MILLIS = 3000;
+    private final static long HEARTBEAT_INTERVAL_MILLIS = 5000;
+    private final static long PATH_MTU_PROBE_INTERVAL_MILLIS = 1000;
 
     private final DTLSServerProtocol serverProtocol;
-    private final DatagramSocket socket;
+    private final PeerSocket socket;
 
     private final int port;
 
-    private boolean running = true;
-    private ConnectionMode mode;
+    private volatile boolean running = true;
+    private volatile ConnectionMode mode;
 
     private final TlsServer dtlsServer;
     private volatile DatagramTransport transport;
 
+    /**
+     * The datagram transport under DTLS, collects the records of a send batch for the socket
+     */
+    private volatile BatchedDatagramTransport datagrams;
+
     private final BindingService bindingService = new BindingService();
 
-    private SocketAddress sender;
+    private volatile SocketAddress sender;
+
+    /**
+     * Queue DTLS reads from when the connection is event driven
+     */
+    private volatile QueuedDatagramTransport dtlsInbound;
+
+    /**
+     * The DTLS handshake blocks, so event driven connections run it here
+     */
+    private final Executor handshakeExecutor;
+
+    /**
+     * Creates the thread reading the socket when it can not push datagrams
+     */
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Congestion control for the association started after the handshake
+     */
+    private final CongestionControllerFactory congestionControl;
+    private final StreamSchedulerFactory streamScheduler;
+    private final int linkMtu;
+
+    /**
+     * Most datagrams handed to SCTP in one batch
+     */
+    private final static int MAX_RECEIVE_BATCH = 64;
+
+    /**
+     * Decrypted datagrams waiting for the association
+     */
+    private final ConcurrentLinkedQueue<PooledBuffer> received = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True when {@link #handleReceived()} is queued on the executor
+     */
+    private final AtomicBoolean receiveScheduled = new AtomicBoolean(false);
+
+    /**
+     * True when {@link #receiveDtls()} is queued on the executor
+     */
+    private final AtomicBoolean dtlsScheduled = new AtomicBoolean(false);
 
     private final ConcurrentHashMap<Integer,DataChannel> dataChannels = new ConcurrentHashMap<>();
 
-    private final ExecutorService processPool = Executors.newFixedThreadPool(1);
-    private final ExecutorService workPool = Executors.newFixedThreadPool(1);
+    /**
+     * The shard this association is pinned to, it handles input, timers and output.
+     * With virtual threads this is a serial executor of its own instead.
+     */
+    private final Executor shard;
+
+    /**
+     * Runs association work on the shard, and rejects it once the connection has stopped
+     */
+    private final Executor executor;
+
+    /**
+     * Runs user callbacks in order, off the shard since they may block
+     */
+    private final Executor callbackExecutor;
 
     private final Runnable heartBeat;
+    private final Runnable pathMtuProbe;
     private final Runnable monitor;
     private final IceCandidate iceCandidate;
 
@@ -127,18 +213,55 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
 
     private PeerConnection peerConnection;
 
+    /**
+     * Connection listening on its own ephemeral port
+     */
     public ConnectionImplementation(
             KeyStoreInfo keyStoreInfo,
             PeerDescription remoteDescription) {
-        logger.info("Initializing {}",this.getClass().getName());
+        this(keyStoreInfo, remoteDescription, new DedicatedPeerTransport());
+    }
+
+    /**
+     * Connection receiving its datagrams through a socket opened from the given transport
+     */
+    public ConnectionImplementation(
+            KeyStoreInfo keyStoreInfo,
+            PeerDescription remoteDescription,
+            PeerTransport peerTransport) {
+        this(keyStoreInfo, remoteDescription, peerTransport, ConnectionOptions.defaults());
+    }
+
+    /**
+     * Connection receiving its datagrams through a socket opened from the given transport,
+     * running on the executors from the options
+     */
+    public ConnectionImplementation(
+            KeyStoreInfo keyStoreInfo,
+            PeerDescription remoteDescription,
+            PeerTransport peerTransport,
+            ConnectionOptions options) {
+        logger.info("Initializing {} with {}",this.getClass().getName(),options);
         this.remoteDescription = remoteDescription;
+        this.shard = options.newAssociationExecutor();
+        this.executor = task -> {
+            if (!running) {
+                throw new RejectedExecutionException("Connection stopped");
+            }
+            shard.execute(task);
+        };
+        this.callbackExecutor = options.newCallbackExecutor();
+        this.outbound = new SingleWriterQueue<>(shard, MAX_SEND_BATCH, this::writeToTransport);
+        this.handshakeExecutor = options.handshakeExecutor();
+        this.threadFactory = options.connectionThreadFactory();
+        this.congestionControl = options.getCongestionControl();
+        this.streamScheduler = options.getStreamScheduler();
+        this.linkMtu = options.getMtuProfile().getLinkMtu();
         this.dtlsServer = new WebrtcDtlsServer(keyStoreInfo);
         try {
-            this.socket = new DatagramSocket();
-            this.socket.setReceiveBufferSize(2000000);
-            this.socket.setSendBufferSize(2000000);
+            this.socket = peerTransport.open(localUser.getUserName());
             this.port = socket.getLocalPort();
-            this.serverProtocol = new DTLSServerProtocol(new SecureRandom());
+            this.serverProtocol = new DTLSServerProtocol(CryptoPool.random());
             this.mode = ConnectionMode.STUN_BINDING;
             this.peerConnection = new PeerConnection(this);
             /*
@@ -161,13 +284,10 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
              * Print monitoring information from connection
              */
             this.monitor = () -> {
-                while (running && socket.isBound()) {
-                    try {
-                        Thread.sleep(3000);
-                        sctp.runMonitoring();
-                    } catch (Exception e) {
-                        logger.error("Logging error", e);
-                    }
+                try {
+                    sctp.runMonitoring();
+                } catch (Exception e) {
+                    logger.error("Logging error", e);
                 }
             };
 
@@ -175,18 +295,29 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
              * Create heartbeat message
              */
             this.heartBeat = () -> {
-                while (running && socket.isBound()) {
-                    try {
-                        Thread.sleep(5000);
-                        sctp.createHeartBeat().ifPresent(beat -> {
+                try {
+                    sctp.createHeartBeat().ifPresent(beat -> {
+                        if (logger.isDebugEnabled()) {
                             logger.debug("Sending heartbeat: " + Hex.encodeHexString(beat.getPayload()));
-                            processPool.submit(() ->
-                                    putDataOnWire(beat.getPayload())
-                            );
-                        });
-                    } catch (Exception e) {
-                        logger.error("HeartBeat error: ", e);
-                    }
+                        }
+                        putDataOnWire(beat.getPayload());
+                    });
+                } catch (Exception e) {
+                    logger.error("HeartBeat error: ", e);
+                }
+            };
+
+            /*
+             * Probe for a larger path MTU until the search completes
+             */
+            this.pathMtuProbe = () -> {
+                try {
+                    sctp.createPathMtuProbe().ifPresent(probe -> {
+                        logger.debug("Sending path MTU probe of {} bytes", probe.getPayload().length);
+                        putDataOnWire(probe.getPayload());
+                    });
+                } catch (Exception e) {
+                    logger.error("Path MTU probe error: ", e);
                 }
             };
 
@@ -198,40 +329,62 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
 
 
 
+    /**
+     * Start the connection, event driven if the socket can push datagrams,
+     * otherwise with a thread reading the socket.
+     */
+    public void start() {
+        if(socket.supportsListener()) {
+            logger.info("Started listening to port: " + port);
+            socket.setListener(this::onDatagram);
+        }
+        else {
+            threadFactory.newThread(this).start();
+        }
+    }
+
     @Override
     public void run() {
 
         logger.info("Started listening to port: " + port);
         while(running && socket.isBound()) {
 
-            byte[] bt = new byte[DEFAULT_BUFFER_SIZE];
-
                 try {
                     if (mode == ConnectionMode.STUN_BINDING) {
-                        logger.info("Listening for binding on: " + socket.getLocalSocketAddress() + " - " + socket.getPort());
-                        Thread.sleep(5); //No reason to hammer on this
-
-                        DatagramPacket packet = new DatagramPacket(bt, 0, bt.length);
-                        socket.receive(packet);
-                        SocketAddress currentSender = packet.getSocketAddress();
-
-                        sender = currentSender;
-                        byte[] data = Arrays.copyOf(packet.getData(), packet.getLength());
-                        logger.info("Received data: " + Hex.encodeHexString(data) + " on " + socket.getLocalSocketAddress() + " - " + socket.getPort());
-
-                        if(this.remoteDescription == null) {
-                            throw new IllegalArgumentException("No user data set for remote user");
+                        logger.info("Listening for binding on: " + socket.getLocalSocketAddress());
+
+                        PooledBuffer buffer = BufferPool.shared().acquire(BINDING_BUFFER_SIZE);
+                        byte[] out;
+                        SocketAddress currentSender;
+                        try {
+                            DatagramPacket packet = new DatagramPacket(buffer.array(), 0, BINDING_BUFFER_SIZE);
+                            socket.receive(packet);
+                            currentSender = packet.getSocketAddress();
+
+                            sender = currentSender;
+                            if (logger.isTraceEnabled()) {
+                                logger.trace("Received data: " + Hex.encodeHexString(Arrays.copyOf(packet.getData(), packet.getLength())) + " on " + socket.getLocalSocketAddress());
+                            }
+
+                            if(this.remoteDescription == null) {
+                                throw new IllegalArgumentException("No user data set for remote user");
+                            }
+
+                            out = bindingService.processBindingRequest(
+                                    packet.getData(),
+                                    0,
+                                    packet.getLength(),
+                                    localUser.getUserName(),
+                                    localUser.getPassword(),
+                                    (InetSocketAddress) currentSender
+                            );
+                        } finally {
+                            buffer.release();
                         }
 
-                        byte[] out = bindingService.processBindingRequest(
-                                data,
-                                localUser.getUserName(),
-                                localUser.getPassword(),
-                                (InetSocketAddress) currentSender
-                        );
-
-                        ByteBuffer outData = ByteBuffer.wrap(out);
-                        logger.info("Sending: " + Hex.encodeHexString(outData.array()) + " to " + currentSender);
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("Sending: " + Hex.encodeHexString(out) + " to " + currentSender);
+                        }
 
                         DatagramPacket pc = new DatagramPacket(out, 0, out.length);
                         pc.setSocketAddress(sender);
@@ -241,26 +394,21 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
                         logger.info("-> DTLS handshake");
                     }
                     else if(mode == ConnectionMode.DTLS_HANDSHAKE) {
-                        Thread.sleep(5);
-
                         if(transport == null) {
                             socket.connect(sender);
 
                             logger.info("Connecting DTLS mux");
                             /*
-                             * {@link NioUdpTransport} might replace the {@link UDPTransport} here.
-                             * @see <a href="https://github.com/RestComm/mediaserver/blob/master/io/rtp/src/main/java/org/mobicents/media/server/impl/srtp/NioUdpTransport.java">NioUdpTransport</a>
+                             * Event driven connections use a {@link QueuedDatagramTransport} instead,
+                             * see {@link #onDatagram(byte[], SocketAddress)}.
                              */
-                            //DatagramTransport udpTransport = new UDPTransport(socket, DEFAULT_MTU);
-                            DtlsMuxStunTransport muxStunTransport = new DtlsMuxStunTransport(localUser, socket, DEFAULT_MTU);
+                            //DatagramTransport udpTransport = new UDPTransport(socket, linkMtu);
+                            DtlsMuxStunTransport muxStunTransport = new DtlsMuxStunTransport(localUser, socket, linkMtu);
+                            datagrams = muxStunTransport;
                             transport = serverProtocol.accept(dtlsServer,muxStunTransport);
                         }
 
-                        sctp = new SCTPImpl(this);
-                        mode = ConnectionMode.SCTP;
-                        logger.info("-> SCTP mode");
-                        new Thread(monitor).start();
-                        new Thread(heartBeat).start();
+                        startSctp();
                     }
                     else if(mode == ConnectionMode.SCTP) {
                         logger.debug("In SCTP mode");
@@ -269,11 +417,15 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
                          * If the output of handling the message is a message, then we send those
                          * using the same thread.
                          */
-                        byte[] buf = new byte[transport.getReceiveLimit()];
-                        int length = transport.receive(buf, 0, buf.length, DEFAULT_WAIT_MILLIS);
+                        int limit = transport.getReceiveLimit();
+                        PooledBuffer buffer = BufferPool.shared().acquire(limit);
+                        int length = transport.receive(buffer.array(), 0, limit, DEFAULT_WAIT_MILLIS);
                         if (length >= 0) {
-                            byte[] handled = Arrays.copyOf(buf, length);
-                            processReceivedMessage(handled);
+                            buffer.setLength(length);
+                            processReceivedMessage(buffer);
+                        }
+                        else {
+                            buffer.release();
                         }
                     }
                 }
@@ -285,42 +437,220 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
         }
 
 
-        logger.info("Shutting down processPool");
+        logger.info("Stopped listening to port: " + port);
+        socket.close();
+        closeSctp();
+    }
+
+    /**
+     * Event driven counterpart to {@link #run()}, called by the transport for each datagram.
+     *
+     * STUN is answered right away. The first valid binding request connects the socket
+     * and starts the DTLS handshake, after that datagrams are queued for DTLS.
+     * Once in SCTP mode each datagram triggers decrypting whatever DTLS has queued.
+     */
+    private void onDatagram(byte[] data, SocketAddress from) {
+        if(!running) {
+            return;
+        }
+        try {
+            if (RoutingTransport.isBindingRequest(data)) {
+                respondToBinding(data, from);
+            }
+            else if (dtlsInbound != null) {
+                dtlsInbound.offer(data);
+                if (mode == ConnectionMode.SCTP && dtlsScheduled.compareAndSet(false, true)) {
+                    executor.execute(this::receiveDtls);
+                }
+            }
+            else {
+                logger.debug("Dropping datagram from {} before binding", from);
+            }
+        }
+        catch (Exception e) {
+            logger.warn("Failed handling datagram from {}", from, e);
+        }
+    }
+
+    /**
+     * Answer a binding request, and start the DTLS handshake on the first one.
+     */
+    private void respondToBinding(byte[] data, SocketAddress from) throws IOException {
+        if(this.remoteDescription == null) {
+            throw new IllegalArgumentException("No user data set for remote user");
+        }
+
+        byte[] out = bindingService.processBindingRequest(
+                data,
+                localUser.getUserName(),
+                localUser.getPassword(),
+                (InetSocketAddress) from
+        );
+
+        DatagramPacket pc = new DatagramPacket(out, 0, out.length);
+        pc.setSocketAddress(from);
+        socket.send(pc);
+
+        if (mode == ConnectionMode.STUN_BINDING) {
+            sender = from;
+            socket.connect(from);
+            dtlsInbound = new QueuedDatagramTransport(socket, linkMtu);
+            datagrams = dtlsInbound;
+            mode = ConnectionMode.DTLS_HANDSHAKE;
+            logger.info("-> DTLS handshake");
+            handshakeExecutor.execute(this::acceptDtls);
+        }
+    }
+
+    /**
+     * Run the DTLS handshake on datagrams queued by {@link #onDatagram(byte[], SocketAddress)}.
+     */
+    private void acceptDtls() {
         try {
-            processPool.shutdown();
-            processPool.awaitTermination(5,TimeUnit.SECONDS);
-            logger.info("Controlled shutdown of processPool finished");
+            transport = serverProtocol.accept(dtlsServer, dtlsInbound);
+            startSctp();
+            executor.execute(this::receiveDtls);
         }
         catch (Exception e) {
-            logger.info("Controlled shutdown of processPool failed, due to: ",e);
-            processPool.shutdownNow();
+            logger.error("DTLS handshake failed:", e);
+            stop();
         }
+    }
 
-        logger.info("Shutting down workPool");
-        try{
-            workPool.shutdown();
-            workPool.awaitTermination(5,TimeUnit.SECONDS);
-            logger.info("Controlled shutdown of workPool finished");
+    /**
+     * Decrypt every queued DTLS record without waiting, and hand the result to SCTP.
+     * Records decrypted in one run end up in the same SCTP batch.
+     */
+    private void receiveDtls() {
+        dtlsScheduled.set(false);
+        try {
+            int limit = transport.getReceiveLimit();
+            while (true) {
+                PooledBuffer buffer = BufferPool.shared().acquire(limit);
+                int length = transport.receive(buffer.array(), 0, limit, 0);
+                if (length > 0) {
+                    buffer.setLength(length);
+                    processReceivedMessage(buffer);
+                }
+                else {
+                    buffer.release();
+                    if (length < 0) {
+                        break;
+                    }
+                }
+            }
         }
         catch (Exception e) {
-            logger.info("Controlled shutdown of workPool failed, due to: ",e);
-            workPool.shutdownNow();
+            logger.error("Com error:",e);
+            logger.info("Shutting down, we cannot continue here");
+            stop();
+        }
+    }
+
+    private void startSctp() throws IOException {
+        int maxPacketSize = Math.min(transport.getSendLimit(), MtuProfile.MAX_RECORD_PLAINTEXT);
+        sctp = new SCTPImpl(this, executor, congestionControl, maxPacketSize, streamScheduler);
+        mode = ConnectionMode.SCTP;
+        logger.info("-> SCTP mode, packets up to {} bytes", maxPacketSize);
+        repeat(monitor, MONITOR_INTERVAL_MILLIS);
+        repeat(heartBeat, HEARTBEAT_INTERVAL_MILLIS);
+        repeat(pathMtuProbe, PATH_MTU_PROBE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Run the task on the shard at the given interval, using the shared timer,
+     * until the connection stops.
+     *
+     * @param task task to run
+     * @param intervalMillis time between runs
+     */
+    private void repeat(Runnable task, long intervalMillis) {
+        HashedWheelTimer.shared().schedule(() -> {
+            if (running && socket.isBound()) {
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            repeat(task, intervalMillis);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Connection stopped, not repeating task");
+                }
+            }
+        }, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop an event driven connection, tasks already on the shard are allowed to finish.
+     */
+    private void stop() {
+        running = false;
+        socket.close();
+        closeSctp();
+    }
+
+    /**
+     * Free the buffers held by the association once the tasks already on the shard are done.
+     */
+    private void closeSctp() {
+        SCTP current = sctp;
+        try {
+            shard.execute(current::close);
+        }
+        catch (RejectedExecutionException e) {
+            current.close();
         }
     }
 
     @Override
     public void processReceivedMessage(byte[] buf) {
-        processPool.submit(() -> {
-            try {
-                List<WireRepresentation> data = sctp.handleRequest(buf);
-                data.forEach(i->putDataOnWire(i.getPayload()));
-            } catch (Exception e) {
-                logger.error("Failed handling message: ", e);
-            }
-        });
-        logger.debug("Input: " + Hex.encodeHexString(buf));
+        processReceivedMessage(PooledBuffer.wrap(buf));
     }
 
+    /**
+     * Queue a decrypted SCTP packet for the association.
+     * Takes over the reference to the buffer, it is released once SCTP has handled it.
+     *
+     * @param buffer the received packet
+     */
+    public void processReceivedMessage(PooledBuffer buffer) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Input: " + Hex.encodeHexString(buffer.toBytes()));
+        }
+        received.offer(buffer);
+        if (receiveScheduled.compareAndSet(false, true)) {
+            executor.execute(this::handleReceived);
+        }
+    }
+
+    /**
+     * Hand everything received since the last run to SCTP as one batch,
+     * so it is handled in a single task and acknowledged with a single SACK.
+     */
+    private void handleReceived() {
+        receiveScheduled.set(false);
+        List<PooledBuffer> batch = new ArrayList<>();
+        PooledBuffer next;
+        while (batch.size() < MAX_RECEIVE_BATCH && (next = received.poll()) != null) {
+            batch.add(next);
+        }
+        if (!received.isEmpty() && receiveScheduled.compareAndSet(false, true)) {
+            executor.execute(this::handleReceived);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<WireRepresentation> data = sctp.handleRequests(batch);
+            data.forEach(i->putDataOnWire(i.getPayload()));
+        } catch (Exception e) {
+            logger.error("Failed handling messages: ", e);
+        } finally {
+            batch.forEach(PooledBuffer::release);
+        }
+    }
     /**
      * Data is sent as a SCTPMessage
      * @param data String in default charset
@@ -366,12 +696,9 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
     public void send(byte[] data,SCTPPayloadProtocolId ppid,int streamId) {
         if(mode == ConnectionMode.SCTP && running) {
             /*
-             * Payload can be fragmented if more then 1024 bytes
+             * Fragmented to fit the current path MTU, the association shard sends the packets
              */
-            List<WireRepresentation> out = sctp.bufferForSending(data, ppid,streamId);
-            processPool.submit(() ->
-                out.forEach(i->putDataOnWire(i.getPayload()))
-            );
+            sctp.bufferForSending(data, ppid,streamId);
         }
         else {
             logger.error("Data {} not sent, socket not open",Hex.encodeHex(data));
@@ -384,20 +711,42 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
 
     /**
      * The method to call to send data.
-     * Uses a fair lock to ensure thread safety and avoid starvation
+     * Safe to call from any thread, callers never wait for each other or do the write,
+     * see {@link SingleWriterQueue}.
      *
      * @param out data to send
      */
     @Override
     public void putDataOnWire(byte[] out) {
-        logger.trace("Sending: " + Hex.encodeHexString(out));
-        lock.lock();
+        outbound.offer(out);
+    }
+
+    /**
+     * Encrypt a batch and hand the records to the socket together,
+     * only called by the drain task of {@link #outbound}
+     *
+     * @param batch packets to send
+     */
+    private void writeToTransport(List<byte[]> batch) {
+        BatchedDatagramTransport underlying = datagrams;
+        underlying.beginBatch();
         try {
-            transport.send(out, 0, out.length);
-        } catch (IOException e) {
-            logger.error("Sending message {} failed", Hex.encodeHex(out), e);
+            for (byte[] out : batch) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Sending: " + Hex.encodeHexString(out));
+                }
+                try {
+                    transport.send(out, 0, out.length);
+                } catch (IOException e) {
+                    logger.error("Sending message {} failed", Hex.encodeHex(out), e);
+                }
+            }
         } finally {
-            lock.unlock();
+            try {
+                underlying.flushBatch();
+            } catch (IOException e) {
+                logger.error("Sending {} packets failed", batch.size(), e);
+            }
         }
     }
 
@@ -419,15 +768,14 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
                 }
 
                 logger.debug("Received open: " + Hex.encodeHexString(msgData));
-                DataChannelType type = DataChannelType.fromInt(unsign(msgData[2]));
-                DataChannelPriority priority = DataChannelPriority.fromInt(intFromTwoBytes(
-                        copyRange(msgData, new ByteRange(2, 4))));
-                int relParam = intFromFourBytes(copyRange(msgData, new ByteRange(4, 8)));
-                int labelLength = SignalUtil.intFromTwoBytes(copyRange(msgData, new ByteRange(8, 10)));
-                int protocolLength = SignalUtil.intFromTwoBytes(copyRange(msgData, new ByteRange(10, 12)));
-                byte[] label = SignalUtil.copyRange(msgData, new ByteRange(12, 12 + labelLength));
-                byte[] protocol = SignalUtil.copyRange(msgData,
-                        new ByteRange(12 + labelLength, 12 + labelLength + protocolLength));
+                ByteCursor open = ByteCursor.wrap(msgData).skip(1);
+                DataChannelType type = DataChannelType.fromInt(open.readUnsignedByte());
+                DataChannelPriority priority = DataChannelPriority.fromInt(open.readUnsignedShort());
+                int relParam = open.readInt();
+                int labelLength = open.readUnsignedShort();
+                int protocolLength = open.readUnsignedShort();
+                byte[] label = open.readBytes(labelLength);
+                byte[] protocol = open.readBytes(protocolLength);
 
                 ReliabilityParameters parameters = new ReliabilityParameters(
                         relParam,
@@ -436,6 +784,8 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
                         label,
                         protocol);
 
+                sctp.setReliability(deliverable.getStreamId(), parameters);
+
                 /*
                  * Send ack
                  */
@@ -444,26 +794,33 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
 
                 DataChannel nuDef = new DataChannel(this,deliverable.getStreamId(), parameters);
 
-                /*
-                 * Allow user to hook in behavior when datachannel is created
-                 */
-                peerConnection.onDataChannel.accept(nuDef);
-
                 dataChannels.put(nuDef.getStreamId(), nuDef);
 
                 logger.info("Opening datachannel with is {} and params {}", nuDef.getStreamId(), nuDef.getReliabilityParameters());
 
                 /*
-                 * Run user callback
+                 * Allow user to hook in behavior when datachannel is created, then run the open callback.
+                 * Queued before any message on the channel, so handlers set here see every message.
                  */
-                nuDef.onOpen.accept(new OpenEvent());
+                callbackExecutor.execute(() -> {
+                    try {
+                        peerConnection.onDataChannel.accept(nuDef);
+                    } catch (Exception e) {
+                        logger.error("OnDataChannel failed",e);
+                    }
+                    try {
+                        nuDef.onOpen.accept(new OpenEvent());
+                    } catch (Exception e) {
+                        logger.error("OnOpen failed",e);
+                    }
+                });
 
             } else {
                 throw new IllegalArgumentException("PPID " +SCTPPayloadProtocolId.WEBRTC_DCEP + " should be sent with " + DataChannelMessageType.OPEN);
             }
         } else {
             if(definition != null) {
-                workPool.submit(() -> {
+                callbackExecutor.execute(() -> {
                     try {
                         definition.onMessage.accept(new MessageEvent(deliverable.getData(),sender));
                     } catch (Exception e) {
@@ -478,6 +835,34 @@ public class ConnectionImplementation implements Runnable,ConnectionInternalApi
     }
 
 
+    @Override
+    public long getBufferedAmount(int streamId) {
+        return sctp.getBufferedAmount(streamId);
+    }
+
+    @Override
+    public void setBufferedAmountLowThreshold(int streamId, long threshold) {
+        sctp.setBufferedAmountLowThreshold(streamId, threshold);
+    }
+
+    /**
+     * Called from the association, the user callback runs on the callback executor
+     */
+    @Override
+    public void bufferedAmountLow(int streamId) {
+        DataChannel definition = dataChannels.get(streamId);
+        if(definition != null) {
+            callbackExecutor.execute(() -> {
+                try {
+                    definition.onBufferedAmountLow.accept(new BufferedAmountLowEvent(definition.getBufferedAmount()));
+                } catch (Exception e) {
+                    logger.error("OnBufferedAmountLow failed",e);
+                }
+            });
+        }
+    }
+
+
     public void setRunning(boolean running) {
         this.running = running;
     }
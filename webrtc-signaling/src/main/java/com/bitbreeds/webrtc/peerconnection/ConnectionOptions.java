@@ -0,0 +1,232 @@
+package com.bitbreeds.webrtc.peerconnection;
+
+import com.bitbreeds.webrtc.common.SerialExecutor;
+import com.bitbreeds.webrtc.common.ShardedExecutor;
+import com.bitbreeds.webrtc.common.ThreadingMode;
+import com.bitbreeds.webrtc.common.VirtualThreads;
+import com.bitbreeds.webrtc.sctp.impl.buffer.CongestionControllerFactory;
+import com.bitbreeds.webrtc.sctp.impl.buffer.StreamSchedulerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Settings for how a {@link ConnectionImplementation} runs.
+ *
+ * Immutable, use the with methods to create a changed copy.
+ */
+public class ConnectionOptions {
+
+    /**
+     * User callbacks may block, so by default they get threads of their own as needed
+     */
+    private final static Executor DEFAULT_CALLBACK_POOL = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "datachannel-callback");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The DTLS handshake blocks until the peer answers, so it runs on a pool of its own
+     */
+    private final static Executor HANDSHAKE_POOL = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "dtls-handshake");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ShardedExecutor shards;
+    private final Executor callbackPool;
+    private final ThreadingMode threadingMode;
+    private final CongestionControllerFactory congestionControl;
+    private final MtuProfile mtuProfile;
+    private final StreamSchedulerFactory streamScheduler;
+
+    /**
+     * @param shards event loops associations are pinned to
+     * @param callbackPool pool user callbacks run on, in order per connection
+     * @param threadingMode platform or virtual threads
+     */
+    public ConnectionOptions(ShardedExecutor shards, Executor callbackPool, ThreadingMode threadingMode) {
+        this(shards, callbackPool, threadingMode, CongestionControllerFactory.RFC4960, MtuProfile.INTERNET,
+                StreamSchedulerFactory.WEIGHTED_FAIR);
+    }
+
+    /**
+     * @param shards event loops associations are pinned to
+     * @param callbackPool pool user callbacks run on, in order per connection
+     * @param threadingMode platform or virtual threads
+     * @param congestionControl congestion control for data sent on each association
+     * @param mtuProfile link MTU path MTU discovery searches up to
+     * @param streamScheduler how data channels on one association share the link
+     */
+    public ConnectionOptions(
+            ShardedExecutor shards,
+            Executor callbackPool,
+            ThreadingMode threadingMode,
+            CongestionControllerFactory congestionControl,
+            MtuProfile mtuProfile,
+            StreamSchedulerFactory streamScheduler) {
+        if (threadingMode == ThreadingMode.VIRTUAL && !VirtualThreads.isAvailable()) {
+            throw new IllegalStateException(
+                    "Virtual threads need JDK 21 and a build with the jdk21 profile");
+        }
+        this.shards = shards;
+        this.callbackPool = callbackPool;
+        this.threadingMode = threadingMode;
+        this.congestionControl = congestionControl;
+        this.mtuProfile = mtuProfile;
+        this.streamScheduler = streamScheduler;
+    }
+
+    /**
+     * @param shards event loops associations are pinned to
+     * @param callbackPool pool user callbacks run on, in order per connection
+     */
+    public ConnectionOptions(ShardedExecutor shards, Executor callbackPool) {
+        this(shards, callbackPool, ThreadingMode.PLATFORM);
+    }
+
+    /**
+     * @return options using the shared shards, one per core
+     */
+    public static ConnectionOptions defaults() {
+        return new ConnectionOptions(ShardedExecutor.shared(), DEFAULT_CALLBACK_POOL);
+    }
+
+    public ConnectionOptions withShards(ShardedExecutor shards) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    public ConnectionOptions withCallbackPool(Executor callbackPool) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    /**
+     * With {@link ThreadingMode#VIRTUAL} the shards and callback pool are not used,
+     * every connection serializes its work on virtual threads instead.
+     *
+     * @throws IllegalStateException if virtual threads are not available
+     */
+    public ConnectionOptions withThreadingMode(ThreadingMode threadingMode) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    /**
+     * @param congestionControl for example {@link CongestionControllerFactory#BBR} for latency sensitive channels
+     */
+    public ConnectionOptions withCongestionControl(CongestionControllerFactory congestionControl) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    /**
+     * @param mtuProfile for example {@link MtuProfile#JUMBO} for peers in the same datacenter
+     */
+    public ConnectionOptions withMtuProfile(MtuProfile mtuProfile) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    /**
+     * The default {@link StreamSchedulerFactory#WEIGHTED_FAIR} shares the link by data channel priority,
+     * so a channel with little data is not stuck behind one filling the congestion window.
+     *
+     * @param streamScheduler for example {@link StreamSchedulerFactory#ROUND_ROBIN} to ignore priorities
+     */
+    public ConnectionOptions withStreamScheduler(StreamSchedulerFactory streamScheduler) {
+        return new ConnectionOptions(shards, callbackPool, threadingMode, congestionControl, mtuProfile, streamScheduler);
+    }
+
+    public ShardedExecutor getShards() {
+        return shards;
+    }
+
+    public Executor getCallbackPool() {
+        return callbackPool;
+    }
+
+    public ThreadingMode getThreadingMode() {
+        return threadingMode;
+    }
+
+    public CongestionControllerFactory getCongestionControl() {
+        return congestionControl;
+    }
+
+    public MtuProfile getMtuProfile() {
+        return mtuProfile;
+    }
+
+    public StreamSchedulerFactory getStreamScheduler() {
+        return streamScheduler;
+    }
+
+    /**
+     * @return executor for the work of one association, tasks run one at a time
+     */
+    public Executor newAssociationExecutor() {
+        if (threadingMode == ThreadingMode.VIRTUAL) {
+            return new SerialExecutor(VirtualThreads.perTaskExecutor("association"));
+        }
+        return shards.next();
+    }
+
+    /**
+     * @return executor for the user callbacks of one connection, tasks run in order
+     */
+    public Executor newCallbackExecutor() {
+        if (threadingMode == ThreadingMode.VIRTUAL) {
+            return new SerialExecutor(VirtualThreads.perTaskExecutor("datachannel-callback"));
+        }
+        return new SerialExecutor(callbackPool);
+    }
+
+    /**
+     * @return factory for the thread reading a blocking socket
+     */
+    public ThreadFactory connectionThreadFactory() {
+        if (threadingMode == ThreadingMode.VIRTUAL) {
+            return VirtualThreads.factory("connection");
+        }
+        return Thread::new;
+    }
+
+    /**
+     * @return executor for blocking DTLS handshakes
+     */
+    public Executor handshakeExecutor() {
+        if (threadingMode == ThreadingMode.VIRTUAL) {
+            return VirtualThreads.perTaskExecutor("dtls-handshake");
+        }
+        return HANDSHAKE_POOL;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionOptions{" +
+                "shards=" + shards.size() +
+                ", callbackPool=" + callbackPool +
+                ", threadingMode=" + threadingMode +
+                ", congestionControl=" + congestionControl +
+                ", mtuProfile=" + mtuProfile +
+                ", streamScheduler=" + streamScheduler +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.bitbreeds.webrtc.peerconnection;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Link MTU a connection assumes for its path, the largest SCTP packet is found by
+ * path MTU discovery up to what one DTLS record carries on this link.
+ */
+public enum MtuProfile {
+
+    /**
+     * Ethernet sized paths, for peers across the internet.
+     */
+    INTERNET(1500),
+
+    /**
+     * Jumbo frames, for peers in the same datacenter.
+     */
+    JUMBO(9000),
+
+    /**
+     * Loopback, for peers on the same host.
+     * DTLS records carry at most {@link #MAX_RECORD_PLAINTEXT} bytes, so that limits packets here.
+     */
+    LOOPBACK(65535);
+
+    /**
+     * Largest plaintext in one DTLS record
+     */
+    public static final int MAX_RECORD_PLAINTEXT = 1 << 14;
+
+    private final int linkMtu;
+
+    MtuProfile(int linkMtu) {
+        this.linkMtu = linkMtu;
+    }
+
+    /**
+     * @return MTU of the link, IP and UDP headers included
+     */
+    public int getLinkMtu() {
+        return linkMtu;
+    }
+
+}
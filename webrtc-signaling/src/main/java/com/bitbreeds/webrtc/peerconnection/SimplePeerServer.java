@@ -3,14 +3,19 @@ package com.bitbreeds.webrtc.peerconnection;
 import com.bitbreeds.webrtc.dtls.CertUtil;
 import com.bitbreeds.webrtc.dtls.KeyStoreInfo;
 import com.bitbreeds.webrtc.signaling.*;
+import com.bitbreeds.webrtc.transport.DedicatedPeerTransport;
+import com.bitbreeds.webrtc.transport.NioUdpTransport;
+import com.bitbreeds.webrtc.transport.PeerTransport;
 import org.pcollections.ConsPStack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sdp.MediaDescription;
 import javax.sdp.SessionDescription;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -44,22 +49,80 @@ public class SimplePeerServer {
      */
     private final Function<PeerDescription,ConnectionImplementation> connectionWrapper;
 
+    /**
+     * Transports connections get their sockets from
+     */
+    private final List<PeerTransport> transports;
+
+    private final AtomicInteger nextTransport = new AtomicInteger(0);
+
     public SimplePeerServer(
             KeyStoreInfo keyStoreInfo,
             Function<PeerDescription,ConnectionImplementation> connectionWrapper) {
         this.connectionWrapper = connectionWrapper;
         this.keyStoreInfo = keyStoreInfo;
+        this.transports = Collections.singletonList(new DedicatedPeerTransport());
     }
 
     public SimplePeerServer(KeyStoreInfo keyStoreInfo) {
         this.keyStoreInfo = keyStoreInfo;
         this.connectionWrapper = null;
+        this.transports = Collections.singletonList(new DedicatedPeerTransport());
+    }
+
+    /**
+     * Server where all connections share the given UDP ports, each served by a {@link NioUdpTransport} event loop.
+     * Connections are spread over the ports round robin, and datagrams
+     * are routed to connections by remote address and ICE ufrag.
+     *
+     * @param keyStoreInfo server keystore
+     * @param sharedPorts ports to listen on, 0 binds an ephemeral port
+     */
+    public SimplePeerServer(KeyStoreInfo keyStoreInfo, int... sharedPorts) {
+        if (sharedPorts.length == 0) {
+            throw new IllegalArgumentException("At least one shared port is needed");
+        }
+        this.keyStoreInfo = keyStoreInfo;
+        this.connectionWrapper = null;
+        List<PeerTransport> opened = new ArrayList<>();
+        try {
+            for (int port : sharedPorts) {
+                NioUdpTransport transport = new NioUdpTransport(port);
+                opened.add(transport);
+                transport.start();
+            }
+        } catch (IOException e) {
+            opened.forEach(PeerTransport::close);
+            throw new IllegalStateException("Failed to open shared socket:", e);
+        }
+        this.transports = Collections.unmodifiableList(opened);
+    }
+
+    /**
+     * Server where connections get their sockets from the given transports, round robin.
+     * The transports are closed with the server.
+     *
+     * @param keyStoreInfo server keystore
+     * @param transports started transports
+     */
+    public SimplePeerServer(KeyStoreInfo keyStoreInfo, List<? extends PeerTransport> transports) {
+        if (transports.isEmpty()) {
+            throw new IllegalArgumentException("At least one transport is needed");
+        }
+        this.keyStoreInfo = keyStoreInfo;
+        this.connectionWrapper = null;
+        this.transports = Collections.unmodifiableList(new ArrayList<>(transports));
     }
 
 
-    private ConcurrentHashMap<Integer,ConnectionImplementation> connections = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String,ConnectionImplementation> connections = new ConcurrentHashMap<>();
     public Consumer<PeerConnection> onConnection = (i) -> {};
 
+    /**
+     * How connections created from now on run
+     */
+    private volatile ConnectionOptions connectionOptions = ConnectionOptions.defaults();
+
     /**
      * Server keystore for encryption
      */
@@ -87,13 +150,17 @@ public class SimplePeerServer {
                 keyStoreInfo.getAlias(),
                 keyStoreInfo.getPassword());
 
-        ConnectionImplementation ds = connectionWrapper != null ?
-                connectionWrapper.apply(remotePeer) :
-                new ConnectionImplementation(keyStoreInfo,remotePeer);
+        ConnectionImplementation ds;
+        if(connectionWrapper != null) {
+            ds = connectionWrapper.apply(remotePeer);
+        }
+        else {
+            ds = new ConnectionImplementation(keyStoreInfo,remotePeer,nextTransport(),connectionOptions);
+        }
 
         onConnection.accept(ds.getPeerConnection());
-        connections.put(ds.getPort(),ds);
-        new Thread(ds).start();
+        connections.put(ds.getLocal().getUserName(),ds);
+        ds.start();
 
         SessionDescription answerSdp = SDPUtil.createSDP(
                 ds.getIceCandidate(),
@@ -108,6 +175,32 @@ public class SimplePeerServer {
         return Collections.singletonList(new Answer(answerSdp));
     }
 
+    /**
+     * @return transport to put the next connection on
+     */
+    private PeerTransport nextTransport() {
+        int index = Math.floorMod(nextTransport.getAndIncrement(), transports.size());
+        return transports.get(index);
+    }
+
+    public ConnectionOptions getConnectionOptions() {
+        return connectionOptions;
+    }
+
+    /**
+     * @param connectionOptions options used for connections created after this call
+     */
+    public void setConnectionOptions(ConnectionOptions connectionOptions) {
+        this.connectionOptions = connectionOptions;
+    }
+
+    /**
+     * Close the transports, and with them all connections on shared sockets.
+     */
+    public void close() {
+        transports.forEach(PeerTransport::close);
+    }
+
 
 
 
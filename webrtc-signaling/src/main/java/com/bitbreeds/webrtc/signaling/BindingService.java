@@ -1,14 +1,12 @@
 package com.bitbreeds.webrtc.signaling;
 
-import com.bitbreeds.webrtc.common.SignalUtil;
-import com.bitbreeds.webrtc.stun.*;
+import com.bitbreeds.webrtc.stun.StunResponder;
 import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.util.Arrays;
-import java.util.HashMap;
 
 /**
  * Copyright (c) 08/05/16, Jonas Waage
@@ -29,62 +27,53 @@ import java.util.HashMap;
 
 /**
  * Service for creating a STUN response from a request
+ *
+ * Responses come from a {@link StunResponder} kept for the local password,
+ * one service is created per connection so consent checks do not share state.
  */
 public class BindingService  {
 
     private static final Logger logger = LoggerFactory.getLogger(BindingService.class);
 
+    private StunResponder responder;
+    private String responderPassword;
+
     public byte[] processBindingRequest(
             byte[] data,
             String userName,
             String password,
             InetSocketAddress sender) {
+        return processBindingRequest(data, 0, data.length, userName, password, sender);
+    }
 
-        logger.trace("Input: " + Hex.encodeHexString(data));
-
-        StunMessage msg = StunMessage.fromBytes(data);
-
-        logger.trace("InputParsed: " + msg);
-
-        byte[] content = SignalUtil.joinBytesArrays(
-                SignalUtil.twoBytesFromInt(0x01),
-                SignalUtil.xor(
-                        SignalUtil.twoBytesFromInt(sender.getPort()),
-                        Arrays.copyOf(msg.getHeader().getCookie(),2)),
-                SignalUtil.xor(
-                        sender.getAddress().getAddress(),
-                        msg.getHeader().getCookie()
-                        )
-        );
-
-        StunAttribute attr = new StunAttribute(
-                StunAttributeTypeEnum.XOR_MAPPED_ADDRESS,content);
-
-        StunAttribute user = msg.getAttributeSet().get(StunAttributeTypeEnum.USERNAME);
-        String strUser = new String(user.toBytes()).split(":")[0].trim();
-
-        msg.validate(password,data);
+    public byte[] processBindingRequest(
+            byte[] data,
+            int offset,
+            int length,
+            String userName,
+            String password,
+            InetSocketAddress sender) {
 
-        HashMap<StunAttributeTypeEnum,StunAttribute> outSet = new HashMap<>();
-        outSet.put(StunAttributeTypeEnum.XOR_MAPPED_ADDRESS,attr);
-        outSet.putAll(msg.getAttributeSet());
+        if (logger.isTraceEnabled()) {
+            logger.trace("Input: " + Hex.encodeHexString(Arrays.copyOfRange(data, offset, offset + length)));
+        }
 
-        StunMessage output = StunMessage.fromData(
-                StunRequestTypeEnum.BINDING_RESPONSE,
-                msg.getHeader().getCookie(),
-                msg.getHeader().getTransactionID(),
-                outSet,
-                true,
-                true,
-                strUser,
-                password
-        );
+        byte[] bt = responderFor(password).respond(data, offset, length, sender);
 
-        byte[] bt = output.toBytes();
-        logger.trace("Response: "+Hex.encodeHexString(bt));
+        if (logger.isTraceEnabled()) {
+            logger.trace("Response: " + Hex.encodeHexString(bt));
+        }
         return bt;
     }
 
+    private synchronized StunResponder responderFor(String password) {
+        if (responder == null || !password.equals(responderPassword)) {
+            responder = new StunResponder(password);
+            responderPassword = password;
+        }
+        return responder;
+    }
+
 
     public byte[] createStunRequest() {
         return new byte[0];
@@ -0,0 +1,154 @@
+package com.bitbreeds.webrtc.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * One non-blocking {@link DatagramChannel} serving many peer connections from a {@link Selector} event loop.
+ *
+ * When the channel is readable every waiting datagram is read and routed to its connection,
+ * which reacts to it right away through its {@link DatagramListener}.
+ * No thread is blocked per connection, and nothing sleeps waiting for data.
+ *
+ * @see RoutingTransport for how datagrams find their connection
+ */
+public class NioUdpTransport extends RoutingTransport implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NioUdpTransport.class);
+
+    private final static int SOCKET_BUFFER_SIZE = 8000000;
+    private final static int MAX_DATAGRAM_SIZE = 65535;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final int port;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param port port to bind, 0 for an ephemeral port
+     */
+    public NioUdpTransport(int port) throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.setOption(StandardSocketOptions.SO_RCVBUF, SOCKET_BUFFER_SIZE);
+        this.channel.setOption(StandardSocketOptions.SO_SNDBUF, SOCKET_BUFFER_SIZE);
+        this.channel.bind(new InetSocketAddress(port));
+        this.channel.configureBlocking(false);
+        this.port = ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        this.selector = Selector.open();
+        this.channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    /**
+     * Start the event loop thread.
+     */
+    public void start() {
+        Thread thread = new Thread(this, "nio-udp-" + port);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        logger.info("Started event loop on port: {}", port);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+        while (running) {
+            try {
+                selector.select();
+                selector.selectedKeys().clear();
+                readAll(buffer);
+            } catch (Exception e) {
+                if (running) {
+                    logger.error("Event loop failed on port {}", port, e);
+                }
+            }
+        }
+        logger.info("Stopped event loop on port: {}", port);
+    }
+
+    /**
+     * Read until the channel has no more datagrams waiting.
+     */
+    private void readAll(ByteBuffer buffer) throws IOException {
+        SocketAddress sender;
+        while ((sender = channel.receive(buffer)) != null) {
+            buffer.flip();
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            buffer.clear();
+            route(data, sender);
+        }
+    }
+
+    /**
+     * A full send buffer drops the datagram, the same as the network would.
+     */
+    @Override
+    void send(byte[] data, int offset, int length, SocketAddress remote) throws IOException {
+        int sent = channel.send(ByteBuffer.wrap(data, offset, length), remote);
+        if (sent == 0) {
+            logger.debug("Send buffer full on port {}, dropped datagram to {}", port, remote);
+        }
+    }
+
+    @Override
+    boolean isOpen() {
+        return running && channel.isOpen();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return port;
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stop the event loop, close the channel and every connection on it.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            channel.close();
+            selector.close();
+        } catch (IOException e) {
+            logger.warn("Failed closing channel on port {}", port, e);
+        }
+        closePeers();
+    }
+}
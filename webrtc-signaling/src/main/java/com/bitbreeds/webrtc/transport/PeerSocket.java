@@ -0,0 +1,100 @@
+package com.bitbreeds.webrtc.transport;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.List;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * The UDP endpoint a single peer connection reads and writes datagrams through.
+ *
+ * Mirrors the part of {@link java.net.DatagramSocket} the connection uses, so a connection
+ * can run on its own socket ({@link DedicatedPeerSocket}) or on a socket shared
+ * with many other connections ({@link SharedPeerSocket}).
+ *
+ * Sockets that support a {@link DatagramListener} let the connection react to datagrams as
+ * they arrive, instead of blocking a thread in receive.
+ */
+public interface PeerSocket {
+
+    /**
+     * Block until a datagram for this connection is available, or the timeout expires.
+     *
+     * @param packet packet to fill with data and sender address
+     * @throws java.net.SocketTimeoutException if the timeout expires
+     */
+    void receive(DatagramPacket packet) throws IOException;
+
+    /**
+     * @param packet packet to send, to the connected address if the packet has none
+     */
+    void send(DatagramPacket packet) throws IOException;
+
+    /**
+     * Send datagrams written together, sockets that can hand several to the kernel at once override this.
+     *
+     * @param packets packets to send in order, to the connected address if a packet has none
+     */
+    default void send(List<DatagramPacket> packets) throws IOException {
+        for (DatagramPacket packet : packets) {
+            send(packet);
+        }
+    }
+
+    /**
+     * @param timeout receive timeout in millis, 0 means wait forever
+     */
+    void setSoTimeout(int timeout) throws SocketException;
+
+    /**
+     * Lock the socket to a remote address, this is done once ICE has selected the peer.
+     *
+     * @param remote address of the remote peer
+     */
+    void connect(SocketAddress remote) throws SocketException;
+
+    boolean isConnected();
+
+    boolean isBound();
+
+    int getLocalPort();
+
+    SocketAddress getLocalSocketAddress();
+
+    void close();
+
+    /**
+     * @return true if this socket can push datagrams to a {@link DatagramListener}
+     */
+    default boolean supportsListener() {
+        return false;
+    }
+
+    /**
+     * Push datagrams to the listener as they arrive, instead of queueing them for {@link #receive(DatagramPacket)}.
+     *
+     * @param listener listener called on the transport thread
+     */
+    default void setListener(DatagramListener listener) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can only be read with receive");
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.bitbreeds.webrtc.transport;
+
+import java.io.IOException;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * SPI for the UDP layer peer connections run on.
+ *
+ * A transport hands out one {@link PeerSocket} per connection.
+ * Implementations decide how many OS sockets and threads are behind those.
+ *
+ * @see DedicatedPeerTransport one socket and one reading thread per connection
+ * @see SharedUdpSocket one socket and one blocking reader thread for many connections
+ * @see NioUdpTransport one socket and a selector event loop for many connections
+ */
+public interface PeerTransport {
+
+    /**
+     * @param localUfrag the ICE ufrag we gave the remote peer in our answer
+     * @return socket for a new connection
+     */
+    PeerSocket open(String localUfrag) throws IOException;
+
+    /**
+     * Release the resources of the transport, and close all sockets opened from it.
+     */
+    void close();
+
+}
@@ -0,0 +1,154 @@
+package com.bitbreeds.webrtc.transport;
+
+import com.bitbreeds.webrtc.stun.StunAttribute;
+import com.bitbreeds.webrtc.stun.StunAttributeTypeEnum;
+import com.bitbreeds.webrtc.stun.StunMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * Base for transports where one UDP socket serves many peer connections.
+ *
+ * Incoming datagrams are routed to a {@link SharedPeerSocket} by the remote address
+ * the connection has connected to. Datagrams from an address we do not know yet are only
+ * accepted if they are STUN binding requests, these are routed by the local ICE ufrag found
+ * in the USERNAME attribute. The connection then validates the request using its own password
+ * in {@link com.bitbreeds.webrtc.signaling.BindingService}, and connects to the remote address
+ * when it is accepted.
+ *
+ * Everything from a known address goes to its connection, so DTLS and STUN consent checks
+ * are demultiplexed the same way as on a dedicated socket.
+ */
+public abstract class RoutingTransport implements PeerTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingTransport.class);
+
+    private final static int STUN_HEADER_LENGTH = 20;
+
+    private final ConcurrentHashMap<SocketAddress,SharedPeerSocket> byRemote = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,SharedPeerSocket> byUfrag = new ConcurrentHashMap<>();
+
+    /**
+     * @param localUfrag the ICE ufrag we gave the remote peer in our answer
+     * @return a socket receiving everything sent to this connection
+     */
+    @Override
+    public SharedPeerSocket open(String localUfrag) {
+        SharedPeerSocket peerSocket = new SharedPeerSocket(this, localUfrag);
+        SharedPeerSocket existing = byUfrag.putIfAbsent(localUfrag, peerSocket);
+        if (existing != null) {
+            throw new IllegalStateException("Ufrag " + localUfrag + " is already in use on port " + getLocalPort());
+        }
+        return peerSocket;
+    }
+
+    /**
+     * Find the connection a datagram belongs to and hand it over.
+     *
+     * @param data datagram content
+     * @param sender remote address it came from
+     */
+    void route(byte[] data, SocketAddress sender) {
+        SharedPeerSocket target = byRemote.get(sender);
+        if (target == null && isBindingRequest(data)) {
+            target = localUfrag(data).map(byUfrag::get).orElse(null);
+        }
+
+        if (target != null) {
+            target.deliver(data, sender);
+        } else {
+            logger.debug("Dropping datagram of {} bytes from unknown sender {}", data.length, sender);
+        }
+    }
+
+    /**
+     * Route everything from the remote address to the given socket.
+     */
+    void bind(SocketAddress remote, SharedPeerSocket peerSocket) {
+        SharedPeerSocket previous = byRemote.put(remote, peerSocket);
+        if (previous != null && previous != peerSocket) {
+            logger.warn("Remote {} moved from connection {} to {}", remote, previous.getLocalUfrag(), peerSocket.getLocalUfrag());
+        }
+    }
+
+    void unregister(SharedPeerSocket peerSocket) {
+        byUfrag.remove(peerSocket.getLocalUfrag(), peerSocket);
+        SocketAddress remote = peerSocket.getRemote();
+        if (remote != null) {
+            byRemote.remove(remote, peerSocket);
+        }
+    }
+
+    /**
+     * Close every connection opened from this transport.
+     */
+    void closePeers() {
+        byUfrag.values().forEach(SharedPeerSocket::close);
+    }
+
+    /**
+     * @return number of connections using this transport
+     */
+    public int getConnectionCount() {
+        return byUfrag.size();
+    }
+
+    abstract void send(byte[] data, int offset, int length, SocketAddress remote) throws IOException;
+
+    abstract boolean isOpen();
+
+    public abstract int getLocalPort();
+
+    public abstract SocketAddress getLocalSocketAddress();
+
+    /**
+     * Same check as the DTLS/STUN demultiplexing, a binding request starts with 0x0001.
+     */
+    public static boolean isBindingRequest(byte[] data) {
+        return data.length >= STUN_HEADER_LENGTH && data[0] == 0 && data[1] == 1;
+    }
+
+    /**
+     * The USERNAME of a binding request is 'receiver ufrag:sender ufrag',
+     * so the first part identifies the local connection.
+     *
+     * @param data binding request
+     * @return local ufrag if the request has a USERNAME attribute
+     */
+    static Optional<String> localUfrag(byte[] data) {
+        try {
+            StunAttribute user = StunMessage.fromBytes(data)
+                    .getAttributeSet()
+                    .get(StunAttributeTypeEnum.USERNAME);
+            if (user == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(user.getData()).split(":")[0].trim());
+        } catch (Exception e) {
+            logger.debug("Could not read USERNAME from binding request", e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.bitbreeds.webrtc.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.DatagramPacket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * The view one peer connection has of a {@link RoutingTransport}.
+ *
+ * Datagrams routed to this connection are pushed to the listener if one is set,
+ * otherwise they are queued until the connection reads them.
+ * Sends go straight out on the shared socket.
+ * When the queue is full datagrams are dropped, as they would be by a full socket buffer.
+ */
+public class SharedPeerSocket implements PeerSocket {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedPeerSocket.class);
+
+    private final static int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Put on the queue to wake up a reader blocked in receive when closing.
+     */
+    private final static DatagramPacket CLOSED = new DatagramPacket(new byte[0], 0);
+
+    private final RoutingTransport owner;
+    private final String localUfrag;
+    private final BlockingQueue<DatagramPacket> inbound = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private volatile DatagramListener listener;
+    private volatile SocketAddress remote;
+    private volatile int timeout = 0;
+    private volatile boolean closed = false;
+
+    SharedPeerSocket(RoutingTransport owner, String localUfrag) {
+        this.owner = owner;
+        this.localUfrag = localUfrag;
+    }
+
+    /**
+     * Called by the owner when a datagram is routed to this connection.
+     */
+    void deliver(byte[] data, SocketAddress sender) {
+        if (closed) {
+            return;
+        }
+        DatagramListener current = listener;
+        if (current != null) {
+            current.onDatagram(data, sender);
+        } else if (!inbound.offer(new DatagramPacket(data, data.length, sender))) {
+            logger.debug("Inbound queue full for {}, dropping datagram from {}", localUfrag, sender);
+        }
+    }
+
+    @Override
+    public void receive(DatagramPacket packet) throws IOException {
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+
+        DatagramPacket next;
+        try {
+            next = timeout > 0 ? inbound.poll(timeout, TimeUnit.MILLISECONDS) : inbound.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while receiving");
+        }
+
+        if (next == null) {
+            throw new SocketTimeoutException("Receive timed out");
+        }
+        if (next == CLOSED) {
+            throw new SocketException("Socket is closed");
+        }
+
+        int length = Math.min(next.getLength(), packet.getData().length - packet.getOffset());
+        System.arraycopy(next.getData(), 0, packet.getData(), packet.getOffset(), length);
+        packet.setLength(length);
+        packet.setSocketAddress(next.getSocketAddress());
+    }
+
+    @Override
+    public void send(DatagramPacket packet) throws IOException {
+        SocketAddress target = packet.getAddress() != null ? packet.getSocketAddress() : remote;
+        if (target == null) {
+            throw new SocketException("Socket is not connected");
+        }
+        owner.send(packet.getData(), packet.getOffset(), packet.getLength(), target);
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) throws SocketException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout can not be negative: " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void connect(SocketAddress remote) throws SocketException {
+        this.remote = remote;
+        owner.bind(remote, this);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return remote != null;
+    }
+
+    @Override
+    public boolean isBound() {
+        return !closed && owner.isOpen();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return owner.getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return owner.getLocalSocketAddress();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            owner.unregister(this);
+            inbound.clear();
+            inbound.offer(CLOSED);
+        }
+    }
+
+    @Override
+    public boolean supportsListener() {
+        return true;
+    }
+
+    /**
+     * Datagrams queued before the listener was set are handed to it right away.
+     */
+    @Override
+    public void setListener(DatagramListener listener) {
+        this.listener = listener;
+        DatagramPacket queued;
+        while (listener != null && (queued = inbound.poll()) != null) {
+            if (queued != CLOSED) {
+                listener.onDatagram(queued.getData(), queued.getSocketAddress());
+            }
+        }
+    }
+
+    public String getLocalUfrag() {
+        return localUfrag;
+    }
+
+    SocketAddress getRemote() {
+        return remote;
+    }
+}
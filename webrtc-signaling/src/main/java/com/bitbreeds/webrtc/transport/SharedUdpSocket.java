@@ -0,0 +1,114 @@
+package com.bitbreeds.webrtc.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+/**
+ * One UDP socket serving many peer connections, read by a single blocking thread.
+ *
+ * @see RoutingTransport for how datagrams find their connection
+ */
+public class SharedUdpSocket extends RoutingTransport implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedUdpSocket.class);
+
+    private final static int SOCKET_BUFFER_SIZE = 8000000;
+    private final static int MAX_DATAGRAM_SIZE = 65535;
+
+    private final DatagramSocket socket;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param port port to bind, 0 for an ephemeral port
+     */
+    public SharedUdpSocket(int port) throws SocketException {
+        this.socket = new DatagramSocket(port);
+        this.socket.setReceiveBufferSize(SOCKET_BUFFER_SIZE);
+        this.socket.setSendBufferSize(SOCKET_BUFFER_SIZE);
+    }
+
+    /**
+     * Start the thread reading from the socket.
+     */
+    public void start() {
+        Thread thread = new Thread(this, "shared-udp-" + getLocalPort());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        logger.info("Started shared socket on port: {}", getLocalPort());
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (running) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, 0, buffer.length);
+                socket.receive(packet);
+                route(Arrays.copyOf(packet.getData(), packet.getLength()), packet.getSocketAddress());
+            } catch (IOException e) {
+                if (running) {
+                    logger.error("Receive failed on shared socket {}", getLocalPort(), e);
+                }
+            } catch (Exception e) {
+                logger.error("Routing failed on shared socket {}", getLocalPort(), e);
+            }
+        }
+        logger.info("Stopped shared socket on port: {}", getLocalPort());
+    }
+
+    @Override
+    void send(byte[] data, int offset, int length, SocketAddress remote) throws IOException {
+        socket.send(new DatagramPacket(data, offset, length, remote));
+    }
+
+    @Override
+    boolean isOpen() {
+        return running && !socket.isClosed();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return socket.getLocalSocketAddress();
+    }
+
+    /**
+     * Close the socket and every connection on it.
+     */
+    @Override
+    public void close() {
+        running = false;
+        socket.close();
+        closePeers();
+    }
+
+}
@@ -1,9 +1,9 @@
 package com.bitbreeds.webrtc.sctp.messaging;
 
+import com.bitbreeds.webrtc.common.CRC32c;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.peerconnection.ConnectionImplementation;
 import com.bitbreeds.webrtc.sctp.impl.buffer.WireRepresentation;
-import com.bitbreeds.webrtc.sctp.model.CRC32c;
 import com.bitbreeds.webrtc.sctp.impl.SCTPContext;
 import com.bitbreeds.webrtc.sctp.impl.SCTPImpl;
 import org.apache.commons.codec.DecoderException;
@@ -56,7 +56,7 @@ public class SCTPServiceTest {
         crc.reset();
         crc.update(out,0,out.length);
 
-        System.out.println("As Bytes: "+Hex.encodeHexString(crc.getValueAsBytes()));
+        System.out.println("As Bytes: "+Hex.encodeHexString(SignalUtil.longToFourBytes(crc.getValue())));
 
         for(int i =0; i<4; i++) {
             out[8+i] = (byte)0;
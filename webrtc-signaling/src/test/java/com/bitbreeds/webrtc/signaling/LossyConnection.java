@@ -1,5 +1,6 @@
 package com.bitbreeds.webrtc.signaling;
 
+import com.bitbreeds.webrtc.common.PooledBuffer;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import com.bitbreeds.webrtc.peerconnection.ConnectionImplementation;
 import com.bitbreeds.webrtc.dtls.KeyStoreInfo;
@@ -78,16 +79,17 @@ public class LossyConnection extends ConnectionImplementation {
      * Ensure that the connection will not process this message
      * for some percentage of messages, simulating a drop.
      *
-     * @param buf with received bytes
+     * @param buf with received bytes, released when dropped
      */
     @Override
-    public void processReceivedMessage(byte[] buf) {
+    public void processReceivedMessage(PooledBuffer buf) {
         int rd = random.nextInt(100);
         if(rd > packetlossPercentageIn) {
             super.processReceivedMessage(buf);
         }
         else {
-            logger.info("Dropped received message with rd {} and data {}",rd, Hex.encodeHexString(buf));
+            logger.info("Dropped received message with rd {} and data {}",rd, Hex.encodeHexString(buf.toBytes()));
+            buf.release();
         }
     }
 }
@@ -0,0 +1,99 @@
+package com.bitbreeds.webrtc.transport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class NioUdpTransportTest {
+
+    private NioUdpTransport transport;
+    private DatagramSocket client;
+
+    @Before
+    public void setup() throws Exception {
+        transport = new NioUdpTransport(0);
+        transport.start();
+        client = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        client.setSoTimeout(2000);
+    }
+
+    @After
+    public void tearDown() {
+        transport.close();
+        client.close();
+    }
+
+    private static byte[] bindingRequest(String userName) {
+        byte[] user = userName.getBytes();
+        int padded = (user.length + 3) / 4 * 4;
+        ByteBuffer buffer = ByteBuffer.allocate(20 + 4 + padded);
+        buffer.putShort((short) 0x0001);
+        buffer.putShort((short) (4 + padded));
+        buffer.putInt(0x2112A442);
+        buffer.put(new byte[12]);
+        buffer.putShort((short) 0x0006);
+        buffer.putShort((short) user.length);
+        buffer.put(user);
+        return buffer.array();
+    }
+
+    @Test
+    public void testPushAndReply() throws Exception {
+        BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+        PeerSocket socket = transport.open("abcd");
+        assertTrue(socket.supportsListener());
+        socket.setListener((data, sender) -> received.add(data));
+
+        InetSocketAddress server = new InetSocketAddress(InetAddress.getLoopbackAddress(), transport.getLocalPort());
+        byte[] request = bindingRequest("abcd:efgh");
+        client.send(new DatagramPacket(request, request.length, server));
+
+        byte[] pushed = received.poll(2, TimeUnit.SECONDS);
+        assertNotNull(pushed);
+        assertArrayEquals(request, pushed);
+
+        socket.connect(client.getLocalSocketAddress());
+        byte[] reply = new byte[]{1, 2, 3, 4};
+        socket.send(new DatagramPacket(reply, reply.length));
+
+        DatagramPacket packet = new DatagramPacket(new byte[100], 100);
+        client.receive(packet);
+        assertArrayEquals(reply, Arrays.copyOf(packet.getData(), packet.getLength()));
+
+        byte[] dtls = new byte[]{22, 3, 3};
+        client.send(new DatagramPacket(dtls, dtls.length, server));
+        assertArrayEquals(dtls, received.poll(2, TimeUnit.SECONDS));
+        assertEquals(1, transport.getConnectionCount());
+    }
+
+}
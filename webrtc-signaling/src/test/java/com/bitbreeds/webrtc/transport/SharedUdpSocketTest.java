@@ -0,0 +1,142 @@
+package com.bitbreeds.webrtc.transport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class SharedUdpSocketTest {
+
+    private final InetSocketAddress remote = new InetSocketAddress("127.0.0.1", 40000);
+    private final InetSocketAddress other = new InetSocketAddress("127.0.0.1", 40001);
+
+    private SharedUdpSocket shared;
+
+    @Before
+    public void setup() throws Exception {
+        shared = new SharedUdpSocket(0);
+    }
+
+    @After
+    public void tearDown() {
+        shared.close();
+    }
+
+    private static byte[] bindingRequest(String userName) {
+        byte[] user = userName.getBytes();
+        int padded = (user.length + 3) / 4 * 4;
+        ByteBuffer buffer = ByteBuffer.allocate(20 + 4 + padded);
+        buffer.putShort((short) 0x0001);
+        buffer.putShort((short) (4 + padded));
+        buffer.putInt(0x2112A442);
+        buffer.put(new byte[12]);
+        buffer.putShort((short) 0x0006);
+        buffer.putShort((short) user.length);
+        buffer.put(user);
+        return buffer.array();
+    }
+
+    private static byte[] receive(PeerSocket socket) throws Exception {
+        DatagramPacket packet = new DatagramPacket(new byte[1500], 1500);
+        socket.receive(packet);
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+
+    @Test
+    public void testReadUfragFromBindingRequest() {
+        byte[] request = bindingRequest("abcd:efgh");
+        assertTrue(SharedUdpSocket.isBindingRequest(request));
+        assertEquals("abcd", SharedUdpSocket.localUfrag(request).orElse(null));
+    }
+
+    @Test
+    public void testRouteBindingRequestByUfrag() throws Exception {
+        SharedPeerSocket first = shared.open("abcd");
+        SharedPeerSocket second = shared.open("1234");
+        second.setSoTimeout(10);
+
+        byte[] request = bindingRequest("abcd:efgh");
+        shared.route(request, remote);
+
+        assertArrayEquals(request, receive(first));
+        try {
+            receive(second);
+            throw new AssertionError("Request routed to the wrong connection");
+        } catch (SocketTimeoutException e) {
+            //expected
+        }
+    }
+
+    @Test(expected = SocketTimeoutException.class)
+    public void testDropUnknownNonStun() throws Exception {
+        SharedPeerSocket socket = shared.open("abcd");
+        socket.setSoTimeout(10);
+        shared.route(new byte[]{22, 1, 2, 3}, remote);
+        receive(socket);
+    }
+
+    @Test
+    public void testRouteByRemoteAfterConnect() throws Exception {
+        SharedPeerSocket socket = shared.open("abcd");
+        socket.setSoTimeout(10);
+        socket.connect(remote);
+
+        byte[] dtls = new byte[]{22, 1, 2, 3};
+        shared.route(dtls, remote);
+        assertArrayEquals(dtls, receive(socket));
+
+        shared.route(dtls, other);
+        try {
+            receive(socket);
+            throw new AssertionError("Datagram from other address routed to connection");
+        } catch (SocketTimeoutException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testCloseUnregisters() throws Exception {
+        SharedPeerSocket socket = shared.open("abcd");
+        socket.connect(remote);
+        assertEquals(1, shared.getConnectionCount());
+
+        socket.close();
+        assertFalse(socket.isBound());
+        assertEquals(0, shared.getConnectionCount());
+
+        shared.open("abcd");
+        assertEquals(1, shared.getConnectionCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicateUfrag() {
+        shared.open("abcd");
+        shared.open("abcd");
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.bitbreeds.webrtc.stun;
 
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import org.apache.commons.codec.binary.Hex;
 
-import java.util.Arrays;
-
 /**
  * Copyright (c) 11/05/16, Jonas Waage
  * <p>
@@ -54,11 +53,11 @@ public class StunAttribute {
      * @return representing this value on the wire
      */
     public byte[] toBytes() {
-        int outLgt = SignalUtil.multipleOfFour(this.length);
-        return SignalUtil.joinBytesArrays(
-                type.toBytes(),
-                SignalUtil.twoBytesFromInt(length),
-                Arrays.copyOf(data,outLgt));
+        return ByteCursor.wrap(new byte[4 + SignalUtil.multipleOfFour(this.length)])
+                .writeShort(type.getNr())
+                .writeShort(length)
+                .writeBytes(data)
+                .array();
     }
 
     @Override
@@ -2,8 +2,6 @@ package com.bitbreeds.webrtc.stun;
 
 import com.bitbreeds.webrtc.common.SignalUtil;
 
-import java.util.Arrays;
-
 /**
  * Copyright (c) 11/05/16, Jonas Waage
  * <p>
@@ -79,10 +77,16 @@ public enum StunAttributeTypeEnum {
      * @return int to enum
      */
     public static StunAttributeTypeEnum fromInt(int nr) {
-        return Arrays.asList(StunAttributeTypeEnum.values()).stream().filter(i->i.nr==nr)
-                .findFirst().orElse(NOT_KNOWN);
+        for (StunAttributeTypeEnum value : VALUES) {
+            if (value.nr == nr) {
+                return value;
+            }
+        }
+        return NOT_KNOWN;
     }
 
+    private static final StunAttributeTypeEnum[] VALUES = values();
+
 
     /**
      * @return bytes for the wire
@@ -1,6 +1,6 @@
 package com.bitbreeds.webrtc.stun;
 
-import com.bitbreeds.webrtc.common.SignalUtil;
+import com.bitbreeds.webrtc.common.ByteCursor;
 
 import java.util.Arrays;
 
@@ -41,19 +41,20 @@ public class StunHeader {
             throw new IllegalArgumentException("Header length must be 20, was: " + headerBytes.length);
         }
 
-        StunRequestTypeEnum type = StunRequestTypeEnum.fromBytes(Arrays.copyOfRange(headerBytes,0,TYPE_END_POSITION));
+        ByteCursor in = ByteCursor.wrap(headerBytes);
+        StunRequestTypeEnum type = StunRequestTypeEnum.fromInt(in.readUnsignedShort());
         if(type == StunRequestTypeEnum.NOT_KNOWN) {
             throw new StunError("Unknown message type:" + type);
         }
 
-        int messageLength = SignalUtil.intFromTwoBytes(Arrays.copyOfRange(headerBytes,TYPE_END_POSITION,MSG_LGT_END_POSITION));
+        int messageLength = in.readUnsignedShort();
 
         if(messageLength < 0 || messageLength > Short.MAX_VALUE) {
             throw new StunError("Too long messsage, was: " + messageLength);
         }
 
-        byte[] cookie = Arrays.copyOfRange(headerBytes,MSG_LGT_END_POSITION,COOKIE_END_POSITION);
-        byte[] transactionID = Arrays.copyOfRange(headerBytes,COOKIE_END_POSITION, TRANSID_END_POSITION);
+        byte[] cookie = in.readBytes(COOKIE_END_POSITION - MSG_LGT_END_POSITION);
+        byte[] transactionID = in.readBytes(TRANSID_END_POSITION - COOKIE_END_POSITION);
         return new StunHeader(type,messageLength,cookie,transactionID);
     }
 
@@ -98,11 +99,12 @@ public class StunHeader {
      * @return bytes representing this StunHeader
      */
     public byte[] toBytes() {
-        return SignalUtil.joinBytesArrays(
-                type.toBytes(),
-                SignalUtil.twoBytesFromInt(messageLength),
-                cookie,
-                transactionID);
+        return ByteCursor.wrap(new byte[TRANSID_END_POSITION])
+                .writeShort(type.getNr())
+                .writeShort(messageLength)
+                .writeBytes(cookie)
+                .writeBytes(transactionID)
+                .array();
     }
 
     public StunRequestTypeEnum getType() {
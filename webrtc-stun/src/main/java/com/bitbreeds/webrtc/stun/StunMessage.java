@@ -1,5 +1,6 @@
 package com.bitbreeds.webrtc.stun;
 
+import com.bitbreeds.webrtc.common.ByteCursor;
 import com.bitbreeds.webrtc.common.SignalUtil;
 import org.apache.commons.codec.binary.Hex;
 import java.util.*;
@@ -90,21 +91,16 @@ public class StunMessage {
         Map<StunAttributeTypeEnum,StunAttribute> attributeMap = new HashMap<>();
         int start = HEADER_LENGTH_BYTES;
 
-        while (start - HEADER_LENGTH_BYTES < header.getMessageLength() && (start) < data.length) {
-            byte[] tp = Arrays.copyOfRange(data, start, start + 2);
-            StunAttributeTypeEnum type = StunAttributeTypeEnum.fromBytes(tp);
-            start += 2;
-
-            int lgt = SignalUtil.intFromTwoBytes(Arrays.copyOfRange(data, start, start + 2));
-            start += 2;
-
-            byte[] bt = Arrays.copyOfRange(data, start, start + lgt);
-            String s = new String(bt);
-            start += lgt;
+        ByteCursor in = ByteCursor.wrap(data).position(start);
+        while (in.position() - HEADER_LENGTH_BYTES < header.getMessageLength() && in.remaining() > 0) {
+            int attributeStart = in.position();
+            StunAttributeTypeEnum type = StunAttributeTypeEnum.fromInt(in.readUnsignedShort());
+            int lgt = in.readUnsignedShort();
+            byte[] bt = in.readBytes(lgt);
 
             attributeMap.put(type,new StunAttribute(type, bt));
 
-            start = SignalUtil.multipleOfFour(start);
+            in.alignFrom(attributeStart);
         }
 
         return new StunMessage(header, attributeMap, true, true, null, null);
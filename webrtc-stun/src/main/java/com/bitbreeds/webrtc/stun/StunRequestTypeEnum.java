@@ -2,8 +2,6 @@ package com.bitbreeds.webrtc.stun;
 
 import com.bitbreeds.webrtc.common.SignalUtil;
 
-import java.util.Arrays;
-
 /**
  * Copyright (c) 11/05/16, Jonas Waage
  * <p>
@@ -69,10 +67,16 @@ public enum StunRequestTypeEnum {
      * @return int to enum
      */
     public static StunRequestTypeEnum fromInt(int nr) {
-        return Arrays.asList(StunRequestTypeEnum.values()).stream().filter(i->i.nr==nr)
-                .findFirst().orElse(NOT_KNOWN);
+        for (StunRequestTypeEnum value : VALUES) {
+            if (value.nr == nr) {
+                return value;
+            }
+        }
+        return NOT_KNOWN;
     }
 
+    private static final StunRequestTypeEnum[] VALUES = values();
+
 
     /**
      * @return bytes for the wire
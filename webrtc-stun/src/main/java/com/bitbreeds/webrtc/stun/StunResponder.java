@@ -0,0 +1,265 @@
+package com.bitbreeds.webrtc.stun;
+
+import com.bitbreeds.webrtc.common.ByteCursor;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.zip.CRC32;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+/**
+ * Answers STUN binding requests for one local ICE password without building a {@link StunMessage}.
+ *
+ * The request is validated where it lies, FINGERPRINT and MESSAGE-INTEGRITY are checked against
+ * a {@link Mac} keyed once, and the response is written into a copy of a prebuilt template,
+ * patching in the transaction ID and XOR-MAPPED-ADDRESS.
+ * A retransmitted request from the same sender gets the same response again from a small cache.
+ *
+ * Instances are safe to share, but are meant to be owned by one connection.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc5389#section-7.3">rfc5389 receiving a STUN message</a>
+ */
+public class StunResponder {
+
+    private static final int HEADER_LENGTH = 20;
+    private static final int TRANSACTION_ID_OFFSET = 8;
+    private static final int TRANSACTION_ID_LENGTH = 12;
+    private static final long MAGIC_COOKIE = 0x2112A442L;
+    private static final long FINGERPRINT_XOR = 0x5354554EL;
+
+    private static final int INTEGRITY_LENGTH = 20;
+    private static final int INTEGRITY_ATTRIBUTE_LENGTH = 4 + INTEGRITY_LENGTH;
+    private static final int FINGERPRINT_ATTRIBUTE_LENGTH = 8;
+
+    private static final int IPV4 = 0x01;
+    private static final int IPV6 = 0x02;
+
+    private static final int CACHE_SIZE = 8;
+
+    private final Mac mac;
+    private final CRC32 crc = new CRC32();
+    private final byte[] integrity = new byte[INTEGRITY_LENGTH];
+
+    private final byte[] ipv4Template = template(4);
+    private final byte[] ipv6Template = template(16);
+
+    private final byte[][] cachedIds = new byte[CACHE_SIZE][TRANSACTION_ID_LENGTH];
+    private final InetSocketAddress[] cachedSenders = new InetSocketAddress[CACHE_SIZE];
+    private final byte[][] cachedResponses = new byte[CACHE_SIZE][];
+    private int nextSlot = 0;
+
+    /**
+     * @param password local ICE password, the short term credential for MESSAGE-INTEGRITY
+     */
+    public StunResponder(String password) {
+        try {
+            this.mac = Mac.getInstance("HmacSHA1");
+            this.mac.init(new SecretKeySpec(password.getBytes(), "HmacSHA1"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1 not available", e);
+        }
+    }
+
+    /**
+     * @param data    buffer holding the request
+     * @param offset  start of the request in data
+     * @param length  length of the request
+     * @param sender  address the request came from
+     * @return binding response to send back to sender
+     * @throws StunError if the request is not a valid binding request for this password
+     */
+    public synchronized byte[] respond(byte[] data, int offset, int length, InetSocketAddress sender) {
+        validateHeader(data, offset, length);
+
+        byte[] cached = fromCache(data, offset, sender);
+        if (cached != null) {
+            return cached;
+        }
+
+        validateAttributes(data, offset, length);
+
+        byte[] response = createResponse(data, offset, sender);
+        store(data, offset, sender, response);
+        return response;
+    }
+
+    private static void validateHeader(byte[] data, int offset, int length) {
+        if (length < HEADER_LENGTH) {
+            throw new StunError("Message too short for STUN header, length=" + length);
+        }
+        int type = ByteCursor.getUnsignedShort(data, offset);
+        if (type != StunRequestTypeEnum.BINDING_REQUEST.getNr()) {
+            throw new StunError("Not a binding request, type=" + type);
+        }
+        int messageLength = ByteCursor.getUnsignedShort(data, offset + 2);
+        if (messageLength + HEADER_LENGTH != length || (messageLength & 3) != 0) {
+            throw new StunError("Bad message length " + messageLength + " for datagram of " + length);
+        }
+        if (ByteCursor.getUnsignedInt(data, offset + 4) != MAGIC_COOKIE) {
+            throw new StunError("Missing magic cookie, not a rfc5389 message");
+        }
+    }
+
+    /**
+     * Find MESSAGE-INTEGRITY and FINGERPRINT and check both, FINGERPRINT must be the last attribute.
+     */
+    private void validateAttributes(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int position = offset + HEADER_LENGTH;
+        int integrityAt = -1;
+        int fingerprintAt = -1;
+        while (position + 4 <= end) {
+            int type = ByteCursor.getUnsignedShort(data, position);
+            int attributeLength = ByteCursor.getUnsignedShort(data, position + 2);
+            if (type == StunAttributeTypeEnum.MESSAGE_INTEGRITY.getNr() && integrityAt < 0) {
+                integrityAt = position;
+            } else if (type == StunAttributeTypeEnum.FINGERPRINT.getNr()) {
+                fingerprintAt = position;
+            }
+            position += 4 + ((attributeLength + 3) & ~3);
+        }
+
+        if (fingerprintAt < 0 || fingerprintAt + FINGERPRINT_ATTRIBUTE_LENGTH != end) {
+            throw new StunError("Fingerprint missing or not last attribute");
+        }
+        crc.reset();
+        crc.update(data, offset, fingerprintAt - offset);
+        long computed = crc.getValue() ^ FINGERPRINT_XOR;
+        long sent = ByteCursor.getUnsignedInt(data, fingerprintAt + 4);
+        if (computed != sent) {
+            throw new StunError("Fingerprint bad, computed=" + computed + " sent=" + sent);
+        }
+
+        if (integrityAt < 0 || ByteCursor.getUnsignedShort(data, integrityAt + 2) != INTEGRITY_LENGTH) {
+            throw new StunError("Message integrity missing");
+        }
+        computeIntegrity(data, offset, integrityAt - offset);
+        if (!integrityMatches(data, integrityAt + 4)) {
+            throw new StunError("Integrity bad");
+        }
+    }
+
+    /**
+     * HMAC over everything before MESSAGE-INTEGRITY, with the header length
+     * set as if MESSAGE-INTEGRITY was the last attribute, result lands in {@link #integrity}.
+     */
+    private void computeIntegrity(byte[] data, int offset, int integrityAt) {
+        int adjustedLength = integrityAt - HEADER_LENGTH + INTEGRITY_ATTRIBUTE_LENGTH;
+        mac.update(data, offset, 2);
+        mac.update((byte) (adjustedLength >> 8));
+        mac.update((byte) adjustedLength);
+        mac.update(data, offset + 4, integrityAt - 4);
+        try {
+            mac.doFinal(integrity, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed computing message integrity", e);
+        }
+    }
+
+    /**
+     * Compare without exiting early, so timing does not reveal how much of the HMAC was right.
+     */
+    private boolean integrityMatches(byte[] data, int position) {
+        int diff = 0;
+        for (int i = 0; i < INTEGRITY_LENGTH; i++) {
+            diff |= integrity[i] ^ data[position + i];
+        }
+        return diff == 0;
+    }
+
+    private byte[] createResponse(byte[] request, int offset, InetSocketAddress sender) {
+        InetAddress address = sender.getAddress();
+        byte[] response = (address instanceof Inet4Address ? ipv4Template : ipv6Template).clone();
+        System.arraycopy(request, offset + TRANSACTION_ID_OFFSET, response, TRANSACTION_ID_OFFSET, TRANSACTION_ID_LENGTH);
+
+        int port = HEADER_LENGTH + 6;
+        ByteCursor.putShort(response, port, sender.getPort() ^ (int) (MAGIC_COOKIE >>> 16));
+        byte[] raw = address.getAddress();
+        for (int i = 0; i < raw.length; i++) {
+            //Cookie followed by transaction id is the XOR key, which is exactly header bytes 4 and on
+            response[port + 2 + i] = (byte) (raw[i] ^ response[4 + i]);
+        }
+
+        int integrityAt = response.length - FINGERPRINT_ATTRIBUTE_LENGTH - INTEGRITY_ATTRIBUTE_LENGTH;
+        computeIntegrity(response, 0, integrityAt);
+        System.arraycopy(integrity, 0, response, integrityAt + 4, INTEGRITY_LENGTH);
+
+        int fingerprintAt = response.length - FINGERPRINT_ATTRIBUTE_LENGTH;
+        crc.reset();
+        crc.update(response, 0, fingerprintAt);
+        ByteCursor.putInt(response, fingerprintAt + 4, crc.getValue() ^ FINGERPRINT_XOR);
+        return response;
+    }
+
+    private byte[] fromCache(byte[] data, int offset, InetSocketAddress sender) {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cachedResponses[i] != null
+                    && sameTransaction(cachedIds[i], data, offset)
+                    && cachedSenders[i].equals(sender)) {
+                return cachedResponses[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameTransaction(byte[] id, byte[] data, int offset) {
+        for (int i = 0; i < TRANSACTION_ID_LENGTH; i++) {
+            if (id[i] != data[offset + TRANSACTION_ID_OFFSET + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void store(byte[] data, int offset, InetSocketAddress sender, byte[] response) {
+        System.arraycopy(data, offset + TRANSACTION_ID_OFFSET, cachedIds[nextSlot], 0, TRANSACTION_ID_LENGTH);
+        cachedSenders[nextSlot] = sender;
+        cachedResponses[nextSlot] = response;
+        nextSlot = (nextSlot + 1) % CACHE_SIZE;
+    }
+
+    /**
+     * Binding response with XOR-MAPPED-ADDRESS, MESSAGE-INTEGRITY and FINGERPRINT,
+     * leaving transaction ID, address and the two checks to be filled in.
+     */
+    private static byte[] template(int addressLength) {
+        int mappedLength = 4 + addressLength;
+        int messageLength = 4 + mappedLength + INTEGRITY_ATTRIBUTE_LENGTH + FINGERPRINT_ATTRIBUTE_LENGTH;
+        ByteCursor out = ByteCursor.wrap(new byte[HEADER_LENGTH + messageLength])
+                .writeShort(StunRequestTypeEnum.BINDING_RESPONSE.getNr())
+                .writeShort(messageLength)
+                .writeInt(MAGIC_COOKIE)
+                .skip(TRANSACTION_ID_LENGTH)
+                .writeShort(StunAttributeTypeEnum.XOR_MAPPED_ADDRESS.getNr())
+                .writeShort(mappedLength)
+                .writeByte(0)
+                .writeByte(addressLength == 4 ? IPV4 : IPV6)
+                .skip(2 + addressLength)
+                .writeShort(StunAttributeTypeEnum.MESSAGE_INTEGRITY.getNr())
+                .writeShort(INTEGRITY_LENGTH)
+                .skip(INTEGRITY_LENGTH)
+                .writeShort(StunAttributeTypeEnum.FINGERPRINT.getNr())
+                .writeShort(4);
+        return out.array();
+    }
+
+}
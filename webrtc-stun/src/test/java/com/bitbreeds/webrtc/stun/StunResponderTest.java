@@ -0,0 +1,139 @@
+package com.bitbreeds.webrtc.stun;
+
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Copyright (c) 16/10/2026, Jonas Waage
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+public class StunResponderTest {
+
+    private static final byte[] COOKIE = new byte[]{0x21, 0x12, (byte) 0xA4, 0x42};
+
+    private static byte[] request(String password, int id) {
+        Map<StunAttributeTypeEnum,StunAttribute> attributes = new HashMap<>();
+        attributes.put(StunAttributeTypeEnum.ICE_CONTROLLED,
+                new StunAttribute(StunAttributeTypeEnum.ICE_CONTROLLED, new byte[8]));
+        byte[] transactionId = new byte[12];
+        transactionId[11] = (byte) id;
+        return StunMessage.fromData(
+                StunRequestTypeEnum.BINDING_REQUEST,
+                COOKIE,
+                transactionId,
+                attributes,
+                true,
+                true,
+                "user",
+                password).toBytes();
+    }
+
+    private static byte[] mappedAddress(byte[] response) {
+        StunMessage msg = StunMessage.fromBytes(response);
+        return msg.getAttributeSet().get(StunAttributeTypeEnum.XOR_MAPPED_ADDRESS).getData();
+    }
+
+    @Test
+    public void testResponseValidatesWithMessageCodec() {
+        byte[] request = request("pass", 1);
+        InetSocketAddress sender = new InetSocketAddress("192.168.1.10", 50000);
+
+        byte[] response = new StunResponder("pass").respond(request, 0, request.length, sender);
+
+        StunMessage msg = StunMessage.fromBytes(response);
+        assertEquals(StunRequestTypeEnum.BINDING_RESPONSE, msg.getHeader().getType());
+        assertArrayEquals(StunMessage.fromBytes(request).getHeader().getTransactionID(),
+                msg.getHeader().getTransactionID());
+        msg.validate("pass", response);
+
+        byte[] mapped = mappedAddress(response);
+        assertEquals(0x01, mapped[1]);
+        assertEquals(50000, ((mapped[2] & 0xFF) << 8 | (mapped[3] & 0xFF)) ^ 0x2112);
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            address[i] = (byte) (mapped[4 + i] ^ COOKIE[i]);
+        }
+        assertArrayEquals(sender.getAddress().getAddress(), address);
+    }
+
+    @Test
+    public void testIpv6Response() {
+        byte[] request = request("pass", 1);
+        InetSocketAddress sender = new InetSocketAddress("2001:db8::1", 50000);
+
+        byte[] response = new StunResponder("pass").respond(request, 0, request.length, sender);
+
+        StunMessage.fromBytes(response).validate("pass", response);
+        byte[] mapped = mappedAddress(response);
+        assertEquals(0x02, mapped[1]);
+        assertEquals(20, mapped.length);
+    }
+
+    @Test
+    public void testRequestAtOffset() {
+        byte[] request = request("pass", 1);
+        byte[] buffer = new byte[request.length + 10];
+        System.arraycopy(request, 0, buffer, 7, request.length);
+        InetSocketAddress sender = new InetSocketAddress("10.0.0.1", 1234);
+
+        byte[] response = new StunResponder("pass").respond(buffer, 7, request.length, sender);
+
+        StunMessage.fromBytes(response).validate("pass", response);
+    }
+
+    @Test
+    public void testRetransmitAnsweredFromCache() {
+        StunResponder responder = new StunResponder("pass");
+        byte[] request = request("pass", 1);
+        InetSocketAddress sender = new InetSocketAddress("10.0.0.1", 1234);
+
+        byte[] first = responder.respond(request, 0, request.length, sender);
+        byte[] again = responder.respond(request, 0, request.length, sender);
+        byte[] otherSender = responder.respond(request, 0, request.length, new InetSocketAddress("10.0.0.2", 1234));
+        byte[] otherId = responder.respond(request("pass", 2), 0, request.length, sender);
+
+        assertSame(first, again);
+        assertNotSame(first, otherSender);
+        assertNotSame(first, otherId);
+    }
+
+    @Test(expected = StunError.class)
+    public void testWrongPasswordRejected() {
+        byte[] request = request("other", 1);
+        new StunResponder("pass").respond(request, 0, request.length, new InetSocketAddress("10.0.0.1", 1234));
+    }
+
+    @Test(expected = StunError.class)
+    public void testCorruptFingerprintRejected() {
+        byte[] request = request("pass", 1);
+        request[request.length - 1] ^= 1;
+        new StunResponder("pass").respond(request, 0, request.length, new InetSocketAddress("10.0.0.1", 1234));
+    }
+
+    @Test(expected = StunError.class)
+    public void testNotBindingRequestRejected() {
+        byte[] request = request("pass", 1);
+        request[1] = 0x11;
+        new StunResponder("pass").respond(request, 0, request.length, new InetSocketAddress("10.0.0.1", 1234));
+    }
+
+}